@@ -15,6 +15,7 @@ import java.net.URL;
 import java.security.Key;
 import java.security.interfaces.RSAPublicKey;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Component
 public class CognitoSigningKeyResolver extends SigningKeyResolverAdapter {
@@ -25,6 +26,7 @@ public class CognitoSigningKeyResolver extends SigningKeyResolverAdapter {
     private final ConcurrentHashMap<String, RSAPublicKey> keyCache = new ConcurrentHashMap<>();
     private volatile JWKSet jwkSet;
     private volatile long lastFetchTime = 0;
+    private final ReentrantLock jwkSetLock = new ReentrantLock();
 
     public CognitoSigningKeyResolver(JwtProperties jwtProperties) {
         this.jwtProperties = jwtProperties;
@@ -81,24 +83,30 @@ public class CognitoSigningKeyResolver extends SigningKeyResolverAdapter {
         }
     }
 
-    private synchronized void fetchJwkSet() throws Exception {
-        // Double-checked locking
-        if (!isJwkSetExpired() && jwkSet != null) {
-            return;
-        }
+    private void fetchJwkSet() throws Exception {
+        // 네트워크 I/O 를 하는 동안 synchronized 를 잡으면 가상 스레드가 캐리어에 고정되므로 ReentrantLock 사용
+        jwkSetLock.lock();
+        try {
+            // Double-checked locking
+            if (!isJwkSetExpired() && jwkSet != null) {
+                return;
+            }
 
-        String jwksUrl = jwtProperties.getCognito().getEffectiveJwksUrl();
-        logger.debug("Fetching JWKS from: {}", jwksUrl);
+            String jwksUrl = jwtProperties.getCognito().getEffectiveJwksUrl();
+            logger.debug("Fetching JWKS from: {}", jwksUrl);
 
-        try {
-            this.jwkSet = JWKSet.load(new URL(jwksUrl));
-            this.lastFetchTime = System.currentTimeMillis();
+            try {
+                this.jwkSet = JWKSet.load(new URL(jwksUrl));
+                this.lastFetchTime = System.currentTimeMillis();
 
-            logger.info("JWKS fetched successfully from: {}", jwksUrl);
+                logger.info("JWKS fetched successfully from: {}", jwksUrl);
 
-        } catch (Exception e) {
-            logger.error("Failed to fetch JWKS from: {}", jwksUrl, e);
-            throw new RuntimeException("Failed to fetch JWKS", e);
+            } catch (Exception e) {
+                logger.error("Failed to fetch JWKS from: {}", jwksUrl, e);
+                throw new RuntimeException("Failed to fetch JWKS", e);
+            }
+        } finally {
+            jwkSetLock.unlock();
         }
     }
 
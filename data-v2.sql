@@ -11,6 +11,7 @@ DROP TABLE IF EXISTS performances CASCADE;
 DROP TABLE IF EXISTS venues CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
 DROP TABLE IF EXISTS queue_tokens CASCADE;
+DROP TABLE IF EXISTS queue_admission_counters CASCADE;
 
 -- 사용자 테이블
 CREATE TABLE IF NOT EXISTS users (
@@ -32,6 +33,7 @@ CREATE TABLE queue_tokens (
                               token VARCHAR(64) NOT NULL UNIQUE,
                               user_id VARCHAR(255) NOT NULL,
                               performance_id BIGINT NOT NULL,
+                              schedule_id BIGINT,
                               status VARCHAR(20) NOT NULL DEFAULT 'WAITING',
                               position_in_queue INTEGER,
                               estimated_wait_time INTEGER,
@@ -40,10 +42,21 @@ CREATE TABLE queue_tokens (
                               activated_at TIMESTAMP,
                               used_at TIMESTAMP,
                               booking_expires_at TIMESTAMP,
+                              queue_sequence BIGINT,
                               created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                               updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- 입장 활성 카운터 (queue.admission.backend=postgres)
+-- schedule_id = 0 은 공연 전체 카운터 (회차별 레인 카운터의 합)
+CREATE TABLE IF NOT EXISTS queue_admission_counters (
+                              performance_id BIGINT NOT NULL,
+                              schedule_id BIGINT NOT NULL DEFAULT 0,
+                              active_count INTEGER NOT NULL DEFAULT 0,
+                              updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                              PRIMARY KEY (performance_id, schedule_id)
+);
+
 -- 공연장 테이블
 CREATE TABLE IF NOT EXISTS venues (
                                       venue_id BIGSERIAL PRIMARY KEY,
@@ -210,6 +223,8 @@ CREATE INDEX IF NOT EXISTS idx_payments_transaction_id ON payments(transaction_i
 CREATE INDEX IF NOT EXISTS idx_refunds_payment_id ON refunds(payment_id);
 CREATE INDEX IF NOT EXISTS idx_refunds_booking_id ON refunds(booking_id);
 CREATE INDEX IF NOT EXISTS idx_system_metrics_timestamp ON system_metrics(timestamp);
+CREATE INDEX IF NOT EXISTS idx_queue_tokens_status_expires_at ON queue_tokens(status, expires_at);
+CREATE INDEX IF NOT EXISTS idx_queue_tokens_status_updated_at ON queue_tokens(status, updated_at);
 -- JSONB seatmap index
 CREATE INDEX IF NOT EXISTS idx_venues_seatmap ON venues USING gin (seat_map_json);
 
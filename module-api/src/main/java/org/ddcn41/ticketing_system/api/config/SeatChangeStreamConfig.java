@@ -0,0 +1,29 @@
+package org.ddcn41.ticketing_system.api.config;
+
+import org.ddcn41.ticketing_system.api.service.SeatAvailabilityCache;
+import org.ddcn41.ticketing_system.api.service.SeatChangeBroadcaster;
+import org.ddcn41.ticketing_system.seat.service.SeatStateStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class SeatChangeStreamConfig {
+
+    /**
+     * 좌석 변경 알림 구독 (노드별 SSE 구독자에게 전달, reset 시 좌석 조회 응답 캐시 무효화)
+     */
+    @Bean
+    public RedisMessageListenerContainer seatChangeListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                     SeatChangeBroadcaster seatChangeBroadcaster,
+                                                                     SeatAvailabilityCache seatAvailabilityCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        PatternTopic seatChanges = new PatternTopic(SeatStateStore.SEAT_CHANGES_CHANNEL_PREFIX + "*");
+        container.addMessageListener(seatChangeBroadcaster, seatChanges);
+        container.addMessageListener(seatAvailabilityCache, seatChanges);
+        return container;
+    }
+}
@@ -0,0 +1,146 @@
+package org.ddcn41.ticketing_system.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.ddcn41.ticketing_system.common.dto.ApiResponse;
+import org.ddcn41.ticketing_system.seat.dto.response.SeatAvailabilityResponse;
+import org.ddcn41.ticketing_system.seat.service.SeatService;
+import org.ddcn41.ticketing_system.seat.service.SeatStateStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 좌석 조회 응답 캐시 (회차별 최신 버전 1개, 직렬화된 본문)
+ * - 버전은 SeatStateStore 의 변경 버전으로, ETag 는 "scheduleId-version"
+ * - 같은 버전을 동시에 요청하면 첫 요청만 조회/직렬화하고 나머지는 그 결과를 기다려 재사용
+ * - 회차 수는 max-entries 로 제한 (가장 오래 쓰이지 않은 회차부터 제거)
+ * - 다른 노드의 초기화 reset 알림을 받으면 로컬 좌석 배치와 캐시를 버린다
+ */
+@Slf4j
+@Component
+public class SeatAvailabilityCache implements MessageListener {
+
+    private final SeatService seatService;
+    private final SeatStateStore seatStateStore;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, Entry> entries;
+
+    public SeatAvailabilityCache(SeatService seatService,
+                                 SeatStateStore seatStateStore,
+                                 ObjectMapper objectMapper,
+                                 @Value("${seat.response-cache.max-entries:1000}") int maxEntries) {
+        this.seatService = seatService;
+        this.seatStateStore = seatStateStore;
+        this.objectMapper = objectMapper;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * 직렬화된 응답 본문 (version 이 null 이면 DB 조회로 대체된 응답이라 캐시하지 않음)
+     */
+    public record Body(Long version, byte[] json) {
+    }
+
+    private record Entry(long version, CompletableFuture<Body> body) {
+    }
+
+    public static String etag(Long scheduleId, long version) {
+        return "\"" + scheduleId + "-" + version + "\"";
+    }
+
+    /**
+     * 현재 변경 버전 - Redis 를 읽을 수 없으면 null (조건부 응답 없이 조회)
+     */
+    public Long currentVersion(Long scheduleId) {
+        try {
+            return seatStateStore.version(scheduleId);
+        } catch (Exception e) {
+            log.warn("좌석 상태 버전 조회 실패 - 조건부 응답 생략: scheduleId={}, {}", scheduleId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * version 이상의 응답 본문 - 캐시에 있으면 재사용, 없으면 조회해 직렬화
+     */
+    public Body body(Long scheduleId, Long version) {
+        if (version == null) {
+            return load(scheduleId);
+        }
+
+        CompletableFuture<Body> loading = new CompletableFuture<>();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(scheduleId);
+            if (entry == null || entry.version() < version) {
+                entry = new Entry(version, loading);
+                entries.put(scheduleId, entry);
+            }
+        }
+        if (entry.body() != loading) {
+            try {
+                return entry.body().join();
+            } catch (CompletionException e) {
+                // 먼저 시작한 조회가 실패 - 직접 조회
+                return load(scheduleId);
+            }
+        }
+
+        try {
+            Body body = load(scheduleId);
+            loading.complete(body);
+            if (body.version() == null) {
+                entries.remove(scheduleId, entry);
+            }
+            return body;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            entries.remove(scheduleId, entry);
+            throw e;
+        }
+    }
+
+    /**
+     * seat_changes:{scheduleId} 중 reset 알림만 처리
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (!body.contains("\"reset\":true")) {
+            return;
+        }
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        try {
+            Long scheduleId = Long.valueOf(channel.substring(SeatStateStore.SEAT_CHANGES_CHANNEL_PREFIX.length()));
+            seatStateStore.forgetLayout(scheduleId);
+            entries.remove(scheduleId);
+        } catch (RuntimeException e) {
+            log.warn("좌석 변경 채널 해석 실패: {}", channel);
+        }
+    }
+
+    private Body load(Long scheduleId) {
+        SeatAvailabilityResponse response = seatService.getSeatsAvailability(scheduleId);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(ApiResponse.success("좌석 조회 성공", response));
+            return new Body(response.getVersion(), json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("좌석 조회 응답 직렬화 실패 - scheduleId=" + scheduleId, e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package org.ddcn41.ticketing_system.api.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.ddcn41.ticketing_system.seat.dto.response.SeatAvailabilityResponse;
+import org.ddcn41.ticketing_system.seat.service.SeatStateStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 회차별 좌석 변경 SSE 브로드캐스터
+ * - 좌석 상태 변경은 SeatStateStore 가 seat_changes:{scheduleId} 채널로 PUBLISH 하고, 모든 노드가 구독해 자기 구독자에게 전달
+ * - 클라이언트는 첫 이벤트(snapshot)로 좌석 전체와 version 을 받고, 이후 change 이벤트 중 version 이 더 큰 것만 적용
+ * - reset 이벤트(좌석 구성 변경)를 받거나 버전이 건너뛰면(알림 유실) 좌석 조회로 스냅샷을 다시 받는다
+ * - 메시지는 회차당 한 번만 프레임으로 만들어 같은 회차 구독자 전체에 재사용
+ * - 스냅샷 전송 전에 도착한 변경은 구독자별로 보관했다가 스냅샷 뒤에 보낸다 (스냅샷 이후 변경이 빠지지 않도록)
+ * - 소켓 쓰기는 구독자별 큐에 넣고 taskExecutor 에서 내보낸다 (Redis 리스너/스케줄러 스레드는 느린 클라이언트를 기다리지 않음)
+ * - 밀린 프레임이 max-pending 을 넘는 구독자는 끊는다 (클라이언트는 재연결해 스냅샷부터 다시 받는다)
+ */
+@Slf4j
+@Component
+public class SeatChangeBroadcaster implements MessageListener {
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final TaskExecutor taskExecutor;
+    private final long emitterTimeoutMillis;
+    private final int maxPendingFrames;
+
+    public SeatChangeBroadcaster(@Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                 @Value("${seat.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+                                 @Value("${seat.stream.max-pending:256}") int maxPendingFrames) {
+        this.taskExecutor = taskExecutor;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.maxPendingFrames = maxPendingFrames;
+    }
+
+    /**
+     * 구독자 - 프레임은 outbox 에 쌓고, 스냅샷을 보낸 뒤부터 한 번에 한 작업만 내보낸다
+     * - emitter 쓰기는 lock 으로 직렬화 (스냅샷과 변경 프레임이 섞이지 않도록)
+     */
+    private final class Subscriber {
+        private final Long scheduleId;
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean ready;
+        private volatile boolean closed;
+
+        private Subscriber(Long scheduleId, SseEmitter emitter) {
+            this.scheduleId = scheduleId;
+            this.emitter = emitter;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            if (closed) {
+                return;
+            }
+            if (pending.incrementAndGet() > maxPendingFrames) {
+                log.debug("좌석 변경 SSE 전송 지연으로 구독 해제: scheduleId={}", scheduleId);
+                close();
+                emitter.complete();
+                return;
+            }
+            outbox.add(frame);
+            scheduleDrain();
+        }
+
+        void sendSnapshot(Set<ResponseBodyEmitter.DataWithMediaType> snapshot) throws IOException {
+            lock.lock();
+            try {
+                emitter.send(snapshot);
+                ready = true;
+            } finally {
+                lock.unlock();
+            }
+            scheduleDrain();
+        }
+
+        void close() {
+            closed = true;
+            outbox.clear();
+            unsubscribe(scheduleId, this);
+        }
+
+        private void scheduleDrain() {
+            if (!ready || closed || outbox.isEmpty() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                taskExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                log.warn("좌석 변경 SSE 전송 작업 거부로 구독 해제: scheduleId={}", scheduleId);
+                close();
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void drain() {
+            lock.lock();
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                while (!closed && (frame = outbox.poll()) != null) {
+                    pending.decrementAndGet();
+                    emitter.send(frame);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("좌석 변경 SSE 전송 실패로 구독 해제: scheduleId={}", scheduleId);
+                close();
+            } finally {
+                lock.unlock();
+                draining.set(false);
+            }
+            // 마지막 poll 과 draining 해제 사이에 들어온 프레임
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * 구독 등록 후 스냅샷을 첫 이벤트로 전송
+     * - 구독을 먼저 등록하고 스냅샷을 읽으므로, 그 사이 변경은 스냅샷에 포함되어 버전 비교로 걸러지거나 스냅샷 뒤에 전달된다
+     */
+    public SseEmitter subscribe(Long scheduleId, Supplier<SeatAvailabilityResponse> snapshot) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(scheduleId, emitter);
+        subscribers.compute(scheduleId, (key, current) -> {
+            Set<Subscriber> target = current != null ? current : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        try {
+            subscriber.sendSnapshot(SseEmitter.event()
+                    .name("snapshot")
+                    .data(snapshot.get(), MediaType.APPLICATION_JSON)
+                    .build());
+        } catch (IOException | RuntimeException e) {
+            subscriber.close();
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * seat_changes:{scheduleId} 메시지 - 본문(JSON)은 그대로 change (또는 reset) 이벤트 데이터로 전달
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        Long scheduleId;
+        try {
+            scheduleId = Long.valueOf(channel.substring(SeatStateStore.SEAT_CHANGES_CHANNEL_PREFIX.length()));
+        } catch (RuntimeException e) {
+            log.warn("좌석 변경 채널 해석 실패: {}", channel);
+            return;
+        }
+        Set<Subscriber> targets = subscribers.get(scheduleId);
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event()
+                .name(body.contains("\"reset\":true") ? "reset" : "change")
+                .data(body, MediaType.APPLICATION_JSON)
+                .build();
+        targets.forEach(subscriber -> subscriber.offer(frame));
+    }
+
+    /**
+     * 유휴 연결 유지 (프록시 타임아웃 방지) 와 끊긴 구독자 정리
+     */
+    @Scheduled(fixedDelayString = "${seat.stream.keepalive-ms:15000}")
+    public void keepAlive() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event().comment("keepalive").build();
+        subscribers.values().forEach(targets -> targets.forEach(subscriber -> subscriber.offer(frame)));
+    }
+
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void unsubscribe(Long scheduleId, Subscriber subscriber) {
+        subscribers.computeIfPresent(scheduleId, (key, current) -> {
+            current.remove(subscriber);
+            return current.isEmpty() ? null : current;
+        });
+    }
+}
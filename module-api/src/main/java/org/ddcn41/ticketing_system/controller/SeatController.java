@@ -1,22 +1,29 @@
 package org.ddcn41.ticketing_system.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.ddcn41.starter.authorization.model.BasicCognitoUser;
+import org.ddcn41.ticketing_system.api.service.SeatAvailabilityCache;
+import org.ddcn41.ticketing_system.api.service.SeatChangeBroadcaster;
 import org.ddcn41.ticketing_system.common.dto.ApiResponse;
 import org.ddcn41.ticketing_system.seat.dto.request.SeatConfirmRequest;
 import org.ddcn41.ticketing_system.seat.dto.request.SeatLockRequest;
 import org.ddcn41.ticketing_system.seat.dto.request.SeatReleaseRequest;
-import org.ddcn41.ticketing_system.seat.dto.response.SeatAvailabilityResponse;
 import org.ddcn41.ticketing_system.seat.dto.response.SeatLockResponse;
 import org.ddcn41.ticketing_system.seat.service.SeatService;
 import org.ddcn41.ticketing_system.user.entity.User;
 import org.ddcn41.ticketing_system.user.service.UserService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -32,20 +39,53 @@ public class SeatController {
 
     private final SeatService seatService;
     private final UserService userService;
+    private final SeatChangeBroadcaster seatChangeBroadcaster;
+    private final SeatAvailabilityCache seatAvailabilityCache;
 
     /**
      * 스케줄의 좌석 가용성 조회
      * GET /api/v1/schedules/{scheduleId}/seats
+     * - ETag 는 회차 좌석 변경 버전, If-None-Match 가 같으면 DB 조회 없이 304
+     * - 본문은 (회차, 버전) 단위로 한 번만 직렬화해 재사용
      */
-    @GetMapping("/schedules/{scheduleId}/seats")
-    public ResponseEntity<ApiResponse<SeatAvailabilityResponse>> getScheduleSeats(
-            @PathVariable Long scheduleId) {
+    @GetMapping(value = "/schedules/{scheduleId}/seats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getScheduleSeats(
+            @PathVariable Long scheduleId,
+            WebRequest request) {
+
+        Long version = seatAvailabilityCache.currentVersion(scheduleId);
+        if (version != null && request.checkNotModified(SeatAvailabilityCache.etag(scheduleId, version))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(SeatAvailabilityCache.etag(scheduleId, version))
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
 
-        SeatAvailabilityResponse response = seatService.getSeatsAvailability(scheduleId);
+        SeatAvailabilityCache.Body body = seatAvailabilityCache.body(scheduleId, version);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache());
+        if (body.version() != null) {
+            response.eTag(SeatAvailabilityCache.etag(scheduleId, body.version()));
+        }
+        return response.body(body.json());
+    }
 
-        return ResponseEntity.ok(
-                ApiResponse.success("좌석 조회 성공", response)
-        );
+    /**
+     * 스케줄의 좌석 변경 실시간 구독 (SSE)
+     * GET /api/v1/schedules/{scheduleId}/seats/stream
+     * - 첫 이벤트(snapshot)는 좌석 조회와 같은 응답, 이후 change 이벤트 {scheduleId, version, status, seatIds}
+     * - change 의 version 이 snapshot 의 version 보다 큰 것만 적용, 버전이 건너뛰면 좌석 조회로 다시 동기화
+     */
+    @GetMapping(value = "/schedules/{scheduleId}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamScheduleSeats(
+            @PathVariable Long scheduleId,
+            HttpServletResponse response) {
+
+        // 프록시(Nginx) 버퍼링 비활성화
+        response.setHeader("X-Accel-Buffering", "no");
+
+        return seatChangeBroadcaster.subscribe(scheduleId, () -> seatService.getSeatsAvailability(scheduleId));
     }
 
     /**
@@ -0,0 +1,121 @@
+package org.ddcn41.ticketing_system.controller;
+
+import org.ddcn41.ticketing_system.api.service.SeatAvailabilityCache;
+import org.ddcn41.ticketing_system.api.service.SeatChangeBroadcaster;
+import org.ddcn41.ticketing_system.seat.dto.response.SeatAvailabilityResponse;
+import org.ddcn41.ticketing_system.seat.service.SeatService;
+import org.ddcn41.ticketing_system.seat.service.SeatStateStore;
+import org.ddcn41.ticketing_system.user.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 좌석 조회의 조건부 응답(ETag/304)과 응답 캐시 확인
+ * - 좌석 상태 버전은 SeatStateStore mock, 좌석 조회는 SeatService mock 으로 호출 횟수를 센다
+ * - 보안 필터는 끄고 컨트롤러와 SeatAvailabilityCache 만 올린다
+ */
+@WebMvcTest(SeatController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class SeatControllerCacheTest {
+
+    @SpringBootConfiguration
+    @Import({SeatController.class, SeatAvailabilityCache.class})
+    static class TestConfig {
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private SeatAvailabilityCache seatAvailabilityCache;
+
+    @MockitoBean
+    private SeatService seatService;
+    @MockitoBean
+    private SeatStateStore seatStateStore;
+    @MockitoBean
+    private UserService userService;
+    @MockitoBean
+    private SeatChangeBroadcaster seatChangeBroadcaster;
+
+    @Test
+    void matchingEtagReturnsNotModifiedWithoutLoadingSeats() throws Exception {
+        when(seatStateStore.version(1L)).thenReturn(5L);
+
+        mockMvc.perform(get("/v1/schedules/1/seats").header(HttpHeaders.IF_NONE_MATCH, "\"1-5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-5\""));
+
+        verify(seatService, never()).getSeatsAvailability(1L);
+    }
+
+    @Test
+    void sameVersionIsLoadedAndSerializedOnce() throws Exception {
+        when(seatStateStore.version(2L)).thenReturn(7L);
+        when(seatService.getSeatsAvailability(2L)).thenReturn(response(2L, 7L));
+
+        byte[] first = mockMvc.perform(get("/v1/schedules/2/seats"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-7\""))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] second = mockMvc.perform(get("/v1/schedules/2/seats"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-7\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(second).isEqualTo(first);
+        verify(seatService, times(1)).getSeatsAvailability(2L);
+
+        // 버전이 바뀌면 다시 조회
+        when(seatStateStore.version(2L)).thenReturn(8L);
+        when(seatService.getSeatsAvailability(2L)).thenReturn(response(2L, 8L));
+        mockMvc.perform(get("/v1/schedules/2/seats"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-8\""));
+        verify(seatService, times(2)).getSeatsAvailability(2L);
+    }
+
+    @Test
+    void resetMessageInvalidatesCachedBody() throws Exception {
+        when(seatStateStore.version(3L)).thenReturn(9L);
+        when(seatService.getSeatsAvailability(3L)).thenReturn(response(3L, 9L));
+
+        mockMvc.perform(get("/v1/schedules/3/seats")).andExpect(status().isOk());
+        seatAvailabilityCache.onMessage(new DefaultMessage(
+                (SeatStateStore.SEAT_CHANGES_CHANNEL_PREFIX + 3).getBytes(StandardCharsets.UTF_8),
+                "{\"scheduleId\":3,\"reset\":true}".getBytes(StandardCharsets.UTF_8)), null);
+        mockMvc.perform(get("/v1/schedules/3/seats")).andExpect(status().isOk());
+
+        verify(seatStateStore).forgetLayout(3L);
+        verify(seatService, times(2)).getSeatsAvailability(3L);
+    }
+
+    private static SeatAvailabilityResponse response(Long scheduleId, Long version) {
+        return SeatAvailabilityResponse.builder()
+                .scheduleId(scheduleId)
+                .totalSeats(0)
+                .availableSeats(0)
+                .seats(List.of())
+                .version(version)
+                .build();
+    }
+}
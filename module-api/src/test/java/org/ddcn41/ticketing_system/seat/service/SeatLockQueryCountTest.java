@@ -0,0 +1,177 @@
+package org.ddcn41.ticketing_system.seat.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.ddcn41.ticketing_system.booking.entity.Booking;
+import org.ddcn41.ticketing_system.performance.entity.Performance;
+import org.ddcn41.ticketing_system.performance.entity.PerformanceSchedule;
+import org.ddcn41.ticketing_system.performance.repository.PerformanceRepository;
+import org.ddcn41.ticketing_system.performance.repository.PerformanceScheduleRepository;
+import org.ddcn41.ticketing_system.seat.dto.response.SeatLockResponse;
+import org.ddcn41.ticketing_system.seat.entity.ScheduleSeat;
+import org.ddcn41.ticketing_system.seat.repository.ScheduleSeatRepository;
+import org.ddcn41.ticketing_system.seat.repository.SeatLockJdbcRepository;
+import org.ddcn41.ticketing_system.seat.repository.SeatLockRepository;
+import org.ddcn41.ticketing_system.user.entity.User;
+import org.ddcn41.ticketing_system.user.repository.UserRepository;
+import org.ddcn41.ticketing_system.venue.entity.Venue;
+import org.ddcn41.ticketing_system.venue.repository.VenueRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * 좌석 락 요청의 SQL 수가 좌석 수와 무관한지 확인 (1석 vs 6석)
+ * - 기본 설정(application.yml)의 batch 설정을 그대로 쓰고, Hibernate Statistics 로 준비된 문장 수를 비교
+ * - 새 락 INSERT 는 JdbcTemplate batch 라 Statistics 에 잡히지 않지만 좌석 수와 관계없이 한 번
+ * - DB 는 embedded-postgres, Redis 락/상태 저장소는 mock
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SeatLockQueryCountTest {
+
+    private static final String USER_ID = "query-count-user";
+
+    private static EmbeddedPostgres postgres;
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = {ScheduleSeat.class, Performance.class, Venue.class, Booking.class, User.class})
+    @EnableJpaRepositories(basePackageClasses = {ScheduleSeatRepository.class, PerformanceRepository.class,
+            VenueRepository.class, UserRepository.class})
+    @Import({SeatService.class, SeatLockJdbcRepository.class})
+    static class TestConfig {
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @Autowired
+    private SeatService seatService;
+    @Autowired
+    private VenueRepository venueRepository;
+    @Autowired
+    private PerformanceRepository performanceRepository;
+    @Autowired
+    private PerformanceScheduleRepository scheduleRepository;
+    @Autowired
+    private ScheduleSeatRepository scheduleSeatRepository;
+    @Autowired
+    private SeatLockRepository seatLockRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private DataSource dataSource;
+
+    @MockitoBean
+    private SeatLockStore seatLockStore;
+    @MockitoBean
+    private SeatStateStore seatStateStore;
+
+    @BeforeEach
+    void setUp() {
+        when(seatLockStore.acquire(any(), any(), any(), any())).thenReturn(true);
+    }
+
+    @Test
+    void batchingSettingsComeFromBaseConfig() {
+        assertThat(((HikariDataSource) dataSource).getDataSourceProperties().getProperty("reWriteBatchedInserts"))
+                .isEqualTo("true");
+        assertThat(entityManagerFactory.getProperties().get("hibernate.jdbc.batch_size")).hasToString("50");
+    }
+
+    @Test
+    void lockStatementCountDoesNotGrowWithSeatCount() {
+        List<Long> seatIds = createSeats(7);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        SeatLockResponse single = seatService.lockSeats(seatIds.subList(0, 1), USER_ID, "session-1");
+        long singleSeatStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        SeatLockResponse multiple = seatService.lockSeats(seatIds.subList(1, 7), USER_ID, "session-2");
+        long sixSeatStatements = statistics.getPrepareStatementCount();
+
+        assertThat(single.isSuccess()).isTrue();
+        assertThat(multiple.isSuccess()).isTrue();
+        assertThat(seatLockRepository.count()).isEqualTo(7);
+        assertThat(scheduleSeatRepository.findAllById(seatIds))
+                .allMatch(seat -> seat.getStatus() == ScheduleSeat.SeatStatus.LOCKED);
+        assertThat(sixSeatStatements).isEqualTo(singleSeatStatements);
+    }
+
+    private List<Long> createSeats(int count) {
+        userRepository.save(User.builder()
+                .userId(USER_ID)
+                .email("query-count@example.com")
+                .username("query-count")
+                .name("query-count")
+                .build());
+        Venue venue = venueRepository.save(Venue.builder().venueName("venue").totalCapacity(count).build());
+        Performance performance = performanceRepository.save(Performance.builder()
+                .venue(venue)
+                .title("performance")
+                .startDate(LocalDate.now())
+                .endDate(LocalDate.now().plusDays(30))
+                .build());
+        PerformanceSchedule schedule = scheduleRepository.save(PerformanceSchedule.builder()
+                .performance(performance)
+                .showDatetime(LocalDateTime.now().plusDays(7))
+                .totalSeats(count)
+                .availableSeats(count)
+                .build());
+        return scheduleSeatRepository.saveAll(IntStream.rangeClosed(1, count)
+                        .mapToObj(col -> ScheduleSeat.builder()
+                                .schedule(schedule)
+                                .grade("R")
+                                .zone("A")
+                                .rowLabel("A")
+                                .colNum(String.valueOf(col))
+                                .build())
+                        .toList())
+                .stream()
+                .map(ScheduleSeat::getSeatId)
+                .toList();
+    }
+}
@@ -30,6 +30,7 @@ public enum ErrorCode {
     // 대기열 관련 (4xxx)
     QUEUE_TOKEN_REQUIRED(HttpStatus.BAD_REQUEST, "대기열 토큰이 필요합니다"),
     QUEUE_TOKEN_INVALID(HttpStatus.UNAUTHORIZED, "유효하지 않은 대기열 토큰입니다"),
+    QUEUE_TOKEN_ALREADY_USED(HttpStatus.CONFLICT, "이미 사용된 대기열 토큰입니다"),
     QUEUE_SERVICE_UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE, "대기열 서비스에 일시적으로 접근할 수 없습니다"),
 
     // 유저 관련 (5xxx)
@@ -24,4 +24,7 @@ public class CreateBookingRequestDto {
     private List<SeatSelectorDto> seats;
 
     private String queueToken;
+
+    // 대기열 서비스가 발급한 서명 입장 티켓 (있으면 대기열 서비스 호출 없이 로컬 검증)
+    private String admissionTicket;
 }
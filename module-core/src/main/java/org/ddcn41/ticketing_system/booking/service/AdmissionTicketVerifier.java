@@ -0,0 +1,134 @@
+package org.ddcn41.ticketing_system.booking.service;
+
+import org.ddcn41.ticketing_system.common.exception.BusinessException;
+import org.ddcn41.ticketing_system.common.exception.ErrorCode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * 대기열 입장 티켓 로컬 검증
+ * - 대기열 서비스가 발급한 HMAC 서명 티켓(userId|performanceId|scheduleId|만료|nonce)을 같은 비밀키로 검증
+ * - 서명/만료/사용자/공연/회차 검증은 메모리에서 끝나고, 1회 사용 여부만 nonce SETNX 한 번으로 확인
+ * - 티켓은 입장한 회차 레인에 묶이므로 다른 회차 예매에는 쓸 수 없다
+ */
+@Component
+public class AdmissionTicketVerifier {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String USED_NONCE_KEY_PREFIX = "admission_ticket_used:";
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final SecretKeySpec key;
+
+    public AdmissionTicketVerifier(@Qualifier("stringRedisTemplate") RedisTemplate<String, String> redisTemplate,
+                                   @Value("${queue.ticket.secret:}") String secret) {
+        if (secret == null || secret.length() < 32) {
+            throw new IllegalStateException("queue.ticket.secret 은 32자 이상이어야 합니다");
+        }
+        this.redisTemplate = redisTemplate;
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    /**
+     * 티켓 형식인지 여부 (기존 대기열 토큰 문자열과 구분)
+     */
+    public static boolean isTicket(String value) {
+        return value != null && value.indexOf('.') > 0;
+    }
+
+    /**
+     * 티켓 검증 후 사용 처리
+     * @return 티켓의 nonce (대기열 토큰 문자열)
+     */
+    public String verifyAndConsume(String ticket, String userId, Long performanceId, Long scheduleId) {
+        Ticket parsed = parse(ticket);
+
+        long now = System.currentTimeMillis() / 1000;
+        if (parsed.expiresAtEpoch() <= now) {
+            throw new BusinessException(ErrorCode.QUEUE_TOKEN_INVALID, "입장 티켓이 만료되었습니다");
+        }
+        if (!parsed.userId().equals(userId) || !parsed.performanceId().equals(performanceId)) {
+            throw new BusinessException(ErrorCode.QUEUE_TOKEN_INVALID, "입장 티켓 정보가 일치하지 않습니다");
+        }
+        if (parsed.scheduleId() == null || !parsed.scheduleId().equals(scheduleId)) {
+            throw new BusinessException(ErrorCode.QUEUE_TOKEN_INVALID, "입장한 회차와 예매 회차가 일치하지 않습니다");
+        }
+
+        // 만료 이후에는 서명 검증에서 걸러지므로 사용 기록도 만료 시각까지만 유지
+        String usedKey = USED_NONCE_KEY_PREFIX + parsed.nonce();
+        Boolean first = redisTemplate.opsForValue().setIfAbsent(
+                usedKey, userId, Duration.ofSeconds(parsed.expiresAtEpoch() - now + 1));
+        if (!Boolean.TRUE.equals(first)) {
+            throw new BusinessException(ErrorCode.QUEUE_TOKEN_ALREADY_USED);
+        }
+        releaseOnRollback(usedKey);
+        return parsed.nonce();
+    }
+
+    /**
+     * 예매 트랜잭션이 롤백되면 사용 기록을 지워 같은 티켓으로 다시 시도할 수 있게 한다
+     */
+    private void releaseOnRollback(String usedKey) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    redisTemplate.delete(usedKey);
+                }
+            }
+        });
+    }
+
+    private Ticket parse(String ticket) {
+        int separator = ticket.indexOf('.');
+        if (separator <= 0) {
+            throw new BusinessException(ErrorCode.QUEUE_TOKEN_INVALID);
+        }
+
+        try {
+            byte[] payload = DECODER.decode(ticket.substring(0, separator));
+            byte[] signature = DECODER.decode(ticket.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                throw new BusinessException(ErrorCode.QUEUE_TOKEN_INVALID);
+            }
+
+            String[] parts = new String(payload, StandardCharsets.UTF_8).split("\\|", 5);
+            if (parts.length != 5) {
+                throw new BusinessException(ErrorCode.QUEUE_TOKEN_INVALID);
+            }
+            Long scheduleId = "null".equals(parts[2]) ? null : Long.valueOf(parts[2]);
+            return new Ticket(parts[0], Long.valueOf(parts[1]), scheduleId, Long.parseLong(parts[3]), parts[4]);
+        } catch (IllegalArgumentException e) {
+            // Base64/숫자 형식 오류
+            throw new BusinessException(ErrorCode.QUEUE_TOKEN_INVALID);
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("입장 티켓 서명 검증 실패", e);
+        }
+    }
+
+    private record Ticket(String userId, Long performanceId, Long scheduleId, long expiresAtEpoch, String nonce) {
+    }
+}
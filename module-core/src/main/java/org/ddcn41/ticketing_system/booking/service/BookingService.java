@@ -27,11 +27,13 @@ import org.ddcn41.ticketing_system.performance.repository.PerformanceScheduleRep
 import org.ddcn41.ticketing_system.seat.entity.ScheduleSeat;
 import org.ddcn41.ticketing_system.seat.repository.ScheduleSeatRepository;
 import org.ddcn41.ticketing_system.seat.service.SeatService;
+import org.ddcn41.ticketing_system.seat.service.SeatStateStore;
 import org.ddcn41.ticketing_system.user.entity.User;
 import org.ddcn41.ticketing_system.user.repository.UserRepository;
 import org.ddcn41.ticketing_system.venue.entity.Venue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
@@ -57,9 +59,12 @@ public class BookingService {
     private final ScheduleSeatRepository scheduleSeatRepository;
 
     private final SeatService seatService;
+    private final SeatStateStore seatStateStore;
     private final BookingAuditService bookingAuditService;
     private final QueueClient queueClient;
+    private final AdmissionTicketVerifier admissionTicketVerifier;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Transactional(rollbackFor = Exception.class)
@@ -92,7 +97,7 @@ public class BookingService {
         booking.setBookingSeats(savedSeats);
 
         // 좌석 상태 BOOKED로 전환
-        updateSeatStatusToBooked(requestedSeats);
+        updateSeatStatusToBooked(requestedSeats, schedule);
 
         // 감사 로그 기록
         bookingAuditService.logBookingCreated(user, booking,
@@ -188,15 +193,13 @@ public class BookingService {
         return bookingRepository.save(booking);
     }
 
+    /**
+     * 대기열 토큰 사용 처리는 커밋 후 QueueTokenReleaser 가 비동기로 호출 (예매 트랜잭션 밖)
+     */
     private void processQueueToken(CreateBookingRequestDto req, User user) {
         if (req.getQueueToken() == null || req.getQueueToken().trim().isEmpty()) return;
 
-        try {
-            queueClient.useToken(req.getQueueToken());
-            log.info("토큰 사용 완료 - 사용자: {}, 토큰: {}", user.getUsername(), req.getQueueToken());
-        } catch (Exception e) {
-            log.warn("토큰 사용 처리 중 오류 발생: {}", e.getMessage());
-        }
+        eventPublisher.publishEvent(new QueueTokenUsedEvent(req.getQueueToken(), user.getUsername()));
     }
 
     private List<BookingSeat> saveBookingSeats(Booking booking, List<ScheduleSeat> seats) {
@@ -210,20 +213,37 @@ public class BookingService {
                 .toList();
     }
 
-    private void updateSeatStatusToBooked(List<ScheduleSeat> seats) {
+    private void updateSeatStatusToBooked(List<ScheduleSeat> seats, PerformanceSchedule schedule) {
         seats.forEach(seat -> seat.setStatus(ScheduleSeat.SeatStatus.BOOKED));
         scheduleSeatRepository.saveAll(seats);
+        seatStateStore.update(schedule.getScheduleId(), seats, ScheduleSeat.SeatStatus.BOOKED);
     }
 
 
     /**
      * 대기열 토큰 검증 - 호출
+     * - 서명 입장 티켓이 있으면 로컬 검증 + nonce SETNX 로 처리 (대기열 서비스 호출 없음)
      */
     private void validateQueueTokenIfRequired(
             CreateBookingRequestDto req,
             User user,
             PerformanceSchedule schedule) {
 
+        if (AdmissionTicketVerifier.isTicket(req.getAdmissionTicket())) {
+            String queueToken = admissionTicketVerifier.verifyAndConsume(
+                    req.getAdmissionTicket(),
+                    user.getUserId(),
+                    schedule.getPerformance().getPerformanceId(),
+                    req.getScheduleId());
+            // 사용 처리할 토큰은 티켓의 nonce - 다른 토큰을 함께 보내면 티켓 토큰이 ACTIVE 로 남아 자리를 잡고 있게 된다
+            if (req.getQueueToken() != null && !req.getQueueToken().trim().isEmpty()
+                    && !req.getQueueToken().equals(queueToken)) {
+                throw new BusinessException(ErrorCode.QUEUE_TOKEN_INVALID, "입장 티켓과 대기열 토큰이 일치하지 않습니다");
+            }
+            req.setQueueToken(queueToken);
+            return;
+        }
+
         if (req.getQueueToken() != null && !req.getQueueToken().trim().isEmpty()) {
 
             try {
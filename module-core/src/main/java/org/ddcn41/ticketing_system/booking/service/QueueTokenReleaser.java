@@ -0,0 +1,45 @@
+package org.ddcn41.ticketing_system.booking.service;
+
+import org.ddcn41.ticketing_system.common.client.QueueClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 대기열 토큰 사용 처리 (예매 커밋 후 비동기)
+ * - 예매 트랜잭션 안에서 대기열 서비스를 호출하지 않아 DB 커넥션/행 락을 잡은 채 네트워크를 기다리지 않는다
+ * - 롤백된 예매는 토큰을 쓰지 않으므로 다시 시도할 수 있다
+ * - 호출이 실패해도 예매는 유지되고, 토큰은 예매 세션 만료로 정리된다 (입장 티켓은 nonce 로 재사용이 막혀 있음)
+ */
+@Component
+public class QueueTokenReleaser {
+
+    private static final Logger log = LoggerFactory.getLogger(QueueTokenReleaser.class);
+
+    private final QueueClient queueClient;
+    private final TaskExecutor taskExecutor;
+
+    public QueueTokenReleaser(QueueClient queueClient,
+                              @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.queueClient = queueClient;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onQueueTokenUsed(QueueTokenUsedEvent event) {
+        taskExecutor.execute(() -> useToken(event));
+    }
+
+    private void useToken(QueueTokenUsedEvent event) {
+        try {
+            queueClient.useToken(event.queueToken());
+            log.info("토큰 사용 완료 - 사용자: {}, 토큰: {}", event.username(), event.queueToken());
+        } catch (Exception e) {
+            log.warn("토큰 사용 처리 중 오류 발생: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package org.ddcn41.ticketing_system.booking.service;
+
+/**
+ * 예매에 사용된 대기열 토큰 (예매 트랜잭션 커밋 후 대기열 서비스에 사용 처리)
+ */
+public record QueueTokenUsedEvent(String queueToken, String username) {
+}
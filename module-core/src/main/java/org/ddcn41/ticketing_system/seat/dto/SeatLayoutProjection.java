@@ -0,0 +1,20 @@
+package org.ddcn41.ticketing_system.seat.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * 좌석 정적 정보 (상태 제외) - 엔티티를 만들지 않고 컬럼만 조회
+ */
+public interface SeatLayoutProjection {
+    Long getSeatId();
+
+    String getRowLabel();
+
+    String getColNum();
+
+    String getZone();
+
+    String getGrade();
+
+    BigDecimal getPrice();
+}
@@ -0,0 +1,12 @@
+package org.ddcn41.ticketing_system.seat.dto;
+
+import org.ddcn41.ticketing_system.seat.entity.ScheduleSeat;
+
+/**
+ * 좌석 상태만 조회 (좌석 상태 비트맵 재구성용)
+ */
+public interface SeatStatusProjection {
+    Long getSeatId();
+
+    ScheduleSeat.SeatStatus getStatus();
+}
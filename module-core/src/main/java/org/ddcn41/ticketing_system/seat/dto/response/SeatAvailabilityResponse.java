@@ -17,4 +17,6 @@ public class SeatAvailabilityResponse {
     private Integer totalSeats;
     private Integer availableSeats;
     private List<SeatDto> seats;
+    // 좌석 변경 스트림 기준 버전 (DB 조회로 대체된 경우 null)
+    private Long version;
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package org.ddcn41.ticketing_system.seat.repository;
 
+import org.ddcn41.ticketing_system.seat.dto.SeatLayoutProjection;
+import org.ddcn41.ticketing_system.seat.dto.SeatStatusProjection;
 import org.ddcn41.ticketing_system.seat.entity.ScheduleSeat;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -28,6 +30,20 @@ public interface ScheduleSeatRepository extends JpaRepository<ScheduleSeat, Long
      */
     List<ScheduleSeat> findBySchedule_ScheduleId(Long scheduleId);
 
+    /**
+     * 스케줄 좌석 정적 정보 (seat_id 순 - 좌석 상태 비트맵의 순번 기준)
+     */
+    @Query("SELECT s.seatId AS seatId, s.rowLabel AS rowLabel, s.colNum AS colNum, s.zone AS zone, " +
+            "s.grade AS grade, s.price AS price FROM ScheduleSeat s " +
+            "WHERE s.schedule.scheduleId = :scheduleId ORDER BY s.seatId")
+    List<SeatLayoutProjection> findLayoutByScheduleId(@Param("scheduleId") Long scheduleId);
+
+    /**
+     * 스케줄 좌석 상태 (좌석 상태 비트맵 재구성용)
+     */
+    @Query("SELECT s.seatId AS seatId, s.status AS status FROM ScheduleSeat s WHERE s.schedule.scheduleId = :scheduleId")
+    List<SeatStatusProjection> findStatusesByScheduleId(@Param("scheduleId") Long scheduleId);
+
     /**
      * 스케줄과 상태로 좌석 조회
      */
@@ -0,0 +1,54 @@
+package org.ddcn41.ticketing_system.seat.repository;
+
+import org.ddcn41.ticketing_system.seat.entity.SeatLock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 좌석 락 일괄 저장 (JDBC batch)
+ * - SeatLock 은 IDENTITY 키라 Hibernate 가 INSERT 를 배치로 묶지 않으므로 JdbcTemplate 로 한 번에 기록
+ * - 저장한 행은 영속성 컨텍스트에 올라가지 않는다 (같은 트랜잭션에서 엔티티로 다시 쓰지 않는 경우에만 사용)
+ */
+@Repository
+public class SeatLockJdbcRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO seat_locks (seat_id, user_id, session_id, locked_at, expires_at, status, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SeatLockJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 새 ACTIVE 락 일괄 INSERT
+     */
+    public void insertActiveLocks(List<Long> seatIds, String userId, String sessionId, LocalDateTime expiresAt) {
+        if (seatIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp expires = Timestamp.valueOf(expiresAt);
+        jdbcTemplate.batchUpdate(INSERT_SQL, seatIds, seatIds.size(), (ps, seatId) -> {
+            ps.setLong(1, seatId);
+            ps.setString(2, userId);
+            if (sessionId != null) {
+                ps.setString(3, sessionId);
+            } else {
+                ps.setNull(3, Types.VARCHAR);
+            }
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, expires);
+            ps.setString(6, SeatLock.LockStatus.ACTIVE.name());
+            ps.setTimestamp(7, now);
+        });
+    }
+}
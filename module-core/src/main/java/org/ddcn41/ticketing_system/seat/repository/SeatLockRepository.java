@@ -38,6 +38,12 @@ public interface SeatLockRepository extends JpaRepository<SeatLock, Long> {
     @Query("SELECT sl FROM SeatLock sl WHERE sl.seat.seatId IN :seatIds AND sl.status = 'ACTIVE'")
     List<SeatLock> findActiveLocksBySeatIds(@Param("seatIds") List<Long> seatIds);
 
+    /**
+     * 여러 좌석의 만료되지 않은 활성 락 조회 (좌석 락 요청 1회에 한 번)
+     */
+    @Query("SELECT sl FROM SeatLock sl WHERE sl.seat.seatId IN :seatIds AND sl.status = 'ACTIVE' AND sl.expiresAt > :now")
+    List<SeatLock> findUnexpiredLocksBySeatIds(@Param("seatIds") List<Long> seatIds, @Param("now") LocalDateTime now);
+
     /**
      * 사용자의 특정 좌석들에 대한 활성 락 조회
      */
@@ -26,6 +26,7 @@ public class ScheduleSeatInitializationService {
 
     private final PerformanceScheduleRepository scheduleRepository;
     private final ScheduleSeatRepository scheduleSeatRepository;
+    private final SeatStateStore seatStateStore;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
@@ -87,6 +88,7 @@ public class ScheduleSeatInitializationService {
             schedule.setAvailableSeats(available);
             scheduleRepository.save(schedule);
             scheduleRepository.refreshScheduleStatus(scheduleId);
+            seatStateStore.evict(scheduleId);
         }
 
         // 7. dryRun 여부에 따라 총좌석/가능좌석 계산
@@ -0,0 +1,96 @@
+package org.ddcn41.ticketing_system.seat.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 좌석 Redis 락 (여러 좌석을 한 번에 전부 잡거나 하나도 잡지 않음)
+ * - key: seat_lock:{scheduleId}:seatId, value: 락 소유자 (userId:sessionId)
+ * - 같은 회차 좌석은 해시 태그 {scheduleId} 로 같은 슬롯에 있어 Redis Cluster 에서도 스크립트 한 번으로 처리
+ * - 해제는 값이 소유자와 같을 때만 삭제 (만료 후 다른 사용자가 잡은 락 보호)
+ */
+@Component
+public class SeatLockStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatLockStore.class);
+    private static final String SEAT_LOCK_KEY_PREFIX = "seat_lock:";
+
+    /**
+     * KEYS: 좌석 락, ARGV[1]: 소유자, ARGV[2]: TTL (ms)
+     * 다른 소유자의 락이 하나라도 있으면 아무것도 쓰지 않고 0, 아니면 전부 잡고(같은 소유자 락은 연장) 1
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            for i = 1, #KEYS do
+                local owner = redis.call('GET', KEYS[i])
+                if owner and owner ~= ARGV[1] then
+                    return 0
+                end
+            end
+            for i = 1, #KEYS do
+                redis.call('SET', KEYS[i], ARGV[1], 'PX', ARGV[2])
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS: 좌석 락, ARGV[1]: 소유자 - 값이 소유자와 같은 락만 삭제하고 삭제 수 반환
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            local released = 0
+            for i = 1, #KEYS do
+                if redis.call('GET', KEYS[i]) == ARGV[1] then
+                    released = released + redis.call('DEL', KEYS[i])
+                end
+            end
+            return released
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public SeatLockStore(@Qualifier("stringRedisTemplate") RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 회차 좌석 락 일괄 획득
+     * @return 전부 잡았으면 true, 다른 소유자의 락이 있어 하나도 잡지 않았으면 false
+     */
+    public boolean acquire(Long scheduleId, Collection<Long> seatIds, String owner, Duration ttl) {
+        Long acquired = redisTemplate.execute(ACQUIRE_SCRIPT, keys(scheduleId, seatIds),
+                owner, String.valueOf(ttl.toMillis()));
+        return acquired != null && acquired == 1L;
+    }
+
+    /**
+     * 소유자가 같은 좌석 락만 해제 - 실패는 로깅만 하고 TTL 만료에 맡긴다
+     */
+    public void release(Long scheduleId, Collection<Long> seatIds, String owner) {
+        if (seatIds.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, keys(scheduleId, seatIds), owner);
+        } catch (Exception e) {
+            log.warn("좌석 Redis 락 해제 실패 - scheduleId={}, seatIds={}: {}", scheduleId, seatIds, e.getMessage());
+        }
+    }
+
+    public static String owner(String userId, String sessionId) {
+        return userId + ":" + sessionId;
+    }
+
+    private static List<String> keys(Long scheduleId, Collection<Long> seatIds) {
+        return seatIds.stream()
+                .map(seatId -> SEAT_LOCK_KEY_PREFIX + "{" + scheduleId + "}:" + seatId)
+                .toList();
+    }
+}
@@ -10,19 +10,24 @@ import org.ddcn41.ticketing_system.seat.dto.response.SeatLockResponse;
 import org.ddcn41.ticketing_system.seat.entity.ScheduleSeat;
 import org.ddcn41.ticketing_system.seat.entity.SeatLock;
 import org.ddcn41.ticketing_system.seat.repository.ScheduleSeatRepository;
+import org.ddcn41.ticketing_system.seat.repository.SeatLockJdbcRepository;
 import org.ddcn41.ticketing_system.seat.repository.SeatLockRepository;
 import org.ddcn41.ticketing_system.user.entity.User;
 import org.ddcn41.ticketing_system.user.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -35,33 +40,82 @@ import java.util.stream.Collectors;
 @Service
 @Transactional
 public class SeatService {
+    private static final Logger log = LoggerFactory.getLogger(SeatService.class);
+
     private final ObjectProvider<SeatService> seatServiceProvider;
     private final ScheduleSeatRepository scheduleSeatRepository;
     private final SeatLockRepository seatLockRepository;
     private final PerformanceScheduleRepository scheduleRepository;
     private final UserRepository userRepository;
-    private final RedisTemplate<String, String> redisTemplate;
+    private final SeatStateStore seatStateStore;
+    private final SeatLockStore seatLockStore;
+    private final SeatLockJdbcRepository seatLockJdbcRepository;
 
 
 
 
     private static final int LOCK_DURATION_MINUTES = 1;
-    private static final String REDIS_LOCK_PREFIX = "seat_lock:";
 
-    public SeatService(ObjectProvider<SeatService> seatServiceProvider, ScheduleSeatRepository scheduleSeatRepository, SeatLockRepository seatLockRepository, PerformanceScheduleRepository scheduleRepository, UserRepository userRepository, @Qualifier("stringRedisTemplate") RedisTemplate<String, String> redisTemplate) {
+    public SeatService(ObjectProvider<SeatService> seatServiceProvider, ScheduleSeatRepository scheduleSeatRepository, SeatLockRepository seatLockRepository, PerformanceScheduleRepository scheduleRepository, UserRepository userRepository, SeatStateStore seatStateStore, SeatLockStore seatLockStore, SeatLockJdbcRepository seatLockJdbcRepository) {
         this.seatServiceProvider = seatServiceProvider;
         this.scheduleSeatRepository = scheduleSeatRepository;
         this.seatLockRepository = seatLockRepository;
         this.scheduleRepository = scheduleRepository;
         this.userRepository = userRepository;
-        this.redisTemplate = redisTemplate;
+        this.seatStateStore = seatStateStore;
+        this.seatLockStore = seatLockStore;
+        this.seatLockJdbcRepository = seatLockJdbcRepository;
     }
 
     /**
      * 스케줄의 모든 좌석 상태 조회
+     * - 좌석 상태는 Redis 비트맵(MGET 1회), 좌석 정적 정보는 로컬 캐시에서 읽어 엔티티를 만들지 않는다
+     * - version 은 스냅샷 시점의 변경 버전으로, 클라이언트는 이후 좌석 변경 스트림에서 더 큰 버전만 적용한다
+     * - Redis 를 읽을 수 없으면 DB 에서 좌석 엔티티로 조회 (version 없음)
      */
     @Transactional(readOnly = true)
     public SeatAvailabilityResponse getSeatsAvailability(Long scheduleId) {
+        SeatStateStore.SeatLayout layout = seatStateStore.layout(scheduleId);
+        SeatStateStore.SeatStates snapshot;
+        try {
+            snapshot = seatStateStore.states(scheduleId, layout);
+        } catch (Exception e) {
+            log.warn("좌석 상태 비트맵 조회 실패 - DB 조회로 대체: scheduleId={}, {}", scheduleId, e.getMessage());
+            return getSeatsAvailabilityFromDatabase(scheduleId);
+        }
+
+        List<SeatStateStore.Seat> layoutSeats = layout.seats();
+        List<SeatDto> seatDtos = new ArrayList<>(layoutSeats.size());
+        int availableCount = 0;
+        for (int ordinal = 0; ordinal < layoutSeats.size(); ordinal++) {
+            SeatStateStore.Seat seat = layoutSeats.get(ordinal);
+            ScheduleSeat.SeatStatus status = snapshot.states()[ordinal];
+            if (status == ScheduleSeat.SeatStatus.AVAILABLE) {
+                availableCount++;
+            }
+            seatDtos.add(SeatDto.builder()
+                    .seatId(seat.seatId())
+                    .scheduleId(scheduleId)
+                    .venueSeatId(null) // 더 이상 사용하지 않음
+                    .seatRow(seat.rowLabel())
+                    .seatNumber(seat.colNum())
+                    .seatZone(seat.zone())
+                    .seatGrade(seat.grade())
+                    .price(seat.price())
+                    .status(status.name())
+                    .build());
+        }
+
+        return SeatAvailabilityResponse.builder()
+                .scheduleId(scheduleId)
+                .totalSeats(layoutSeats.size())
+                .availableSeats(availableCount)
+                .seats(seatDtos)
+                .version(snapshot.version())
+                .build();
+    }
+
+    private SeatAvailabilityResponse getSeatsAvailabilityFromDatabase(Long scheduleId) {
         List<ScheduleSeat> seats = scheduleSeatRepository.findBySchedule_ScheduleId(scheduleId);
 
         List<SeatDto> seatDtos = seats.stream()
@@ -112,7 +166,8 @@ public class SeatService {
             return SeatLockResponse.failure("일부 좌석을 찾을 수 없습니다");
         }
 
-        // 4. 모든 좌석이 사용 가능한지 확인
+        // 4. 모든 좌석이 사용 가능한지 확인 (활성 락은 IN 쿼리 한 번으로 조회)
+        Map<Long, SeatLock> activeLocks = findUnexpiredLocks(seatIds);
         for (ScheduleSeat seat : seats) {
             if (seat.getStatus() == ScheduleSeat.SeatStatus.BOOKED) {
                 return SeatLockResponse.failure("이미 예약된 좌석이 포함되어 있습니다: " + seat.getSeatId());
@@ -120,61 +175,50 @@ public class SeatService {
 
             if (seat.getStatus() == ScheduleSeat.SeatStatus.LOCKED) {
                 // 같은 사용자/세션이면 연장, 아니면 실패
-                Optional<SeatLock> existingLock = seatLockRepository
-                        .findBySeatAndStatusAndExpiresAtAfter(seat, SeatLock.LockStatus.ACTIVE, LocalDateTime.now());
+                SeatLock existingLock = activeLocks.get(seat.getSeatId());
 
-                if (existingLock.isPresent() && !isSameUserOrSession(existingLock.get(), user, sessionId)) {
+                if (existingLock != null && !isSameUserOrSession(existingLock, user, sessionId)) {
                     return SeatLockResponse.failure("다른 사용자가 선택 중인 좌석입니다: " + seat.getSeatId());
                 }
             }
         }
 
-        // 5. Redis 분산 락으로 동시성 제어
-        List<String> lockKeys = seatIds.stream()
-                .map(id -> REDIS_LOCK_PREFIX + id)
-                .collect(Collectors.toList());
-
-        String lockValue = userId + ":" + sessionId;
+        // 5. Redis 분산 락으로 동시성 제어 (같은 회차 좌석을 스크립트 한 번으로 전부 잡거나 하나도 잡지 않음)
+        Set<Long> scheduleIds = seats.stream()
+                .map(seat -> seat.getSchedule() != null ? seat.getSchedule().getScheduleId() : null)
+                .collect(Collectors.toSet());
+        if (scheduleIds.size() != 1 || scheduleIds.contains(null)) {
+            return SeatLockResponse.failure("같은 회차의 좌석만 함께 선택할 수 있습니다");
+        }
+        Long lockScheduleId = scheduleIds.iterator().next();
+        String lockValue = SeatLockStore.owner(userId, sessionId);
 
         try {
-            // 모든 좌석에 대해 Redis 락 획득 시도
-            for (String lockKey : lockKeys) {
-                Boolean acquired = redisTemplate.opsForValue().setIfAbsent(
-                        lockKey, lockValue, LOCK_DURATION_MINUTES, TimeUnit.MINUTES
-                );
-
-                if (Boolean.FALSE.equals(acquired)) {
-                    // 실패 시 이미 획득한 락들 해제
-                    rollbackRedisLocks(lockKeys, lockValue);
-                    return SeatLockResponse.failure("좌석 락 획득 실패");
-                }
+            if (!seatLockStore.acquire(lockScheduleId, seatIds, lockValue, Duration.ofMinutes(LOCK_DURATION_MINUTES))) {
+                return SeatLockResponse.failure("좌석 락 획득 실패");
             }
+        } catch (Exception e) {
+            throw new BusinessException(ErrorCode.SEAT_LOCK_FAILED);
+        }
 
+        try {
             // 6. DB에 락 정보 저장 및 좌석 상태 변경
+            // - 새 락은 JDBC batch INSERT, 연장된 락과 좌석 상태는 dirty checking 으로 flush 시 batch UPDATE
             LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(LOCK_DURATION_MINUTES);
 
             int newlyLocked = 0;
-            Long scheduleIdForCounter = null;
+            List<SeatLock> extendedLocks = new ArrayList<>();
+            List<Long> newLockSeatIds = new ArrayList<>();
             for (ScheduleSeat seat : seats) {
                 // 기존 락이 있다면 연장, 없다면 새로 생성
-                Optional<SeatLock> existingLock = seatLockRepository
-                        .findBySeatAndStatusAndExpiresAtAfter(seat, SeatLock.LockStatus.ACTIVE, LocalDateTime.now());
+                SeatLock existingLock = activeLocks.get(seat.getSeatId());
 
-                if (existingLock.isPresent() && isSameUserOrSession(existingLock.get(), user, sessionId)) {
+                if (existingLock != null && isSameUserOrSession(existingLock, user, sessionId)) {
                     // 락 연장
-                    SeatLock lock = existingLock.get();
-                    lock.setExpiresAt(expiresAt);
-                    seatLockRepository.save(lock);
+                    existingLock.setExpiresAt(expiresAt);
+                    extendedLocks.add(existingLock);
                 } else {
-                    // 새 락 생성
-                    SeatLock newLock = SeatLock.builder()
-                            .seat(seat)
-                            .user(user)
-                            .sessionId(sessionId)
-                            .expiresAt(expiresAt)
-                            .status(SeatLock.LockStatus.ACTIVE)
-                            .build();
-                    seatLockRepository.save(newLock);
+                    newLockSeatIds.add(seat.getSeatId());
                 }
 
                 // 좌석 상태 변경 및 카운터 감소 대상 계산
@@ -182,31 +226,30 @@ public class SeatService {
                     newlyLocked++;
                 }
                 seat.setStatus(ScheduleSeat.SeatStatus.LOCKED);
-                scheduleSeatRepository.save(seat);
-
-                if (scheduleIdForCounter == null && seat.getSchedule() != null) {
-                    scheduleIdForCounter = seat.getSchedule().getScheduleId();
-                }
             }
+            seatLockRepository.saveAll(extendedLocks);
+            scheduleSeatRepository.saveAll(seats);
+            seatLockJdbcRepository.insertActiveLocks(newLockSeatIds, user.getUserId(), sessionId, expiresAt);
 
             // 7. 스케줄 가용 좌석 카운터 감소 (AVAILABLE -> LOCKED 전이 수만큼)
-            if (scheduleIdForCounter != null && newlyLocked > 0) {
-                int affected = scheduleRepository.decrementAvailableSeats(scheduleIdForCounter, newlyLocked);
+            if (newlyLocked > 0) {
+                int affected = scheduleRepository.decrementAvailableSeats(lockScheduleId, newlyLocked);
                 if (affected == 0) {
                     throw new BusinessException(ErrorCode.SCHEDULE_SOLD_OUT);
                 }
-                scheduleRepository.refreshScheduleStatus(scheduleIdForCounter);
+                scheduleRepository.refreshScheduleStatus(lockScheduleId);
             }
+            seatStateStore.update(lockScheduleId, seats, ScheduleSeat.SeatStatus.LOCKED);
 
             return SeatLockResponse.success("좌석 락 성공", expiresAt);
 
         } catch (BusinessException e) {
             // 비즈니스 예외는 그대로 전파
-            rollbackRedisLocks(lockKeys, lockValue);
+            seatLockStore.release(lockScheduleId, seatIds, lockValue);
             throw e;
         } catch (Exception e) {
             // 실패 시 Redis 락 정리
-            rollbackRedisLocks(lockKeys, lockValue);
+            seatLockStore.release(lockScheduleId, seatIds, lockValue);
             throw new BusinessException(ErrorCode.SEAT_LOCK_FAILED);
         }
     }
@@ -247,6 +290,7 @@ public class SeatService {
                 .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND, "userId: " + userId));
 
         List<ScheduleSeat> seats = scheduleSeatRepository.findAllById(seatIds);
+        List<ScheduleSeat> booked = new ArrayList<>(seats.size());
 
         for (ScheduleSeat seat : seats) {
             // 해당 사용자의 락이 있는지 확인
@@ -257,6 +301,7 @@ public class SeatService {
                 // 좌석 상태를 예약됨으로 변경
                 seat.setStatus(ScheduleSeat.SeatStatus.BOOKED);
                 scheduleSeatRepository.save(seat);
+                booked.add(seat);
 
                 // 락 해제
                 SeatLock lock = lockOpt.get();
@@ -264,14 +309,15 @@ public class SeatService {
                 seatLockRepository.save(lock);
 
                 // Redis에서도 제거
-                String lockKey = REDIS_LOCK_PREFIX + seat.getSeatId();
-                redisTemplate.delete(lockKey);
+                releaseRedisLock(lock);
             } else {
                 // 락이 없으면 예약 실패
+                updateSeatStates(booked, ScheduleSeat.SeatStatus.BOOKED);
                 return false;
             }
         }
 
+        updateSeatStates(booked, ScheduleSeat.SeatStatus.BOOKED);
         return true;
     }
 
@@ -281,6 +327,7 @@ public class SeatService {
     public boolean cancelSeats(List<Long> seatIds) {
         List<ScheduleSeat> seats = scheduleSeatRepository.findAllById(seatIds);
 
+        List<ScheduleSeat> restoredSeats = new ArrayList<>(seats.size());
         int restored = 0;
         Long scheduleIdForCounter = null;
 
@@ -288,6 +335,7 @@ public class SeatService {
             if (seat.getStatus() == ScheduleSeat.SeatStatus.BOOKED) {
                 seat.setStatus(ScheduleSeat.SeatStatus.AVAILABLE);
                 scheduleSeatRepository.save(seat);
+                restoredSeats.add(seat);
                 restored++;
                 if (scheduleIdForCounter == null && seat.getSchedule() != null) {
                     scheduleIdForCounter = seat.getSchedule().getScheduleId();
@@ -302,6 +350,7 @@ public class SeatService {
             }
             scheduleRepository.refreshScheduleStatus(scheduleIdForCounter);
         }
+        seatStateStore.update(scheduleIdForCounter, restoredSeats, ScheduleSeat.SeatStatus.AVAILABLE);
 
         return true;
     }
@@ -459,6 +508,7 @@ public class SeatService {
                     || (seat.getStatus() == ScheduleSeat.SeatStatus.BOOKED);
             seat.setStatus(ScheduleSeat.SeatStatus.AVAILABLE);
             scheduleSeatRepository.save(seat);
+            updateSeatStates(List.of(seat), ScheduleSeat.SeatStatus.AVAILABLE);
 
             // 가용 좌석 카운터 증가 (LOCKED/BOOKED -> AVAILABLE 전이인 경우만)
             if (seat.getSchedule() != null && wasLockedOrBooked) {
@@ -471,27 +521,42 @@ public class SeatService {
             }
 
             // Redis 락 해제
-            String lockKey = REDIS_LOCK_PREFIX + seat.getSeatId();
-            redisTemplate.delete(lockKey);
+            releaseRedisLock(lock);
 
         } catch (Exception e) {
             throw new BusinessException(ErrorCode.SEAT_LOCK_CANCEL_FAILED);
         }
     }
 
-    private void rollbackRedisLocks(List<String> lockKeys, String lockValue) {
-        for (String lockKey : lockKeys) {
-            try {
-                // 같은 값으로 설정된 락만 삭제 (다른 프로세스의 락 보호)
-                String currentValue = redisTemplate.opsForValue().get(lockKey);
-                if (lockValue.equals(currentValue)) {
-                    redisTemplate.delete(lockKey);
-                }
-            } catch (Exception e) {
-                // 롤백 중 오류는 로깅만 하고 계속 진행
-                System.err.println("Redis lock rollback error for key: " + lockKey);
-            }
+    /**
+     * 좌석 상태 비트맵 갱신 (좌석들은 같은 스케줄)
+     */
+    private void updateSeatStates(List<ScheduleSeat> seats, ScheduleSeat.SeatStatus status) {
+        if (seats.isEmpty() || seats.get(0).getSchedule() == null) {
+            return;
         }
+        seatStateStore.update(seats.get(0).getSchedule().getScheduleId(), seats, status);
+    }
+
+    /**
+     * DB 락 소유자의 Redis 락 해제 (만료 후 다른 사용자가 잡은 락은 지우지 않음)
+     */
+    private void releaseRedisLock(SeatLock lock) {
+        ScheduleSeat seat = lock.getSeat();
+        if (lock.getUser() == null || seat.getSchedule() == null) {
+            return;
+        }
+        seatLockStore.release(seat.getSchedule().getScheduleId(), List.of(seat.getSeatId()),
+                SeatLockStore.owner(lock.getUser().getUserId(), lock.getSessionId()));
+    }
+
+    /**
+     * 좌석별 만료되지 않은 활성 락 (같은 좌석에 여러 건이면 가장 늦게 만료되는 락)
+     */
+    private Map<Long, SeatLock> findUnexpiredLocks(List<Long> seatIds) {
+        return seatLockRepository.findUnexpiredLocksBySeatIds(seatIds, LocalDateTime.now()).stream()
+                .collect(Collectors.toMap(lock -> lock.getSeat().getSeatId(), Function.identity(),
+                        (a, b) -> a.getExpiresAt().isAfter(b.getExpiresAt()) ? a : b));
     }
 
     private boolean isSameUserOrSession(SeatLock lock, User user, String sessionId) {
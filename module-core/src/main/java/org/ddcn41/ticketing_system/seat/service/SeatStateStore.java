@@ -0,0 +1,326 @@
+package org.ddcn41.ticketing_system.seat.service;
+
+import org.ddcn41.ticketing_system.seat.dto.SeatLayoutProjection;
+import org.ddcn41.ticketing_system.seat.dto.SeatStatusProjection;
+import org.ddcn41.ticketing_system.seat.entity.ScheduleSeat;
+import org.ddcn41.ticketing_system.seat.repository.ScheduleSeatRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 스케줄별 좌석 상태 비트맵 (Redis BITFIELD, 좌석당 2비트)
+ * - key: seat_state:{scheduleId}, 좌석 순번(ordinal)은 스케줄 좌석을 seat_id 순으로 정렬한 위치
+ * - 값: 0 AVAILABLE, 1 LOCKED, 2 BOOKED (SeatStatus 순서)
+ * - 조회는 GET 한 번으로 비트맵 전체를 읽고, 좌석 정적 정보(열/번호/구역/등급/가격)는 cache-seconds 동안 로컬에 보관
+ * - 락/확정/취소는 커밋 후 BITFIELD SET 으로 반영 (롤백된 변경은 반영하지 않음)
+ * - 비트맵이 없으면 갱신은 건너뛰고 다음 조회에서 DB 상태로 다시 만든다 (ttl-seconds 후 만료되어 주기적으로 DB 와 맞춰짐)
+ *   다시 만든 비트맵은 DB 를 읽기 전의 버전이 그대로일 때만 저장 (그 사이 건너뛴 갱신이 있으면 저장하지 않음)
+ * - 변경마다 seat_state_version:{scheduleId} 를 올리고 seat_changes:{scheduleId} 채널로 변경분을 PUBLISH
+ *   (비트맵 갱신과 같은 스크립트라 스냅샷 버전과 변경분 버전이 어긋나지 않는다)
+ * - 버전은 처음 만들 때 Redis TIME(µs) 에서 시작하므로 키가 만료/유실되어도 이전 버전으로 돌아가지 않는다
+ *   → 좌석 응답 ETag 로 그대로 쓸 수 있다. 비트맵을 버릴 때(초기화, 갱신 실패)도 버전을 올리고 reset 을 발행한다
+ */
+@Component
+public class SeatStateStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatStateStore.class);
+    private static final String SEAT_STATE_KEY_PREFIX = "seat_state:";
+    private static final String SEAT_STATE_VERSION_KEY_PREFIX = "seat_state_version:";
+    public static final String SEAT_CHANGES_CHANNEL_PREFIX = "seat_changes:";
+    private static final long VERSION_TTL_SECONDS = 86400;
+    private static final int BITS_PER_SEAT = 2;
+
+    /**
+     * KEYS[1]: 버전 - 없으면 현재 시각(µs)으로 만든다 (정수 문자열, Lua 숫자로 바꾸면 지수 표기가 되어 정밀도를 잃음)
+     */
+    private static final String SEED_VERSION = """
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                local time = redis.call('TIME')
+                redis.call('SET', KEYS[1], time[1] .. string.format('%%06d', tonumber(time[2])), 'EX', %d, 'NX')
+            end
+            """.formatted(VERSION_TTL_SECONDS);
+
+    /**
+     * KEYS[1]: 버전
+     * @return 현재 버전
+     */
+    private static final RedisScript<Long> VERSION_SCRIPT = new DefaultRedisScript<>(SEED_VERSION + """
+            return tonumber(redis.call('GET', KEYS[1]))
+            """, Long.class);
+
+    /**
+     * KEYS[1]: 버전, KEYS[2]: 비트맵
+     * ARGV[1]: 채널, ARGV[2]: scheduleId, ARGV[3]: 상태 이름, ARGV[4]: 좌석 ID JSON 배열, ARGV[5]: 버전 TTL,
+     * ARGV[6..]: 순번/상태 쌍 (#ordinal, value, ...)
+     * 비트맵이 없으면 비트맵은 갱신하지 않는다 (없는 키에 BITFIELD 를 쓰면 나머지 좌석이 모두 AVAILABLE 로 만들어짐)
+     * @return 올린 버전
+     */
+    private static final RedisScript<Long> UPDATE_SCRIPT = new DefaultRedisScript<>(SEED_VERSION + """
+            local version = redis.call('INCR', KEYS[1])
+            redis.call('EXPIRE', KEYS[1], ARGV[5])
+            if #ARGV > 5 and redis.call('EXISTS', KEYS[2]) == 1 then
+                local args = {}
+                for i = 6, #ARGV, 2 do
+                    args[#args + 1] = 'SET'
+                    args[#args + 1] = 'u2'
+                    args[#args + 1] = ARGV[i]
+                    args[#args + 1] = ARGV[i + 1]
+                end
+                redis.call('BITFIELD', KEYS[2], unpack(args))
+            end
+            redis.call('PUBLISH', ARGV[1], '{"scheduleId":' .. ARGV[2] .. ',"version":' .. version
+                .. ',"status":"' .. ARGV[3] .. '","seatIds":' .. ARGV[4] .. '}')
+            return version
+            """, Long.class);
+
+    /**
+     * KEYS[1]: 버전, KEYS[2]: 비트맵, ARGV[1]: DB 를 읽기 전 버전, ARGV[2]: 비트맵, ARGV[3]: 비트맵 TTL(초)
+     * 버전이 그대로이고 비트맵이 없을 때만 저장 (DB 를 읽는 동안 비트맵 없이 지나간 갱신이 있으면 버림)
+     * @return 저장했으면 1
+     */
+    private static final byte[] STORE_SCRIPT = """
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+                return 0
+            end
+            if redis.call('SET', KEYS[2], ARGV[2], 'EX', ARGV[3], 'NX') then
+                return 1
+            end
+            return 0
+            """.getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * KEYS[1]: 버전, KEYS[2]: 비트맵, ARGV[1]: 채널, ARGV[2]: scheduleId, ARGV[3]: 버전 TTL
+     * 비트맵을 지우고 버전을 올린 뒤 reset 발행 (구독자는 스냅샷을 다시 받는다)
+     */
+    private static final RedisScript<Long> RESET_SCRIPT = new DefaultRedisScript<>(SEED_VERSION + """
+            local version = redis.call('INCR', KEYS[1])
+            redis.call('EXPIRE', KEYS[1], ARGV[3])
+            redis.call('DEL', KEYS[2])
+            redis.call('PUBLISH', ARGV[1], '{"scheduleId":' .. ARGV[2] .. ',"version":' .. version .. ',"reset":true}')
+            return version
+            """, Long.class);
+
+    private final ScheduleSeatRepository scheduleSeatRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final long layoutCacheMillis;
+    private final long stateTtlSeconds;
+    private final Map<Long, SeatLayout> layouts = new ConcurrentHashMap<>();
+
+    public SeatStateStore(ScheduleSeatRepository scheduleSeatRepository,
+                          @Qualifier("stringRedisTemplate") RedisTemplate<String, String> redisTemplate,
+                          @Value("${seat.layout.cache-seconds:60}") int layoutCacheSeconds,
+                          @Value("${seat.state.ttl-seconds:600}") long stateTtlSeconds) {
+        this.scheduleSeatRepository = scheduleSeatRepository;
+        this.redisTemplate = redisTemplate;
+        this.layoutCacheMillis = layoutCacheSeconds * 1000L;
+        this.stateTtlSeconds = stateTtlSeconds;
+    }
+
+    /**
+     * 좌석 정적 정보
+     */
+    public record Seat(Long seatId, String rowLabel, String colNum, String zone, String grade, BigDecimal price) {
+    }
+
+    /**
+     * 좌석 상태 스냅샷 (layout.seats() 순서) 과 그 시점의 변경 버전
+     */
+    public record SeatStates(long version, ScheduleSeat.SeatStatus[] states) {
+    }
+
+    /**
+     * 스케줄 좌석 배치 (seat_id 순) 와 좌석 → 순번 색인
+     */
+    public record SeatLayout(List<Seat> seats, Map<Long, Integer> ordinals, long loadedAt) {
+        boolean isFresh(long cacheMillis) {
+            return System.currentTimeMillis() - loadedAt < cacheMillis;
+        }
+    }
+
+    public SeatLayout layout(Long scheduleId) {
+        SeatLayout cached = layouts.get(scheduleId);
+        if (cached == null || !cached.isFresh(layoutCacheMillis)) {
+            cached = loadLayout(scheduleId);
+            layouts.put(scheduleId, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * 좌석 상태 배열과 버전 - Redis MGET 한 번 (같은 해시 태그), 비트맵이 없으면 DB 상태로 만든 뒤 저장
+     * - 버전을 DB 보다 먼저 읽으므로, 저장 시 버전이 바뀌었으면 DB 를 읽는 사이 반영되지 못한 갱신이 있었던 것
+     */
+    public SeatStates states(Long scheduleId, SeatLayout layout) {
+        byte[] key = key(scheduleId).getBytes(StandardCharsets.UTF_8);
+        byte[] versionKey = versionKey(scheduleId).getBytes(StandardCharsets.UTF_8);
+        List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.stringCommands().mGet(versionKey, key));
+        long version = values != null && values.get(0) != null
+                ? Long.parseLong(new String(values.get(0), StandardCharsets.UTF_8))
+                : version(scheduleId);
+        byte[] bitmap = values != null ? values.get(1) : null;
+        if (bitmap == null) {
+            bitmap = rebuild(scheduleId, layout);
+            byte[] value = bitmap;
+            byte[] expected = String.valueOf(version).getBytes(StandardCharsets.UTF_8);
+            byte[] ttl = String.valueOf(stateTtlSeconds).getBytes(StandardCharsets.UTF_8);
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.scriptingCommands()
+                    .eval(STORE_SCRIPT, ReturnType.INTEGER, 2, versionKey, key, expected, value, ttl));
+        }
+        return new SeatStates(version, decode(bitmap, layout.seats().size()));
+    }
+
+    /**
+     * 현재 변경 버전 (Redis 만 읽고 DB 는 읽지 않음)
+     */
+    public long version(Long scheduleId) {
+        Long version = redisTemplate.execute(VERSION_SCRIPT, List.of(versionKey(scheduleId)));
+        if (version == null) {
+            throw new IllegalStateException("좌석 상태 버전 조회 실패 - scheduleId=" + scheduleId);
+        }
+        return version;
+    }
+
+    /**
+     * 로컬 좌석 배치 캐시만 버린다 (다른 노드의 초기화 reset 알림 수신 시)
+     */
+    public void forgetLayout(Long scheduleId) {
+        layouts.remove(scheduleId);
+    }
+
+    /**
+     * 좌석 상태 변경 반영과 변경분 발행 - 트랜잭션 안이면 커밋 후, 아니면 즉시
+     */
+    public void update(Long scheduleId, List<ScheduleSeat> seats, ScheduleSeat.SeatStatus status) {
+        if (scheduleId == null || seats.isEmpty()) {
+            return;
+        }
+        List<Long> seatIds = seats.stream().map(ScheduleSeat::getSeatId).toList();
+        afterCommit(() -> apply(scheduleId, seatIds, status));
+    }
+
+    /**
+     * 스케줄 좌석 구성 변경 (초기화 등) - 커밋 후 로컬 배치와 비트맵을 버리고 다음 조회에서 다시 만든다
+     */
+    public void evict(Long scheduleId) {
+        afterCommit(() -> discard(scheduleId));
+    }
+
+    private void apply(Long scheduleId, List<Long> seatIds, ScheduleSeat.SeatStatus status) {
+        try {
+            SeatLayout layout = layout(scheduleId);
+            List<String> args = new ArrayList<>(5 + seatIds.size() * 2);
+            args.add(SEAT_CHANGES_CHANNEL_PREFIX + scheduleId);
+            args.add(String.valueOf(scheduleId));
+            args.add(status.name());
+            args.add(seatIds.stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]")));
+            args.add(String.valueOf(VERSION_TTL_SECONDS));
+            for (Long seatId : seatIds) {
+                Integer ordinal = layout.ordinals().get(seatId);
+                if (ordinal == null) {
+                    // 캐시된 배치에 없는 좌석 (새로 생성됨) - 순번이 바뀔 수 있으므로 비트맵은 통째로 다시 만들고 변경분만 발행
+                    discard(scheduleId);
+                    args.subList(5, args.size()).clear();
+                    break;
+                }
+                args.add("#" + ordinal);
+                args.add(String.valueOf(status.ordinal()));
+            }
+            redisTemplate.execute(UPDATE_SCRIPT, List.of(versionKey(scheduleId), key(scheduleId)), args.toArray());
+        } catch (Exception e) {
+            // 반영하지 못한 비트맵은 지워 다음 조회에서 DB 기준으로 다시 만든다
+            log.warn("좌석 상태 비트맵 갱신 실패 - scheduleId={}: {}", scheduleId, e.getMessage());
+            discard(scheduleId);
+        }
+    }
+
+    private void discard(Long scheduleId) {
+        layouts.remove(scheduleId);
+        try {
+            redisTemplate.execute(RESET_SCRIPT, List.of(versionKey(scheduleId), key(scheduleId)),
+                    SEAT_CHANGES_CHANNEL_PREFIX + scheduleId, String.valueOf(scheduleId),
+                    String.valueOf(VERSION_TTL_SECONDS));
+        } catch (Exception e) {
+            // 지우지 못하면 TTL 만료 후 다시 만들어진다
+            log.warn("좌석 상태 비트맵 삭제 실패 - scheduleId={}: {}", scheduleId, e.getMessage());
+        }
+    }
+
+    private SeatLayout loadLayout(Long scheduleId) {
+        List<SeatLayoutProjection> rows = scheduleSeatRepository.findLayoutByScheduleId(scheduleId);
+        List<Seat> seats = new ArrayList<>(rows.size());
+        Map<Long, Integer> ordinals = new HashMap<>(rows.size() * 2);
+        for (SeatLayoutProjection row : rows) {
+            ordinals.put(row.getSeatId(), seats.size());
+            seats.add(new Seat(row.getSeatId(), row.getRowLabel(), row.getColNum(), row.getZone(),
+                    row.getGrade(), row.getPrice()));
+        }
+        return new SeatLayout(List.copyOf(seats), Map.copyOf(ordinals), System.currentTimeMillis());
+    }
+
+    private byte[] rebuild(Long scheduleId, SeatLayout layout) {
+        byte[] bitmap = new byte[(layout.seats().size() * BITS_PER_SEAT + 7) / 8];
+        for (SeatStatusProjection row : scheduleSeatRepository.findStatusesByScheduleId(scheduleId)) {
+            Integer ordinal = layout.ordinals().get(row.getSeatId());
+            if (ordinal != null && row.getStatus() != null) {
+                int bit = ordinal * BITS_PER_SEAT;
+                // BITFIELD 는 바이트 안에서 상위 비트부터 채운다
+                bitmap[bit / 8] |= (byte) (row.getStatus().ordinal() << (8 - BITS_PER_SEAT - bit % 8));
+            }
+        }
+        return bitmap;
+    }
+
+    private static ScheduleSeat.SeatStatus[] decode(byte[] bitmap, int size) {
+        ScheduleSeat.SeatStatus[] values = ScheduleSeat.SeatStatus.values();
+        ScheduleSeat.SeatStatus[] states = new ScheduleSeat.SeatStatus[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            int bit = ordinal * BITS_PER_SEAT;
+            int value = bit / 8 < bitmap.length
+                    ? (bitmap[bit / 8] >> (8 - BITS_PER_SEAT - bit % 8)) & 0b11
+                    : 0;
+            states[ordinal] = value < values.length ? values[value] : ScheduleSeat.SeatStatus.AVAILABLE;
+        }
+        return states;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String key(Long scheduleId) {
+        return SEAT_STATE_KEY_PREFIX + "{" + scheduleId + "}";
+    }
+
+    private static String versionKey(Long scheduleId) {
+        return SEAT_STATE_VERSION_KEY_PREFIX + "{" + scheduleId + "}";
+    }
+}
@@ -0,0 +1,186 @@
+package org.ddcn41.ticketing_system.booking.service;
+
+import org.ddcn41.ticketing_system.common.exception.BusinessException;
+import org.ddcn41.ticketing_system.common.exception.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 입장 티켓 검증 - 서명/만료/사용자·공연·회차 일치/재사용/롤백 시 사용 기록 해제
+ * - 티켓은 대기열 서비스 발급 형식(payload.signature, base64url)으로 테스트에서 직접 서명
+ * - Redis 는 mock (nonce SETNX 결과만 제어)
+ */
+class AdmissionTicketVerifierTest {
+    private static final String SECRET = "test-admission-ticket-secret-0123456789";
+    private static final String USER_ID = "user1";
+    private static final Long PERFORMANCE_ID = 1L;
+    private static final Long SCHEDULE_ID = 10L;
+    private static final String NONCE = "nonce-token";
+    private static final String USED_KEY = "admission_ticket_used:" + NONCE;
+
+    private RedisTemplate<String, String> redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private AdmissionTicketVerifier verifier;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        verifier = new AdmissionTicketVerifier(redisTemplate, SECRET);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void validTicketReturnsNonce() {
+        String ticket = ticket(USER_ID, PERFORMANCE_ID, SCHEDULE_ID, inSeconds(600), NONCE);
+
+        assertThat(verifier.verifyAndConsume(ticket, USER_ID, PERFORMANCE_ID, SCHEDULE_ID)).isEqualTo(NONCE);
+        verify(valueOperations).setIfAbsent(eq(USED_KEY), eq(USER_ID), any(Duration.class));
+    }
+
+    @Test
+    void tamperedSignatureIsRejected() {
+        String ticket = ticket(USER_ID, PERFORMANCE_ID, SCHEDULE_ID, inSeconds(600), NONCE);
+        // 서명은 그대로 두고 payload 의 사용자만 바꿔치기
+        String forgedPayload = encode(payload("attacker", PERFORMANCE_ID, SCHEDULE_ID, inSeconds(600), NONCE));
+        String forged = forgedPayload + ticket.substring(ticket.indexOf('.'));
+
+        assertInvalid(() -> verifier.verifyAndConsume(forged, "attacker", PERFORMANCE_ID, SCHEDULE_ID));
+        assertInvalid(() -> verifier.verifyAndConsume(ticket + "x", USER_ID, PERFORMANCE_ID, SCHEDULE_ID));
+        verify(valueOperations, never()).setIfAbsent(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void ticketSignedWithAnotherSecretIsRejected() {
+        String ticket = ticket("another-secret-0123456789-0123456789", USER_ID, PERFORMANCE_ID, SCHEDULE_ID,
+                inSeconds(600), NONCE);
+
+        assertInvalid(() -> verifier.verifyAndConsume(ticket, USER_ID, PERFORMANCE_ID, SCHEDULE_ID));
+    }
+
+    @Test
+    void expiredTicketIsRejected() {
+        String ticket = ticket(USER_ID, PERFORMANCE_ID, SCHEDULE_ID, inSeconds(-1), NONCE);
+
+        assertInvalid(() -> verifier.verifyAndConsume(ticket, USER_ID, PERFORMANCE_ID, SCHEDULE_ID));
+    }
+
+    @Test
+    void mismatchedUserPerformanceOrScheduleIsRejected() {
+        String ticket = ticket(USER_ID, PERFORMANCE_ID, SCHEDULE_ID, inSeconds(600), NONCE);
+
+        assertInvalid(() -> verifier.verifyAndConsume(ticket, "user2", PERFORMANCE_ID, SCHEDULE_ID));
+        assertInvalid(() -> verifier.verifyAndConsume(ticket, USER_ID, 2L, SCHEDULE_ID));
+        assertInvalid(() -> verifier.verifyAndConsume(ticket, USER_ID, PERFORMANCE_ID, 11L));
+        verify(valueOperations, never()).setIfAbsent(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void performanceLaneTicketCannotBookASchedule() {
+        String ticket = ticket(USER_ID, PERFORMANCE_ID, null, inSeconds(600), NONCE);
+
+        assertInvalid(() -> verifier.verifyAndConsume(ticket, USER_ID, PERFORMANCE_ID, SCHEDULE_ID));
+    }
+
+    @Test
+    void replayedTicketIsRejected() {
+        String ticket = ticket(USER_ID, PERFORMANCE_ID, SCHEDULE_ID, inSeconds(600), NONCE);
+        when(valueOperations.setIfAbsent(eq(USED_KEY), eq(USER_ID), any(Duration.class))).thenReturn(false);
+
+        assertThatThrownBy(() -> verifier.verifyAndConsume(ticket, USER_ID, PERFORMANCE_ID, SCHEDULE_ID))
+                .isInstanceOfSatisfying(BusinessException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.QUEUE_TOKEN_ALREADY_USED));
+    }
+
+    @Test
+    void usedMarkIsReleasedOnRollbackOnly() {
+        String ticket = ticket(USER_ID, PERFORMANCE_ID, SCHEDULE_ID, inSeconds(600), NONCE);
+
+        TransactionSynchronizationManager.initSynchronization();
+        verifier.verifyAndConsume(ticket, USER_ID, PERFORMANCE_ID, SCHEDULE_ID);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        verify(redisTemplate, never()).delete(USED_KEY);
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        verify(redisTemplate).delete(USED_KEY);
+    }
+
+    @Test
+    void shortSecretIsRejected() {
+        assertThatThrownBy(() -> new AdmissionTicketVerifier(redisTemplate, ""))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static void assertInvalid(Runnable call) {
+        assertThatThrownBy(call::run)
+                .isInstanceOfSatisfying(BusinessException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.QUEUE_TOKEN_INVALID));
+    }
+
+    private static long inSeconds(long seconds) {
+        return System.currentTimeMillis() / 1000 + seconds;
+    }
+
+    private static String ticket(String userId, Long performanceId, Long scheduleId, long expiresAtEpoch,
+                                 String nonce) {
+        return ticket(SECRET, userId, performanceId, scheduleId, expiresAtEpoch, nonce);
+    }
+
+    private static String ticket(String secret, String userId, Long performanceId, Long scheduleId,
+                                 long expiresAtEpoch, String nonce) {
+        byte[] payload = payload(userId, performanceId, scheduleId, expiresAtEpoch, nonce);
+        return encode(payload) + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(secret, payload));
+    }
+
+    private static byte[] payload(String userId, Long performanceId, Long scheduleId, long expiresAtEpoch,
+                                  String nonce) {
+        return (userId + "|" + performanceId + "|" + scheduleId + "|" + expiresAtEpoch + "|" + nonce)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String encode(byte[] payload) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload);
+    }
+
+    private static byte[] sign(String secret, byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return mac.doFinal(payload);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package org.ddcn41.queue.bench;
+
+import com.github.fppt.jedismock.RedisServer;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.ddcn41.queue.entity.QueueToken;
+import org.ddcn41.queue.repository.QueueTokenRepository;
+import org.ddcn41.queue.service.AdmissionControl;
+import org.ddcn41.queue.service.AdmissionDispatcher;
+import org.ddcn41.queue.service.AdmissionTicketIssuer;
+import org.ddcn41.queue.service.BookingOpenTimes;
+import org.ddcn41.queue.service.DegradedAdmission;
+import org.ddcn41.queue.service.HeartbeatRegistry;
+import org.ddcn41.queue.service.InMemoryAdmissionBackend;
+import org.ddcn41.queue.service.PostgresAdmissionBackend;
+import org.ddcn41.queue.service.QueueCounterCache;
+import org.ddcn41.queue.service.QueueMetrics;
+import org.ddcn41.queue.service.QueueService;
+import org.ddcn41.queue.service.QueueTokenRecovery;
+import org.ddcn41.queue.service.QueueTokenStore;
+import org.ddcn41.queue.service.QueueTokenWriteBehind;
+import org.ddcn41.queue.service.RedisAdmissionBackend;
+import org.ddcn41.queue.service.RedisCircuitBreaker;
+import org.ddcn41.queue.service.ScheduleAvailability;
+import org.ddcn41.queue.service.WaitTimeEstimator;
+import org.ddcn41.queue.service.WaitingRoom;
+import org.ddcn41.queue.service.WaitingLine;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 벤치마크/부하 테스트용 실행 환경
+ * - Redis: jedis-mock (인프로세스 RESP 서버, 임의 포트)
+ * - DB: 임베디드 Postgres (write-behind upsert 의 ON CONFLICT 구문을 그대로 사용)
+ * - 대기열 서비스 빈만 올린 최소 Spring 컨텍스트 (웹/보안/Feign 제외)
+ * - 입장 백엔드는 queue.admission.backend 로 바꿔 같은 시나리오를 비교 (redis, postgres, memory)
+ * 외부 Redis/DB 나 네트워크 없이 실행된다
+ */
+public final class BenchEnvironment implements AutoCloseable {
+    private final RedisServer redis;
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext context;
+
+    private BenchEnvironment(RedisServer redis, EmbeddedPostgres postgres, ConfigurableApplicationContext context) {
+        this.redis = redis;
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    /**
+     * @param overrides queue.* 등 추가 속성 (기본값 덮어쓰기)
+     */
+    public static BenchEnvironment start(Map<String, Object> overrides) throws IOException {
+        RedisServer redis = RedisServer.newRedisServer(0);
+        redis.start();
+        EmbeddedPostgres postgres = EmbeddedPostgres.start();
+        createAdmissionCounterTable(postgres);
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.data.redis.host", redis.getHost());
+        properties.put("spring.data.redis.port", redis.getBindPort());
+        properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "postgres");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("spring.jpa.open-in-view", false);
+        properties.put("spring.data.redis.repositories.enabled", false);
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        properties.put("queue.ticket.secret", "bench-admission-ticket-secret-0123456789");
+        // 공연 회차 테이블이 없으므로 오픈 전 대기실과 매진 확인은 끔
+        properties.put("queue.waiting-room.enabled", false);
+        properties.put("queue.lane.sold-out-check.enabled", false);
+        properties.putAll(overrides);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BenchConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties)
+                .run();
+        return new BenchEnvironment(redis, postgres, context);
+    }
+
+    /**
+     * 엔티티가 아닌 postgres 입장 백엔드용 테이블 (data-v2.sql 과 같은 정의)
+     */
+    private static void createAdmissionCounterTable(EmbeddedPostgres postgres) throws IOException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS queue_admission_counters (" +
+                    "performance_id BIGINT NOT NULL, " +
+                    "schedule_id BIGINT NOT NULL DEFAULT 0, " +
+                    "active_count INTEGER NOT NULL DEFAULT 0, " +
+                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "PRIMARY KEY (performance_id, schedule_id))");
+        } catch (SQLException e) {
+            throw new IOException("입장 카운터 테이블 생성 실패", e);
+        }
+    }
+
+    /**
+     * --key=value 형식의 실행 인자
+     */
+    public static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int separator = arg.indexOf('=');
+                options.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        postgres.close();
+        redis.stop();
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(excludeName = "org.ddcn41.starter.authorization.config.JwtAuthAutoConfiguration")
+    @EnableScheduling
+    @EnableJpaRepositories(basePackageClasses = QueueTokenRepository.class)
+    @EntityScan(basePackageClasses = QueueToken.class)
+    @Import({
+            WaitingLine.class,
+            HeartbeatRegistry.class,
+            RedisAdmissionBackend.class,
+            PostgresAdmissionBackend.class,
+            InMemoryAdmissionBackend.class,
+            AdmissionControl.class,
+            AdmissionTicketIssuer.class,
+            WaitTimeEstimator.class,
+            QueueMetrics.class,
+            QueueTokenWriteBehind.class,
+            QueueTokenStore.class,
+            QueueTokenRecovery.class,
+            BookingOpenTimes.class,
+            ScheduleAvailability.class,
+            WaitingRoom.class,
+            QueueCounterCache.class,
+            RedisCircuitBreaker.class,
+            DegradedAdmission.class,
+            QueueService.class,
+            AdmissionDispatcher.class
+    })
+    static class BenchConfiguration {
+
+        /**
+         * jedis-mock 은 HELLO(RESP3) 를 지원하지 않으므로 RESP2 로 고정
+         */
+        @Bean
+        LettuceClientConfigurationBuilderCustomizer resp2ClientCustomizer() {
+            return builder -> builder.clientOptions(ClientOptions.builder()
+                    .protocolVersion(ProtocolVersion.RESP2)
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.ddcn41.queue.bench;
+
+import org.ddcn41.queue.dto.response.QueueCheckResponse;
+import org.ddcn41.queue.service.AdmissionBackend;
+import org.ddcn41.queue.service.AdmissionControl;
+import org.ddcn41.queue.service.HeartbeatRegistry;
+import org.ddcn41.queue.service.QueueService;
+import org.ddcn41.queue.service.WaitingLine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 대기열 핫패스 마이크로벤치마크
+ * - SampleTime 모드로 p50/p99 등 백분위 지연시간을 함께 출력
+ * - 입장 백엔드(redis, postgres, memory)별로 같은 시나리오를 반복
+ * - 실행: ./gradlew :module-queue:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(8)
+public class QueueAdmissionBenchmark {
+    private static final Long ADMIT_PERFORMANCE_ID = 1L;
+    private static final Long RANK_PERFORMANCE_ID = 2L;
+    private static final Long BOOKING_PERFORMANCE_ID = 3L;
+    private static final Long SCHEDULE_ID = 1L;
+    private static final int WAITING_USERS = 100_000;
+    private static final AdmissionBackend.Capacity UNLIMITED = new AdmissionBackend.Capacity(Integer.MAX_VALUE, 0);
+
+    @Param({"redis", "postgres", "memory"})
+    public String backend;
+
+    private BenchEnvironment environment;
+    private AdmissionControl admissionControl;
+    private WaitingLine waitingLine;
+    private HeartbeatRegistry heartbeatRegistry;
+    private QueueService queueService;
+    private long firstSequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        environment = BenchEnvironment.start(Map.of(
+                "queue.max-active-tokens", Integer.MAX_VALUE,
+                "queue.admission.backend", backend));
+        admissionControl = environment.bean(AdmissionControl.class);
+        waitingLine = environment.bean(WaitingLine.class);
+        heartbeatRegistry = environment.bean(HeartbeatRegistry.class);
+        queueService = environment.bean(QueueService.class);
+
+        // 순번 조회용 대기열 (10만 명)
+        firstSequence = waitingLine.enqueue(RANK_PERFORMANCE_ID, SCHEDULE_ID, UUID.randomUUID().toString());
+        for (int i = 1; i < WAITING_USERS; i++) {
+            waitingLine.enqueue(RANK_PERFORMANCE_ID, SCHEDULE_ID, UUID.randomUUID().toString());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        environment.close();
+    }
+
+    @State(Scope.Thread)
+    public static class User {
+        final String userId = "bench-user-" + UUID.randomUUID();
+    }
+
+    /**
+     * 즉시 입장 + 자리 반납 (ADMIT/RELEASE 스크립트 왕복)
+     */
+    @Benchmark
+    public long admitAndRelease(User user) {
+        AdmissionBackend.AdmissionResult result =
+                admissionControl.admitDirect(user.userId, ADMIT_PERFORMANCE_ID, SCHEDULE_ID, UNLIMITED);
+        admissionControl.releaseWithHeartbeat(user.userId, ADMIT_PERFORMANCE_ID, SCHEDULE_ID);
+        return result.value();
+    }
+
+    /**
+     * 대기 순번 계산 (선두 순번 조회 1회)
+     */
+    @Benchmark
+    public long rankLookup() {
+        long sequence = firstSequence + ThreadLocalRandom.current().nextLong(WAITING_USERS);
+        Long head = waitingLine.headSequence(RANK_PERFORMANCE_ID, SCHEDULE_ID);
+        return WaitingLine.positionOf(sequence, head != null ? head : sequence);
+    }
+
+    /**
+     * Heartbeat 갱신 (TOUCH 스크립트 + 공연 목록 갱신 파이프라인 왕복)
+     */
+    @Benchmark
+    public boolean heartbeat(User user) {
+        return heartbeatRegistry.touch(user.userId, ADMIT_PERFORMANCE_ID, SCHEDULE_ID);
+    }
+
+    /**
+     * 서비스 경로 전체 (토큰 발급/저장 + 입장 + 세션 해제)
+     */
+    @Benchmark
+    public QueueCheckResponse bookingTokenRoundTrip(User user) {
+        QueueCheckResponse response = queueService.getBookingToken(BOOKING_PERFORMANCE_ID, SCHEDULE_ID, user.userId);
+        queueService.releaseSession(user.userId, BOOKING_PERFORMANCE_ID, SCHEDULE_ID);
+        return response;
+    }
+}
@@ -0,0 +1,163 @@
+package org.ddcn41.queue.bench;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.ddcn41.queue.dto.response.QueueCheckResponse;
+import org.ddcn41.queue.dto.response.QueueStatusResponse;
+import org.ddcn41.queue.entity.QueueToken;
+import org.ddcn41.queue.service.AdmissionDispatcher;
+import org.ddcn41.queue.service.QueueService;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 대기열 부하 테스트 드라이버
+ * - 가상 사용자마다 진입(getBookingToken) → 상태 폴링 → Heartbeat → 세션 해제 흐름을 실행
+ * - 입장은 운영과 같이 AdmissionDispatcher 틱으로 처리
+ * - 구간별 p50/p99/max 지연시간(ms)과 초당 입장 수를 출력
+ * 실행: ./gradlew :module-queue:loadTest -Pusers=100000 -Pmax-active=500 -Pbackend=redis
+ */
+public final class QueueLoadDriver {
+    private static final Long PERFORMANCE_ID = 1L;
+    private static final Long SCHEDULE_ID = 1L;
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(30);
+
+    private final QueueService queueService;
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private final AtomicLong admissions = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final long holdMillis;
+    private final long pollMillis;
+
+    private QueueLoadDriver(QueueService queueService, long holdMillis, long pollMillis) {
+        this.queueService = queueService;
+        this.holdMillis = holdMillis;
+        this.pollMillis = pollMillis;
+        for (String name : new String[]{"join", "poll", "heartbeat", "release", "wait-for-admission"}) {
+            histograms.put(name, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = BenchEnvironment.options(args);
+        int users = Integer.parseInt(options.getOrDefault("users", "100000"));
+        int maxActive = Integer.parseInt(options.getOrDefault("max-active", "500"));
+        long holdMillis = Long.parseLong(options.getOrDefault("hold-ms", "200"));
+        long pollMillis = Long.parseLong(options.getOrDefault("poll-ms", "2000"));
+        int rampSeconds = Integer.parseInt(options.getOrDefault("ramp-seconds", "10"));
+        String backend = options.getOrDefault("backend", "redis");
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("queue.max-active-tokens", maxActive);
+        properties.put("queue.admission.mode", "rate");
+        properties.put("queue.admission.batch-size", Math.max(1, maxActive / 10));
+        properties.put("queue.admission.interval-ms", 100);
+        properties.put("queue.admission.backend", backend);
+
+        try (BenchEnvironment environment = BenchEnvironment.start(properties)) {
+            QueueLoadDriver driver = new QueueLoadDriver(environment.bean(QueueService.class), holdMillis, pollMillis);
+            AdmissionDispatcher dispatcher = environment.bean(AdmissionDispatcher.class);
+
+            System.out.printf("부하 테스트 시작 - 백엔드: %s, 사용자: %d, 최대 활성: %d, 점유: %dms, 폴링: %dms, 램프업: %ds%n",
+                    backend, users, maxActive, holdMillis, pollMillis, rampSeconds);
+            long elapsedNanos = driver.run(dispatcher, users, rampSeconds);
+            driver.report(users, elapsedNanos);
+        }
+    }
+
+    private long run(AdmissionDispatcher dispatcher, int users, int rampSeconds) {
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+        ticker.scheduleWithFixedDelay(dispatcher::dispatch, 100, 100, TimeUnit.MILLISECONDS);
+
+        long started = System.nanoTime();
+        long arrivalGapNanos = TimeUnit.SECONDS.toNanos(rampSeconds) / Math.max(1, users);
+        try (ExecutorService virtualUsers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                String userId = "load-user-" + i;
+                long arrivalNanos = started + i * arrivalGapNanos;
+                virtualUsers.submit(() -> simulate(userId, arrivalNanos));
+            }
+        } finally {
+            ticker.shutdownNow();
+        }
+        return System.nanoTime() - started;
+    }
+
+    private void simulate(String userId, long arrivalNanos) {
+        try {
+            long delay = arrivalNanos - System.nanoTime();
+            if (delay > 0) {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            }
+
+            long joined = System.nanoTime();
+            QueueCheckResponse check = timed("join", () ->
+                    queueService.getBookingToken(PERFORMANCE_ID, SCHEDULE_ID, userId));
+            if (check.getSessionId() == null) {
+                failures.incrementAndGet();
+                return;
+            }
+
+            if (!check.isCanProceedDirectly()) {
+                while (true) {
+                    QueueStatusResponse status = timed("poll", () -> queueService.getTokenStatus(check.getSessionId()));
+                    if (status.getStatus() == QueueToken.TokenStatus.ACTIVE) {
+                        break;
+                    }
+                    if (status.getStatus() != QueueToken.TokenStatus.WAITING) {
+                        failures.incrementAndGet();
+                        return;
+                    }
+                    Thread.sleep(pollMillis);
+                }
+            }
+            record("wait-for-admission", System.nanoTime() - joined);
+            admissions.incrementAndGet();
+
+            timed("heartbeat", () -> queueService.updateHeartbeat(userId, PERFORMANCE_ID, SCHEDULE_ID));
+            Thread.sleep(holdMillis);
+            timed("release", () -> {
+                queueService.releaseSession(userId, PERFORMANCE_ID, SCHEDULE_ID);
+                return null;
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+        }
+    }
+
+    private <T> T timed(String name, Supplier<T> operation) {
+        long started = System.nanoTime();
+        try {
+            return operation.get();
+        } finally {
+            record(name, System.nanoTime() - started);
+        }
+    }
+
+    private void record(String name, long nanos) {
+        histograms.get(name).recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    private void report(int users, long elapsedNanos) {
+        double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("%n%-20s %10s %10s %10s %10s%n", "구간", "건수", "p50(ms)", "p99(ms)", "max(ms)");
+        histograms.forEach((name, histogram) -> System.out.printf("%-20s %10d %10.2f %10.2f %10.2f%n",
+                name,
+                histogram.getTotalCount(),
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getMaxValue() / 1000.0));
+        System.out.printf("%n사용자: %d, 입장: %d, 실패: %d, 소요: %.1fs, 초당 입장: %.1f%n",
+                users, admissions.get(), failures.get(), elapsedSeconds, admissions.get() / elapsedSeconds);
+    }
+}
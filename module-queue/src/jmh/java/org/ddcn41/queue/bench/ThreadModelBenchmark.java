@@ -0,0 +1,127 @@
+package org.ddcn41.queue.bench;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.ddcn41.queue.dto.response.QueueCheckResponse;
+import org.ddcn41.queue.service.QueueService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 요청 처리 스레드 모델 비교 (플랫폼 스레드 풀 vs 가상 스레드)
+ * - 동시 연결 수만큼 클라이언트가 요청을 반복하고, 요청 하나는 서버 실행기에서 처리된다
+ *   (대기 상태 조회 1회 + 하위 서비스 호출을 흉내 낸 io-ms 블로킹)
+ * - platform: Tomcat 기본값과 같은 고정 크기 풀 (server.tomcat.threads.max=200)
+ * - virtual: 요청마다 가상 스레드 (spring.threads.virtual.enabled=true)
+ * 실행: ./gradlew :module-queue:threadModelBench -Pconnections=5000
+ */
+public final class ThreadModelBenchmark {
+    private static final Long PERFORMANCE_ID = 1L;
+    private static final Long SCHEDULE_ID = 1L;
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final QueueService queueService;
+    private final List<String> tokens;
+    private final int requestsPerConnection;
+    private final long ioMillis;
+
+    private ThreadModelBenchmark(QueueService queueService, List<String> tokens,
+                                 int requestsPerConnection, long ioMillis) {
+        this.queueService = queueService;
+        this.tokens = tokens;
+        this.requestsPerConnection = requestsPerConnection;
+        this.ioMillis = ioMillis;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = BenchEnvironment.options(args);
+        int connections = Integer.parseInt(options.getOrDefault("connections", "5000"));
+        int requestsPerConnection = Integer.parseInt(options.getOrDefault("requests", "20"));
+        long ioMillis = Long.parseLong(options.getOrDefault("io-ms", "20"));
+        int platformThreads = Integer.parseInt(options.getOrDefault("platform-threads", "200"));
+
+        // 정원을 0 으로 두어 모든 사용자가 대기 상태로 남게 한다
+        try (BenchEnvironment environment = BenchEnvironment.start(Map.of("queue.max-active-tokens", 0))) {
+            QueueService queueService = environment.bean(QueueService.class);
+            List<String> tokens = new ArrayList<>(connections);
+            for (int i = 0; i < connections; i++) {
+                QueueCheckResponse response = queueService.getBookingToken(PERFORMANCE_ID, SCHEDULE_ID, "thread-user-" + i);
+                tokens.add(response.getSessionId());
+            }
+
+            ThreadModelBenchmark benchmark = new ThreadModelBenchmark(queueService, tokens, requestsPerConnection, ioMillis);
+            System.out.printf("동시 연결: %d, 연결당 요청: %d, 하위 호출 지연: %dms, 플랫폼 스레드: %d%n",
+                    connections, requestsPerConnection, ioMillis, platformThreads);
+
+            // 워밍업 (JIT, 커넥션 생성)
+            benchmark.run("warmup", Executors::newVirtualThreadPerTaskExecutor, Math.min(500, connections));
+
+            System.out.printf("%n%-10s %12s %10s %10s %10s%n", "모드", "처리량(rps)", "p50(ms)", "p99(ms)", "max(ms)");
+            benchmark.run("platform", () -> Executors.newFixedThreadPool(platformThreads), connections).print();
+            benchmark.run("virtual", Executors::newVirtualThreadPerTaskExecutor, connections).print();
+        }
+    }
+
+    private Result run(String mode, Supplier<ExecutorService> serverExecutor, int connections) throws InterruptedException {
+        Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        AtomicLong completed = new AtomicLong();
+
+        long started = System.nanoTime();
+        try (ExecutorService server = serverExecutor.get();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                String token = tokens.get(i % tokens.size());
+                clients.submit(() -> {
+                    for (int request = 0; request < requestsPerConnection; request++) {
+                        long sent = System.nanoTime();
+                        try {
+                            server.submit(() -> handle(token)).get();
+                            completed.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (ExecutionException e) {
+                            // 실패한 요청은 처리량에서 제외
+                        }
+                        latency.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS,
+                                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sent)));
+                    }
+                });
+            }
+            clients.shutdown();
+            clients.awaitTermination(1, TimeUnit.HOURS);
+        }
+        return new Result(mode, latency, completed.get(), System.nanoTime() - started);
+    }
+
+    /**
+     * 요청 하나 - 대기 상태 조회(Redis) 후 하위 서비스 호출 대기
+     */
+    private Void handle(String token) throws InterruptedException {
+        queueService.getTokenStatus(token);
+        if (ioMillis > 0) {
+            Thread.sleep(ioMillis);
+        }
+        return null;
+    }
+
+    private record Result(String mode, Histogram latency, long completed, long elapsedNanos) {
+        void print() {
+            double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+            System.out.printf("%-10s %12.1f %10.2f %10.2f %10.2f%n",
+                    mode,
+                    completed / elapsedSeconds,
+                    latency.getValueAtPercentile(50) / 1000.0,
+                    latency.getValueAtPercentile(99) / 1000.0,
+                    latency.getMaxValue() / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.ddcn41.queue.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.ddcn41.queue.dto.ApiResponse;
+import org.ddcn41.queue.service.EntryRateLimiter;
+import org.ddcn41.queue.service.QueueMetrics;
+import org.ddcn41.starter.authorization.model.BasicCognitoUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 대기열 진입 API(/check, /token) 요청 제한
+ * - 사용자(Cognito userId)와 클라이언트 IP 별 토큰 버킷을 엔드포인트마다 따로 둔다
+ * - 한도를 넘으면 컨트롤러(DB/Redis 조회) 전에 429 + Retry-After 로 응답
+ * - 제한 저장소(Redis) 장애 시에는 요청을 통과시킨다
+ */
+@Slf4j
+@Component
+public class QueueEntryRateLimitInterceptor implements HandlerInterceptor {
+    static final String CHECK_PATH = "/v1/queue/check";
+    static final String TOKEN_PATH = "/v1/queue/token";
+
+    private final EntryRateLimiter entryRateLimiter;
+    private final QueueMetrics queueMetrics;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final EntryRateLimiter.Budget checkUserBudget;
+    private final EntryRateLimiter.Budget checkIpBudget;
+    private final EntryRateLimiter.Budget tokenUserBudget;
+    private final EntryRateLimiter.Budget tokenIpBudget;
+
+    public QueueEntryRateLimitInterceptor(EntryRateLimiter entryRateLimiter,
+                                          QueueMetrics queueMetrics,
+                                          ObjectMapper objectMapper,
+                                          @Value("${queue.rate-limit.enabled:true}") boolean enabled,
+                                          @Value("${queue.rate-limit.check.user-capacity:5}") int checkUserCapacity,
+                                          @Value("${queue.rate-limit.check.user-refill-per-second:0.5}") double checkUserRefill,
+                                          @Value("${queue.rate-limit.check.ip-capacity:50}") int checkIpCapacity,
+                                          @Value("${queue.rate-limit.check.ip-refill-per-second:10}") double checkIpRefill,
+                                          @Value("${queue.rate-limit.token.user-capacity:3}") int tokenUserCapacity,
+                                          @Value("${queue.rate-limit.token.user-refill-per-second:0.2}") double tokenUserRefill,
+                                          @Value("${queue.rate-limit.token.ip-capacity:30}") int tokenIpCapacity,
+                                          @Value("${queue.rate-limit.token.ip-refill-per-second:5}") double tokenIpRefill) {
+        this.entryRateLimiter = entryRateLimiter;
+        this.queueMetrics = queueMetrics;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.checkUserBudget = new EntryRateLimiter.Budget(checkUserCapacity, checkUserRefill);
+        this.checkIpBudget = new EntryRateLimiter.Budget(checkIpCapacity, checkIpRefill);
+        this.tokenUserBudget = new EntryRateLimiter.Budget(tokenUserCapacity, tokenUserRefill);
+        this.tokenIpBudget = new EntryRateLimiter.Budget(tokenIpCapacity, tokenIpRefill);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!enabled || !"POST".equalsIgnoreCase(request.getMethod())) {
+            return true;
+        }
+
+        String endpoint;
+        EntryRateLimiter.Budget userBudget;
+        EntryRateLimiter.Budget ipBudget;
+        if (CHECK_PATH.equals(request.getRequestURI())) {
+            endpoint = "check";
+            userBudget = checkUserBudget;
+            ipBudget = checkIpBudget;
+        } else if (TOKEN_PATH.equals(request.getRequestURI())) {
+            endpoint = "token";
+            userBudget = tokenUserBudget;
+            ipBudget = tokenIpBudget;
+        } else {
+            return true;
+        }
+
+        List<EntryRateLimiter.Bucket> buckets = new ArrayList<>(2);
+        String userId = currentUserId();
+        if (userId != null) {
+            buckets.add(new EntryRateLimiter.Bucket(endpoint + ":user:" + userId, userBudget));
+        }
+        buckets.add(new EntryRateLimiter.Bucket(endpoint + ":ip:" + clientIp(request), ipBudget));
+
+        EntryRateLimiter.Decision decision;
+        try {
+            decision = entryRateLimiter.tryAcquire(buckets);
+        } catch (Exception e) {
+            log.warn("요청 제한 확인 실패 - 제한 없이 통과: {}", e.getMessage());
+            return true;
+        }
+        if (decision.allowed()) {
+            return true;
+        }
+
+        queueMetrics.throttled(endpoint);
+        long retryAfterSeconds = Math.max(1, (decision.retryAfterMillis() + 999) / 1000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getWriter(), ApiResponse.error(
+                "요청이 너무 많습니다. " + retryAfterSeconds + "초 후 다시 시도해 주세요",
+                "TOO_MANY_REQUESTS"));
+        return false;
+    }
+
+    private static String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof BasicCognitoUser user) {
+            return user.getUserId();
+        }
+        return null;
+    }
+
+    /**
+     * Nginx 가 설정한 X-Real-IP 우선 (클라이언트가 보낸 X-Forwarded-For 는 위조 가능하므로 사용하지 않음)
+     */
+    private static String clientIp(HttpServletRequest request) {
+        String realIp = request.getHeader("X-Real-IP");
+        return realIp != null && !realIp.isBlank() ? realIp.trim() : request.getRemoteAddr();
+    }
+}
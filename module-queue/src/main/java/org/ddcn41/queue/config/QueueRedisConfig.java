@@ -1,9 +1,27 @@
 package org.ddcn41.queue.config;
 
+import org.ddcn41.queue.service.QueueCounterCache;
+import org.ddcn41.queue.service.RedisAdmissionBackend;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
 
 @Configuration
 @EnableRedisRepositories(basePackages = "org.ddcn41.queue.repository")
 public class QueueRedisConfig {
+
+    /**
+     * 입장/반납 카운터 알림 구독 (노드별 니어 캐시 갱신)
+     */
+    @Bean
+    public RedisMessageListenerContainer queueCounterListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       QueueCounterCache queueCounterCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(queueCounterCache, new ChannelTopic(RedisAdmissionBackend.COUNTERS_CHANNEL));
+        return container;
+    }
 }
@@ -2,7 +2,14 @@ package org.ddcn41.queue.config;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.ddcn41.queue.service.AdmissionDispatcher;
+import org.ddcn41.queue.service.DegradedAdmission;
+import org.ddcn41.queue.service.QueuePositionBroadcaster;
+import org.ddcn41.queue.service.QueueTokenPurger;
 import org.ddcn41.queue.service.QueueService;
+import org.ddcn41.queue.service.QueueTokenRecovery;
+import org.ddcn41.queue.service.RedisCircuitBreaker;
+import org.ddcn41.queue.service.WaitingRoom;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -12,6 +19,13 @@ import org.springframework.stereotype.Component;
 public class QueueScheduler {
 
     private final QueueService queueService;
+    private final AdmissionDispatcher admissionDispatcher;
+    private final QueuePositionBroadcaster queuePositionBroadcaster;
+    private final QueueTokenPurger queueTokenPurger;
+    private final WaitingRoom waitingRoom;
+    private final QueueTokenRecovery queueTokenRecovery;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    private final DegradedAdmission degradedAdmission;
 
     /**
      * 30초마다 대기열 처리
@@ -31,16 +45,97 @@ public class QueueScheduler {
     }*/
 
     /**
-     * 1시간마다 오래된 사용 완료 토큰 정리만 유지
+     * 주기적 입장 처리 (기본 1초)
+     * - 레인(공연 + 회차)별로 queue.admission.batch-size 명씩 대기열 선두를 입장시킴
+     * - Redis 장애 중에는 이 노드의 로컬 대기열을 노드 몫만큼 입장시킴
      */
-    @Scheduled(fixedRate = 3600000) // 1시간
-    public void cleanupOldTokens() {
+    @Scheduled(fixedRateString = "${queue.admission.interval-ms:1000}")
+    public void dispatchAdmissions() {
+        if (redisCircuitBreaker.isOpen()) {
+            try {
+                degradedAdmission.admit();
+            } catch (Exception e) {
+                log.error("축소 운영 입장 처리 중 오류 발생", e);
+            }
+            return;
+        }
+        if (queueTokenRecovery.isRebuilding()) {
+            // 활성 카운터를 복구하는 동안 입장시키면 정원을 넘길 수 있다
+            return;
+        }
+        try {
+            admissionDispatcher.dispatch();
+        } catch (Exception e) {
+            redisCircuitBreaker.recordFailure(e);
+            log.error("입장 처리 중 오류 발생", e);
+        }
+    }
+
+    /**
+     * Redis 복구 확인 (기본 1초) - 차단기가 닫혀 있고 축소 운영 중 받은 토큰이 남아 있으면 Redis 에 반영
+     * - Redis 가 비어 있으면 queue_tokens 기준 재구성을 먼저 해야 활성 카운터가 중복 복구되지 않는다
+     */
+    @Scheduled(fixedDelayString = "${queue.degraded.probe-interval-ms:1000}")
+    public void probeRedis() {
+        try {
+            redisCircuitBreaker.probe();
+            if (!redisCircuitBreaker.isOpen() && !degradedAdmission.isEmpty()) {
+                queueTokenRecovery.rebuildIfLost();
+                degradedAdmission.reconcile();
+            }
+        } catch (Exception e) {
+            redisCircuitBreaker.recordFailure(e);
+            log.error("축소 운영 상태 반영 중 오류 발생", e);
+        }
+    }
+
+    /**
+     * 예매 오픈 시각이 지난 대기실을 대기열로 배치 (기본 0.5초)
+     */
+    @Scheduled(fixedDelayString = "${queue.waiting-room.release-interval-ms:500}")
+    public void releaseWaitingRooms() {
+        try {
+            waitingRoom.releaseDue();
+        } catch (Exception e) {
+            log.error("대기실 배치 중 오류 발생", e);
+        }
+    }
+
+    /**
+     * 주기적 대기열 순번 브로드캐스트 (기본 1초, SSE 구독자 대상)
+     */
+    @Scheduled(fixedRateString = "${queue.push.interval-ms:1000}")
+    public void broadcastQueuePositions() {
         try {
-            log.info("오래된 토큰 정리 작업 시작");
-            queueService.cleanupOldTokens();
-            log.info("오래된 토큰 정리 작업 완료");
+            queuePositionBroadcaster.broadcast();
         } catch (Exception e) {
-            log.error("오래된 토큰 정리 중 오류 발생", e);
+            log.error("대기열 순번 브로드캐스트 중 오류 발생", e);
+        }
+    }
+
+    /**
+     * Redis 상태 유실 점검 (기본 10초) - 재시작/FLUSH 로 사라졌으면 queue_tokens 기준으로 재구성
+     */
+    @Scheduled(fixedDelayString = "${queue.rebuild.check-interval-ms:10000}")
+    public void checkRedisState() {
+        if (redisCircuitBreaker.isOpen()) {
+            return;
+        }
+        try {
+            queueTokenRecovery.rebuildIfLost();
+        } catch (Exception e) {
+            log.error("Redis 상태 점검 중 오류 발생", e);
+        }
+    }
+
+    /**
+     * 오래된 사용 완료 토큰 정리 (기본 1분)
+     * - 전용 스레드에서 한 번에 queue.purge.max-duration-ms 까지만 지우고, 남은 행은 다음 실행에서 이어서 정리
+     */
+    @Scheduled(fixedDelayString = "${queue.purge.interval-ms:60000}")
+    public void cleanupOldTokens() {
+        if (!queueTokenPurger.purgeInBackground()) {
+            log.debug("이전 토큰 정리 작업이 진행 중 - 이번 실행 건너뜀");
         }
     }
 }
\ No newline at end of file
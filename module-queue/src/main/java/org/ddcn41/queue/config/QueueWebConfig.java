@@ -0,0 +1,19 @@
+package org.ddcn41.queue.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class QueueWebConfig implements WebMvcConfigurer {
+
+    private final QueueEntryRateLimitInterceptor queueEntryRateLimitInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queueEntryRateLimitInterceptor)
+                .addPathPatterns(QueueEntryRateLimitInterceptor.CHECK_PATH, QueueEntryRateLimitInterceptor.TOKEN_PATH);
+    }
+}
@@ -33,6 +33,11 @@ public class SecurityConfig {
                                 "/swagger-resources/**",
                                 "/webjars/**"
                         ).permitAll()
+                        // 헬스체크/지표 수집
+                        .requestMatchers(
+                                "/actuator/health/**",
+                                "/actuator/prometheus"
+                        ).permitAll()
                         // 공개 엔드포인트
                         .requestMatchers(
                                 "/v1/queue/**",
@@ -3,7 +3,7 @@ package org.ddcn41.queue.config;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.ddcn41.queue.service.QueueService;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -27,10 +27,10 @@ public class SessionCleanupScheduler {
     }*/
 
     /**
-     * 1분마다 비활성 세션 정리
+     * 비활성 세션 정리 (기본 10초)
+     * - 마감이 지난 Heartbeat 만 조회하므로 짧은 주기로 돌려도 Redis 부하가 작다
      */
-//    @Scheduled(fixedRate = 60000) // 1분
-    @Value("${queue.max-inactive-seconds:120}")
+    @Scheduled(fixedRateString = "${queue.heartbeat.sweep-interval-ms:10000}")
     public void cleanupInactiveSessions() {
         try {
             log.debug("=== 비활성 세션 정리 시작 ===");
@@ -10,6 +10,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.ddcn41.queue.domain.CustomUserDetails;
@@ -20,18 +21,23 @@ import org.ddcn41.queue.dto.request.HeartbeatRequest;
 import org.ddcn41.queue.dto.request.TokenActivateRequest;
 import org.ddcn41.queue.dto.request.TokenIssueRequest;
 import org.ddcn41.queue.dto.request.TokenRequest;
+import org.ddcn41.queue.dto.response.HeartbeatResponse;
 import org.ddcn41.queue.dto.response.QueueCheckResponse;
+import org.ddcn41.queue.dto.response.QueueStatsResponse;
 import org.ddcn41.queue.dto.response.QueueStatusResponse;
 import org.ddcn41.queue.dto.response.TokenIssueResponse;
+import org.ddcn41.queue.service.QueuePositionBroadcaster;
 import org.ddcn41.queue.service.QueueService;
 import org.ddcn41.starter.authorization.model.BasicCognitoUser;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -45,6 +51,7 @@ import java.util.Map;
 public class QueueController {
 
     private final QueueService queueService;
+    private final QueuePositionBroadcaster queuePositionBroadcaster;
 
     // ... 기존 API 메서드들 (생략)
 
@@ -83,7 +90,8 @@ public class QueueController {
 
         TokenIssueResponse response = queueService.issueQueueToken(
                 userId,
-                request.getPerformanceId()
+                request.getPerformanceId(),
+                request.getScheduleId()
         );
 
         return ResponseEntity.ok(ApiResponse.success("대기열 토큰이 발급되었습니다", response));
@@ -128,28 +136,33 @@ public class QueueController {
 
     /**
      * Heartbeat 전송
+     * - 응답의 nextIntervalSeconds 간격으로 다음 Heartbeat 를 보내면 된다
      */
     @PostMapping("/heartbeat")
     @Operation(summary = "Heartbeat 전송")
     @SecurityRequirement(name = "bearerAuth")
-    public ResponseEntity<ApiResponse<String>> sendHeartbeat(
+    public ResponseEntity<ApiResponse<HeartbeatResponse>> sendHeartbeat(
             @RequestBody(required = false) HeartbeatRequest request,
             @AuthenticationPrincipal BasicCognitoUser currentUser
     ) {
         try {
             String userId = currentUser.getUserId();
 
+            Integer nextInterval = null;
             if (request != null) {
-                queueService.updateHeartbeat(
+                nextInterval = queueService.updateHeartbeat(
                         userId,
                         request.getPerformanceId(),
                         request.getScheduleId()
                 );
             }
 
-            return ResponseEntity.ok(ApiResponse.success("Heartbeat 수신됨"));
+            HeartbeatResponse response = HeartbeatResponse.builder()
+                    .nextIntervalSeconds(nextInterval)
+                    .build();
+            return ResponseEntity.ok(ApiResponse.success("Heartbeat 수신됨", response));
         } catch (Exception e) {
-            return ResponseEntity.ok(ApiResponse.success("Heartbeat 처리됨"));
+            return ResponseEntity.ok(ApiResponse.success("Heartbeat 처리됨", HeartbeatResponse.builder().build()));
         }
     }
 
@@ -249,6 +262,24 @@ public class QueueController {
         return ResponseEntity.ok(ApiResponse.success("토큰 상태 조회 성공", response));
     }
 
+    /**
+     * 대기열 순번 실시간 구독 (인증 불필요)
+     * - 첫 이벤트(status)로 현재 상태와 자기 시퀀스를 받고, 이후 position 이벤트의 headSequence 로 순번 계산
+     */
+    @GetMapping(value = "/stream/{token}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "대기열 순번 실시간 구독 (SSE)")
+    public SseEmitter streamQueuePosition(
+            @Parameter(description = "토큰 문자열", required = true)
+            @PathVariable String token,
+            HttpServletResponse response
+    ) {
+        // 프록시(Nginx) 버퍼링 비활성화
+        response.setHeader("X-Accel-Buffering", "no");
+
+        QueueStatusResponse status = queueService.getTokenStatus(token);
+        return queuePositionBroadcaster.subscribe(status);
+    }
+
     /**
      * Beacon 세션 해제 (인증 불필요)
      */
@@ -281,6 +312,41 @@ public class QueueController {
         }
     }
 
+    /**
+     * 공연별 대기열 통계 (관리자 전용)
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "공연별 대기열 통계")
+    @SecurityRequirement(name = "bearerAuth")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<QueueStatsResponse>>> getQueueStats() {
+        List<QueueStatsResponse> stats = queueService.getQueueStatsByPerformance();
+        return ResponseEntity.ok(ApiResponse.success("대기열 통계 조회 성공", stats));
+    }
+
+    /**
+     * 현재 입장 제어 백엔드 (관리자 전용)
+     */
+    @GetMapping("/admission-backend")
+    @Operation(summary = "입장 제어 백엔드 조회")
+    @SecurityRequirement(name = "bearerAuth")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<String>> getAdmissionBackend() {
+        return ResponseEntity.ok(ApiResponse.success("입장 제어 백엔드 조회 성공", queueService.getAdmissionBackend()));
+    }
+
+    /**
+     * 입장 제어 백엔드 전환 (관리자 전용, redis / postgres / memory)
+     */
+    @PutMapping("/admission-backend")
+    @Operation(summary = "입장 제어 백엔드 전환")
+    @SecurityRequirement(name = "bearerAuth")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<String>> switchAdmissionBackend(@RequestParam String name) {
+        queueService.switchAdmissionBackend(name);
+        return ResponseEntity.ok(ApiResponse.success("입장 제어 백엔드 전환 완료", queueService.getAdmissionBackend()));
+    }
+
     /**
      * 세션 초기화 (관리자 전용)
      */
@@ -13,4 +13,7 @@ import lombok.NoArgsConstructor;
 public class TokenIssueRequest {
     @NotNull(message = "공연 ID는 필수입니다")
     private Long performanceId;
+
+    // 회차 ID (없으면 공연 기본 레인)
+    private Long scheduleId;
 }
\ No newline at end of file
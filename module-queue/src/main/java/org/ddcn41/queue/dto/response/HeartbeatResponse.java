@@ -0,0 +1,20 @@
+package org.ddcn41.queue.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Heartbeat 응답 DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HeartbeatResponse {
+    /**
+     * 서버 권장 다음 Heartbeat 주기 (초) - 접속자가 많을수록 길어진다
+     */
+    private Integer nextIntervalSeconds;
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -46,6 +48,17 @@ public class QueueCheckResponse {
      */
     private Integer estimatedWaitTime;
 
+    /**
+     * 예상 대기 시간 신뢰 구간 (초)
+     */
+    private Integer estimatedWaitTimeLower;
+    private Integer estimatedWaitTimeUpper;
+
+    /**
+     * 최근 관측된 분당 입장 인원
+     */
+    private Double admissionsPerMinute;
+
     /**
      * 현재 대기열 대기자 수
      */
@@ -55,4 +68,20 @@ public class QueueCheckResponse {
      * 대기열 필요 사유
      */
     private String reason;
+
+    /**
+     * 서버 권장 Heartbeat 주기 (초)
+     */
+    private Integer heartbeatIntervalSeconds;
+
+    /**
+     * 서명 입장 티켓 (바로 진입 시 발급, 예매 요청에 그대로 전달)
+     */
+    private String admissionTicket;
+
+    /**
+     * 예매 오픈 시각 (오픈 전 대기실에 사전 등록된 경우)
+     * - 오픈 시 사전 등록자는 무작위 순서로 대기열에 배치되며, 오픈 후 다시 확인하면 대기 토큰이 조회된다
+     */
+    private LocalDateTime opensAt;
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package org.ddcn41.queue.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 대기열 순번 브로드캐스트 이벤트 (SSE)
+ * - 레인(공연 + 회차) 단위로 한 번 계산해 같은 레인 구독자에게 동일하게 전송
+ * - 클라이언트 순번 = queueSequence - headSequence + 1
+ * - headSequence 가 없거나 자기 시퀀스보다 크면 입장 처리된 것이므로 상태 조회 API 로 확인
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueuePositionEvent {
+    private Long performanceId;
+    private Long scheduleId;
+    private Long headSequence;
+    private Long waitingCount;
+    private Integer activeCount;
+}
@@ -17,7 +17,14 @@ public class QueueStatsResponse {
     private String performanceTitle;
     private Long waitingCount;
     private Long activeCount;
+    private Long admittedCount;
     private Long usedCount;
     private Long expiredCount;
+    private Long cancelledCount;
+    /**
+     * 활성 카운터와 ACTIVE 토큰 불일치 감지 횟수
+     */
+    private Long driftCount;
     private Integer averageWaitTimeMinutes;
+    private Double admissionsPerMinute;
 }
\ No newline at end of file
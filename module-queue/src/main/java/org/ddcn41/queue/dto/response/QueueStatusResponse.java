@@ -20,7 +20,15 @@ public class QueueStatusResponse {
     private QueueToken.TokenStatus status;
     private Integer positionInQueue;
     private Integer estimatedWaitTime;
+    private Integer estimatedWaitTimeLower; // 예상 대기시간 신뢰 구간 하한 (분)
+    private Integer estimatedWaitTimeUpper; // 예상 대기시간 신뢰 구간 상한 (분)
+    private Double admissionsPerMinute; // 최근 관측된 분당 입장 인원
     private boolean isActiveForBooking;
     private LocalDateTime bookingExpiresAt;
     private String performanceTitle; // 공연 제목 (사용자 토큰 목록에서 사용)
+    private Long performanceId;
+    private Long scheduleId; // 입장 레인 회차 (회차 없이 발급된 토큰은 null)
+    private Long queueSequence; // 대기열 시퀀스 (SSE 구독 시 headSequence 와 비교해 순번 계산)
+    private Integer heartbeatIntervalSeconds; // 서버 권장 Heartbeat 주기 (초)
+    private String admissionTicket; // 서명 입장 티켓 (ACTIVE 일 때만, 예매 요청에 그대로 전달)
 }
\ No newline at end of file
@@ -23,4 +23,8 @@ public class TokenIssueResponse {
     private String message;
     private LocalDateTime expiresAt;
     private LocalDateTime bookingExpiresAt;
+    /**
+     * 예매 오픈 시각 (오픈 전 사전 등록된 경우, 오픈 후 다시 요청하면 토큰이 발급되어 있음)
+     */
+    private LocalDateTime opensAt;
 }
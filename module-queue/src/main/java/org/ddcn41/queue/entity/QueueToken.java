@@ -25,6 +25,9 @@ public class QueueToken {
     @Column(nullable = false)
     private Long performanceId;
 
+    // 회차 ID - 입장 레인 (null 이면 공연 기본 레인)
+    private Long scheduleId;
+
     //  User Entity 제거 → ID만 저장
     @Column(nullable = false)
     private String userId;
@@ -41,10 +44,34 @@ public class QueueToken {
 
     private LocalDateTime bookingExpiresAt;
 
+    // 입장(ACTIVE 전환) 시각과 예매 사용 시각
+    private LocalDateTime activatedAt;
+
+    private LocalDateTime usedAt;
+
+    // 순번/예상 대기시간은 조회 시점에 Redis 대기열 기준으로 계산 (저장하지 않음)
+    @Transient
     private Integer positionInQueue;
 
+    @Transient
     private Integer estimatedWaitTimeMinutes;
 
+    // 처리량 기반 예상 대기시간 (초) 과 신뢰 구간
+    @Transient
+    private Integer estimatedWaitSeconds;
+
+    @Transient
+    private Integer estimatedWaitSecondsLower;
+
+    @Transient
+    private Integer estimatedWaitSecondsUpper;
+
+    @Transient
+    private Double admissionsPerMinute;
+
+    // Redis 대기열 시퀀스 (INCR 발급, 순번 계산의 기준)
+    private Long queueSequence;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -78,8 +105,10 @@ public class QueueToken {
      * 토큰 활성화 (예매 가능 상태로 전환)
      */
     public void activate() {
+        LocalDateTime now = LocalDateTime.now();
         this.status = TokenStatus.ACTIVE;
-        this.bookingExpiresAt = LocalDateTime.now().plusMinutes(10);
+        this.activatedAt = now;
+        this.bookingExpiresAt = now.plusMinutes(10);
         this.positionInQueue = 0;
         this.estimatedWaitTimeMinutes = 0;
     }
@@ -89,6 +118,7 @@ public class QueueToken {
      */
     public void markAsUsed() {
         this.status = TokenStatus.USED;
+        this.usedAt = LocalDateTime.now();
         this.bookingExpiresAt = null;
     }
 
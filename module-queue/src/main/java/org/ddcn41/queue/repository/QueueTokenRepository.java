@@ -2,10 +2,13 @@ package org.ddcn41.queue.repository;
 
 import org.ddcn41.queue.entity.QueueToken;
 import org.ddcn41.queue.entity.QueueToken.TokenStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -52,18 +55,6 @@ public interface QueueTokenRepository extends JpaRepository<QueueToken, Long> {
             @Param("performanceId") Long performanceId
     );
 
-    /**
-     * 공연의 대기열 순번 조회 (특정 토큰보다 앞에 있는 WAITING 토큰 수)
-     */
-    @Query("SELECT COUNT(qt) FROM QueueToken qt " +
-            "WHERE qt.performanceId = :performanceId " +
-            "AND qt.status = 'WAITING' " +
-            "AND qt.issuedAt < :issuedAt")
-    Long findPositionInQueue(
-            @Param("performanceId") Long performanceId,
-            @Param("issuedAt") LocalDateTime issuedAt
-    );
-
     /**
      * 공연의 특정 상태 토큰 수 조회
      */
@@ -94,12 +85,32 @@ public interface QueueTokenRepository extends JpaRepository<QueueToken, Long> {
     List<QueueToken> findExpiredTokens(@Param("now") LocalDateTime now);
 
     /**
-     * 오래된 사용 완료 토큰 조회 (정리용)
+     * 만료 전 WAITING/ACTIVE 토큰 중 afterId 다음 묶음 (Redis 상태 재구성용 키셋 커서)
+     * - OFFSET 없이 token_id 로 이어 읽으므로 뒤쪽 묶음도 비용이 같다
      */
     @Query("SELECT qt FROM QueueToken qt " +
-            "WHERE qt.status IN ('USED', 'EXPIRED', 'CANCELLED') " +
-            "AND qt.updatedAt < :cutoffTime")
-    List<QueueToken> findOldUsedTokens(@Param("cutoffTime") LocalDateTime cutoffTime);
+            "WHERE qt.status IN ('WAITING', 'ACTIVE') " +
+            "AND qt.expiresAt >= :now " +
+            "AND qt.tokenId > :afterId " +
+            "ORDER BY qt.tokenId ASC")
+    List<QueueToken> findLiveTokensAfter(@Param("now") LocalDateTime now,
+                                         @Param("afterId") Long afterId,
+                                         Pageable pageable);
+
+    /**
+     * 오래된 사용 완료 토큰 한 묶음 삭제 (정리용)
+     * - 엔티티를 읽지 않고 ctid 로 최대 chunkSize 행만 삭제, 호출마다 별도 트랜잭션
+     * - idx_queue_tokens_status_updated_at 으로 대상 행을 찾는다
+     * @return 삭제된 행 수 (chunkSize 미만이면 더 지울 행이 없음)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM queue_tokens WHERE ctid IN (" +
+            "SELECT ctid FROM queue_tokens " +
+            "WHERE status IN ('USED', 'EXPIRED', 'CANCELLED') " +
+            "AND updated_at < :cutoffTime " +
+            "LIMIT :chunkSize)", nativeQuery = true)
+    int deleteOldUsedTokens(@Param("cutoffTime") LocalDateTime cutoffTime, @Param("chunkSize") int chunkSize);
 
     /**
      * 공연별 토큰 상태 통계
@@ -0,0 +1,113 @@
+package org.ddcn41.queue.service;
+
+import java.util.List;
+
+/**
+ * 입장 제어 백엔드 (활성 카운터 + 대기열 선두 입장 + Heartbeat 기반 반납)
+ * - 카운터와 대기열은 레인(공연 + 회차, QueueLane) 단위, 공연 전체 카운터는 레인 카운터의 합으로 함께 유지
+ * - scheduleId 가 null 인 기본 레인은 공연 전체 카운터를 그대로 사용한다
+ * - redis: 운영 기본값, Lua 스크립트로 한 번에 원자 처리
+ * - postgres: 활성 카운터만 DB 에 두고 공연별 advisory lock 으로 보호
+ * - memory: 단일 노드/개발/벤치마크용, CAS 기반 락 없는 카운터
+ * postgres/memory 도 대기열(WaitingLine)과 Heartbeat(HeartbeatRegistry)는 Redis 에 두므로 Redis 장애 대체용이 아니다
+ * (Redis 장애 중 입장은 RedisCircuitBreaker + DegradedAdmission 이 처리)
+ * 사용할 백엔드는 queue.admission.backend 로 고르고, 실행 중 전환은 AdmissionControl 이 담당한다
+ */
+public interface AdmissionBackend {
+
+    enum Outcome {
+        ADMITTED,    // 입장 처리됨
+        FULL,        // 정원 초과
+        NOT_AT_HEAD, // 아직 차례가 아님
+        NOT_IN_LINE  // 대기열에 없음
+    }
+
+    /**
+     * @param value ADMITTED/FULL 이면 활성 수, NOT_AT_HEAD 이면 현재 순번
+     */
+    record AdmissionResult(Outcome outcome, long value) {
+        public boolean admitted() {
+            return outcome == Outcome.ADMITTED;
+        }
+    }
+
+    /**
+     * 정원
+     * @param lane 레인(회차)별 최대 활성 수 (queue.max-active-tokens)
+     * @param performance 공연 전체 최대 활성 수, 0 이면 제한 없음 (queue.max-active-tokens-per-performance)
+     */
+    record Capacity(int lane, int performance) {
+        public boolean performanceCapped() {
+            return performance > 0;
+        }
+    }
+
+    /**
+     * 일괄 입장 후보 (대기열 선두에서 조회한 토큰과 그 사용자)
+     * - 입장 처리 시 Heartbeat 멤버(userId:scheduleId)를 함께 등록해, 이후 반납/만료 시 카운터가 줄어들게 한다
+     */
+    record Candidate(String token, String userId) {
+    }
+
+    /**
+     * queue.admission.backend 값 (redis, postgres, memory)
+     */
+    String name();
+
+    /**
+     * 레인 대기열이 비어 있고 레인/공연 정원이 남아 있으면 바로 입장
+     */
+    AdmissionResult admitDirect(String userId, Long performanceId, Long scheduleId, Capacity capacity);
+
+    /**
+     * 레인 대기열 선두 토큰 입장 (선두가 아니면 거절)
+     */
+    AdmissionResult admitHead(String token, String userId, Long performanceId, Long scheduleId, Capacity capacity);
+
+    /**
+     * 남은 정원만큼 후보를 순서대로 대기열에서 꺼내 입장 처리하고 Heartbeat 를 등록
+     * - 이미 대기열에 없는 후보(다른 경로로 입장/취소됨)는 건너뛴다
+     * @return 입장 처리된 토큰 목록
+     */
+    List<String> admitBatch(Long performanceId, Long scheduleId, Capacity capacity, List<Candidate> candidates);
+
+    /**
+     * 토큰 기준 반납 (사용/취소/만료) - 세션의 Heartbeat 를 함께 제거하고, Heartbeat 가 없어도 카운터는 감소
+     * - Heartbeat 를 남겨 두면 만료 스윕이 같은 세션을 한 번 더 반납한다
+     * - 카운터는 0 미만으로 내려가지 않는다
+     * @return 감소 후 레인 활성 수
+     */
+    long release(String userId, Long performanceId, Long scheduleId);
+
+    /**
+     * Heartbeat 가 남아 있던 세션만 카운터 감소
+     * @return 감소 후 활성 수, heartbeat 가 없었으면 -1
+     */
+    long releaseWithHeartbeat(String userId, Long performanceId, Long scheduleId);
+
+    /**
+     * 마감이 now 이전인 Heartbeat 만 제거하고 카운터 감소 (스윕 도중 갱신된 세션은 유지)
+     * @return 감소 후 활성 수, 제거하지 않았으면 -1
+     */
+    long releaseExpiredHeartbeat(String userId, Long performanceId, Long scheduleId, long now);
+
+    /**
+     * 레인 활성 수 (scheduleId 가 null 이면 공연 전체 활성 수)
+     */
+    int activeCount(Long performanceId, Long scheduleId);
+
+    /**
+     * 레인 활성 카운터를 주어진 값으로 보정 (scheduleId 가 null 이면 공연 전체 카운터)
+     */
+    void syncActiveCount(Long performanceId, Long scheduleId, long count);
+
+    /**
+     * 공연 활성 카운터 존재 여부 (복구 대상 판별용)
+     */
+    boolean hasActiveCount(Long performanceId);
+
+    /**
+     * DB 기준으로 복구한 활성 인원을 레인과 공연 카운터에 더함 (복구 중 새로 입장한 인원은 유지)
+     */
+    long restoreActiveCount(Long performanceId, Long scheduleId, long count);
+}
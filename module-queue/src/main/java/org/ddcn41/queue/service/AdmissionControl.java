@@ -0,0 +1,142 @@
+package org.ddcn41.queue.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 레인(공연 + 회차)별 입장 제어 - 선택된 AdmissionBackend 로 위임
+ * - 기본 백엔드는 queue.admission.backend (redis, postgres, memory)
+ * - 재배포 없이 use() 로 전환할 수 있으며, 전환 시 최근 활성 공연과 대기 중인 레인의 카운터를 새 백엔드로 옮긴다
+ * - Redis 차단기가 열려 있으면 전환을 거절한다 (장애 중 입장은 DegradedAdmission 담당)
+ *   (이전 백엔드를 읽을 수 없으면 옮기지 않는다 - 이후 반납/만료 스윕은 Heartbeat 가 있는 세션만 카운터를 줄인다)
+ */
+@Slf4j
+@Component
+public class AdmissionControl {
+    private static final Duration LANE_HORIZON = Duration.ofHours(2);
+
+    private final Map<String, AdmissionBackend> backends;
+    private final HeartbeatRegistry heartbeatRegistry;
+    private final WaitingLine waitingLine;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    private volatile AdmissionBackend current;
+
+    public AdmissionControl(List<AdmissionBackend> backends,
+                            HeartbeatRegistry heartbeatRegistry,
+                            WaitingLine waitingLine,
+                            RedisCircuitBreaker redisCircuitBreaker,
+                            @Value("${queue.admission.backend:redis}") String backend) {
+        this.backends = backends.stream()
+                .collect(Collectors.toUnmodifiableMap(AdmissionBackend::name, Function.identity()));
+        this.heartbeatRegistry = heartbeatRegistry;
+        this.waitingLine = waitingLine;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.current = find(backend);
+        log.info("입장 제어 백엔드: {}", current.name());
+    }
+
+    /**
+     * 현재 백엔드 이름
+     */
+    public String backend() {
+        return current.name();
+    }
+
+    /**
+     * 사용할 수 있는 백엔드 이름
+     */
+    public Set<String> backends() {
+        return backends.keySet();
+    }
+
+    /**
+     * 백엔드 전환
+     * @throws IllegalArgumentException 없는 백엔드 이름
+     * @throws IllegalStateException Redis 장애 중 (축소 운영으로 처리)
+     */
+    public void use(String name) {
+        AdmissionBackend target = find(name);
+        AdmissionBackend previous = current;
+        if (target == previous) {
+            return;
+        }
+        if (redisCircuitBreaker.isOpen()) {
+            throw new IllegalStateException("Redis 장애 중에는 입장 백엔드를 전환할 수 없습니다 (축소 운영으로 처리 중)");
+        }
+
+        try {
+            Set<QueueLane> lanes = new HashSet<>(waitingLine.recentLanes(LANE_HORIZON));
+            heartbeatRegistry.performanceIds().forEach(performanceId -> lanes.add(QueueLane.of(performanceId, null)));
+            lanes.stream()
+                    .flatMap(lane -> Stream.of(lane, QueueLane.of(lane.performanceId(), null)))
+                    .distinct()
+                    .forEach(lane -> target.syncActiveCount(lane.performanceId(), lane.scheduleId(),
+                            previous.activeCount(lane.performanceId(), lane.scheduleId())));
+        } catch (Exception e) {
+            log.warn("입장 백엔드 전환 중 카운터 이전 실패 ({} → {}): {}", previous.name(), target.name(), e.getMessage());
+        }
+        current = target;
+        log.warn("입장 제어 백엔드 전환: {} → {}", previous.name(), target.name());
+    }
+
+    public AdmissionBackend.AdmissionResult admitDirect(String userId, Long performanceId, Long scheduleId,
+                                                        AdmissionBackend.Capacity capacity) {
+        return current.admitDirect(userId, performanceId, scheduleId, capacity);
+    }
+
+    public AdmissionBackend.AdmissionResult admitHead(String token, String userId, Long performanceId, Long scheduleId,
+                                                      AdmissionBackend.Capacity capacity) {
+        return current.admitHead(token, userId, performanceId, scheduleId, capacity);
+    }
+
+    public List<String> admitBatch(Long performanceId, Long scheduleId, AdmissionBackend.Capacity capacity,
+                                   List<AdmissionBackend.Candidate> candidates) {
+        return current.admitBatch(performanceId, scheduleId, capacity, candidates);
+    }
+
+    public long release(String userId, Long performanceId, Long scheduleId) {
+        return current.release(userId, performanceId, scheduleId);
+    }
+
+    public long releaseWithHeartbeat(String userId, Long performanceId, Long scheduleId) {
+        return current.releaseWithHeartbeat(userId, performanceId, scheduleId);
+    }
+
+    public long releaseExpiredHeartbeat(String userId, Long performanceId, Long scheduleId, long now) {
+        return current.releaseExpiredHeartbeat(userId, performanceId, scheduleId, now);
+    }
+
+    public int activeCount(Long performanceId, Long scheduleId) {
+        return current.activeCount(performanceId, scheduleId);
+    }
+
+    public void syncActiveCount(Long performanceId, Long scheduleId, long count) {
+        current.syncActiveCount(performanceId, scheduleId, count);
+    }
+
+    public boolean hasActiveCount(Long performanceId) {
+        return current.hasActiveCount(performanceId);
+    }
+
+    public long restoreActiveCount(Long performanceId, Long scheduleId, long count) {
+        return current.restoreActiveCount(performanceId, scheduleId, count);
+    }
+
+    private AdmissionBackend find(String name) {
+        AdmissionBackend backend = backends.get(name);
+        if (backend == null) {
+            throw new IllegalArgumentException("알 수 없는 입장 백엔드: " + name + " (사용 가능: " + backends.keySet() + ")");
+        }
+        return backend;
+    }
+}
@@ -0,0 +1,76 @@
+package org.ddcn41.queue.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * 주기 기반 입장 스케줄러 (leaky bucket)
+ * - 매 틱마다 레인(공연 + 회차)별로 최대 batchSize 명씩 대기열 선두를 입장시킨다
+ * - 동시 활성 수는 레인별 queue.max-active-tokens 와 공연별 queue.max-active-tokens-per-performance 로 상한이 걸린다
+ * - 매진된 회차의 레인은 QueueService 가 입장시키지 않는다
+ * - 여러 노드가 동시에 돌더라도 레인별 틱 키(SET NX)로 틱당 한 노드만 입장시켜 전체 처리량을 일정하게 유지한다
+ */
+@Slf4j
+@Component
+public class AdmissionDispatcher {
+    private static final String ADMISSION_TICK_KEY_PREFIX = "admission_tick:";
+    private static final Duration LANE_HORIZON = Duration.ofHours(2);
+
+    private final QueueService queueService;
+    private final WaitingLine waitingLine;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final int batchSize;
+    private final long intervalMillis;
+
+    public AdmissionDispatcher(QueueService queueService,
+                               WaitingLine waitingLine,
+                               @Qualifier("stringRedisTemplate") RedisTemplate<String, String> redisTemplate,
+                               @Value("${queue.admission.batch-size:10}") int batchSize,
+                               @Value("${queue.admission.interval-ms:1000}") long intervalMillis) {
+        this.queueService = queueService;
+        this.waitingLine = waitingLine;
+        this.redisTemplate = redisTemplate;
+        this.batchSize = batchSize;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * 대기열이 있는 모든 레인에 대해 한 틱 분량 입장 처리
+     */
+    public void dispatch() {
+        Set<QueueLane> lanes = waitingLine.recentLanes(LANE_HORIZON);
+
+        for (QueueLane lane : lanes) {
+            try {
+                dispatch(lane);
+            } catch (Exception e) {
+                log.error("레인 {} 입장 처리 중 오류", lane.member(), e);
+            }
+        }
+    }
+
+    private void dispatch(QueueLane lane) {
+        if (waitingLine.size(lane.performanceId(), lane.scheduleId()) == 0) {
+            return;
+        }
+
+        // 이번 틱을 이미 다른 노드가 처리했으면 건너뜀
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(
+                ADMISSION_TICK_KEY_PREFIX + lane.tag(), "1",
+                Duration.ofMillis(Math.max(1, intervalMillis - 50)));
+        if (!Boolean.TRUE.equals(acquired)) {
+            return;
+        }
+
+        int admitted = queueService.admitWaitingTokens(lane.performanceId(), lane.scheduleId(), batchSize);
+        if (admitted > 0) {
+            log.info("입장 스케줄러 - 레인 {}: {}명 입장", lane.member(), admitted);
+        }
+    }
+}
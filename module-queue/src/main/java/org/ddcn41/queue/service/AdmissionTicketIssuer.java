@@ -0,0 +1,63 @@
+package org.ddcn41.queue.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+/**
+ * 입장 티켓 발급 (HMAC-SHA256 서명)
+ * - 형식: base64url(userId|performanceId|scheduleId|만료 epoch 초|nonce) + "." + base64url(서명)
+ * - 입장은 회차 레인 단위이므로 티켓도 입장한 회차에 묶는다 (다른 회차 예매에 쓰면 그 레인의 정원/매진 확인을 우회)
+ * - 예매 서비스(module-core)가 같은 비밀키로 로컬 검증하므로 예매 시 대기열 서비스 호출이 필요 없다
+ * - nonce 는 대기열 토큰 문자열을 사용해 입장 1회당 티켓 1장만 사용되도록 한다
+ */
+@Component
+public class AdmissionTicketIssuer {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+
+    public AdmissionTicketIssuer(@Value("${queue.ticket.secret:}") String secret,
+                                 @Value("${queue.ticket.ttl-seconds:600}") long ttlSeconds) {
+        if (secret == null || secret.length() < 32) {
+            throw new IllegalStateException("queue.ticket.secret 은 32자 이상이어야 합니다");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    /**
+     * 입장 티켓 발급
+     * @param scheduleId 입장한 레인의 회차 (null 이면 공연 기본 레인 - 회차가 정해진 예매에는 쓸 수 없음)
+     * @param expiresAt 예매 가능 만료 시각 (null 이면 지금부터 ttl-seconds)
+     */
+    public String issue(String userId, Long performanceId, Long scheduleId, String nonce, LocalDateTime expiresAt) {
+        long expiresAtEpoch = expiresAt != null
+                ? expiresAt.atZone(ZoneId.systemDefault()).toEpochSecond()
+                : System.currentTimeMillis() / 1000 + ttlSeconds;
+
+        String payload = userId + "|" + performanceId + "|" + scheduleId + "|" + expiresAtEpoch + "|" + nonce;
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            // Mac 은 스레드 안전하지 않으므로 호출마다 생성 (키 스펙은 재사용)
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("입장 티켓 서명 실패", e);
+        }
+    }
+}
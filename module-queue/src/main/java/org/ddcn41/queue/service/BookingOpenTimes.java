@@ -0,0 +1,72 @@
+package org.ddcn41.queue.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 레인(공연 + 회차)별 예매 오픈 시각 (performance_schedules.booking_start_at)
+ * - 회차 레인은 그 회차의 오픈 시각, 회차 없는 공연 기본 레인은 공연 회차 중 가장 이른 오픈 시각
+ *   (회차마다 오픈 시각이 다르면 먼저 열린 회차가 늦게 여는 회차의 대기실을 없애지 않도록 회차 기준으로 판단)
+ * - 진입 요청마다 DB 를 조회하지 않도록 cache-seconds 동안 로컬에 보관
+ */
+@Component
+public class BookingOpenTimes {
+    private static final String SCHEDULE_OPEN_TIME_SQL = """
+            SELECT booking_start_at FROM performance_schedules
+            WHERE schedule_id = ? AND performance_id = ? AND status = 'OPEN'
+            """;
+    private static final String PERFORMANCE_OPEN_TIME_SQL = """
+            SELECT MIN(booking_start_at) FROM performance_schedules
+            WHERE performance_id = ? AND status = 'OPEN'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long cacheMillis;
+    private final Map<QueueLane, Cached> cache = new ConcurrentHashMap<>();
+
+    public BookingOpenTimes(JdbcTemplate jdbcTemplate,
+                            @Value("${queue.waiting-room.open-time-cache-seconds:30}") int cacheSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheMillis = cacheSeconds * 1000L;
+    }
+
+    /**
+     * 레인의 예매 오픈 시각 (오픈 시각이 없는 회차/공연이면 empty)
+     * @param scheduleId null 이면 공연 기본 레인
+     */
+    public Optional<LocalDateTime> opensAt(Long performanceId, Long scheduleId) {
+        QueueLane lane = QueueLane.of(performanceId, scheduleId);
+        Cached cached = cache.get(lane);
+        if (cached == null || !cached.isFresh(cacheMillis)) {
+            cached = load(lane);
+            cache.put(lane, cached);
+        }
+        return Optional.ofNullable(cached.opensAt());
+    }
+
+    private Cached load(QueueLane lane) {
+        Timestamp opensAt;
+        if (lane.scheduleId() == null) {
+            opensAt = jdbcTemplate.queryForObject(PERFORMANCE_OPEN_TIME_SQL, Timestamp.class, lane.performanceId());
+        } else {
+            List<Timestamp> rows = jdbcTemplate.queryForList(SCHEDULE_OPEN_TIME_SQL, Timestamp.class,
+                    lane.scheduleId(), lane.performanceId());
+            opensAt = rows.isEmpty() ? null : rows.get(0);
+        }
+        return new Cached(opensAt != null ? opensAt.toLocalDateTime() : null, System.currentTimeMillis());
+    }
+
+    private record Cached(LocalDateTime opensAt, long loadedAt) {
+        boolean isFresh(long cacheMillis) {
+            return System.currentTimeMillis() - loadedAt < cacheMillis;
+        }
+    }
+}
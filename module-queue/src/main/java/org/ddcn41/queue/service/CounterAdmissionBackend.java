@@ -0,0 +1,120 @@
+package org.ddcn41.queue.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 활성 카운터만 직접 관리하는 입장 백엔드의 공통 흐름 (postgres, memory)
+ * - 대기열(WaitingLine)과 Heartbeat 인덱스(HeartbeatRegistry)는 redis 백엔드와 같은 키를 그대로 사용
+ *   → 카운터 저장소만 다르고 Redis 는 그대로 필요하다
+ * - 카운터는 레인(scheduleId)별 값과 공연 전체 값(scheduleId = null)을 함께 유지하고, 기본 레인은 공연 전체 값을 그대로 쓴다
+ * - 스크립트 하나로 묶을 수 없으므로 "자리 예약 → 대기열에서 꺼내기" 순서로 처리하고,
+ *   꺼내기에 실패하면(다른 노드가 먼저 꺼냄) 예약한 자리를 돌려준다 → 정원 초과 없이 잠깐 덜 입장할 수는 있다
+ * - 입장 처리된 세션은 모두(직접/선두/일괄) Heartbeat 를 등록한다
+ * - 세션 해제/만료 스윕은 Heartbeat 제거(ZREM)에 성공한 쪽만 카운터를 줄이고, 토큰 기준 반납은 Heartbeat 를 지우고 항상 줄인다
+ */
+abstract class CounterAdmissionBackend implements AdmissionBackend {
+
+    protected final WaitingLine waitingLine;
+    protected final HeartbeatRegistry heartbeatRegistry;
+
+    protected CounterAdmissionBackend(WaitingLine waitingLine, HeartbeatRegistry heartbeatRegistry) {
+        this.waitingLine = waitingLine;
+        this.heartbeatRegistry = heartbeatRegistry;
+    }
+
+    /**
+     * 레인/공연 정원 안에서 최대 count 자리 예약 (레인과 공연 카운터 모두 증가)
+     * @param wait false 면 다른 노드가 같은 공연을 처리 중일 때 기다리지 않고 0 을 반환
+     * @return 예약한 자리 수 (0..count)
+     */
+    protected abstract int reserve(Long performanceId, Long scheduleId, Capacity capacity, int count, boolean wait);
+
+    /**
+     * 예약/활성 자리 반납 (레인과 공연 카운터 모두 감소)
+     * @return 반납 후 레인 활성 수
+     */
+    protected abstract long unreserve(Long performanceId, Long scheduleId, int count);
+
+    @Override
+    public AdmissionResult admitDirect(String userId, Long performanceId, Long scheduleId, Capacity capacity) {
+        long waiting = waitingLine.size(performanceId, scheduleId);
+        if (waiting > 0) {
+            return new AdmissionResult(Outcome.NOT_AT_HEAD, waiting + 1);
+        }
+        if (reserve(performanceId, scheduleId, capacity, 1, true) == 0) {
+            return new AdmissionResult(Outcome.FULL, activeCount(performanceId, scheduleId));
+        }
+        heartbeatRegistry.register(userId, performanceId, scheduleId);
+        return new AdmissionResult(Outcome.ADMITTED, activeCount(performanceId, scheduleId));
+    }
+
+    @Override
+    public AdmissionResult admitHead(String token, String userId, Long performanceId, Long scheduleId, Capacity capacity) {
+        Long rank = waitingLine.rank(performanceId, scheduleId, token);
+        if (rank == null) {
+            return new AdmissionResult(Outcome.NOT_IN_LINE, 0);
+        }
+        if (rank > 0) {
+            return new AdmissionResult(Outcome.NOT_AT_HEAD, rank + 1);
+        }
+        if (reserve(performanceId, scheduleId, capacity, 1, true) == 0) {
+            return new AdmissionResult(Outcome.FULL, activeCount(performanceId, scheduleId));
+        }
+        if (!waitingLine.claim(performanceId, scheduleId, token)) {
+            unreserve(performanceId, scheduleId, 1);
+            return new AdmissionResult(Outcome.NOT_IN_LINE, 0);
+        }
+        heartbeatRegistry.register(userId, performanceId, scheduleId);
+        return new AdmissionResult(Outcome.ADMITTED, activeCount(performanceId, scheduleId));
+    }
+
+    @Override
+    public List<String> admitBatch(Long performanceId, Long scheduleId, Capacity capacity, List<Candidate> candidates) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        int reserved = reserve(performanceId, scheduleId, capacity, candidates.size(), false);
+        if (reserved == 0) {
+            return List.of();
+        }
+        List<String> admitted = new ArrayList<>();
+        List<String> userIds = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (admitted.size() == reserved) {
+                break;
+            }
+            if (waitingLine.claim(performanceId, scheduleId, candidate.token())) {
+                admitted.add(candidate.token());
+                userIds.add(candidate.userId());
+            }
+        }
+        if (admitted.size() < reserved) {
+            unreserve(performanceId, scheduleId, reserved - admitted.size());
+        }
+        heartbeatRegistry.registerAll(performanceId, scheduleId, userIds);
+        return admitted;
+    }
+
+    @Override
+    public long release(String userId, Long performanceId, Long scheduleId) {
+        heartbeatRegistry.remove(userId, performanceId, scheduleId, null);
+        return unreserve(performanceId, scheduleId, 1);
+    }
+
+    @Override
+    public long releaseWithHeartbeat(String userId, Long performanceId, Long scheduleId) {
+        if (!heartbeatRegistry.remove(userId, performanceId, scheduleId, null)) {
+            return -1L;
+        }
+        return unreserve(performanceId, scheduleId, 1);
+    }
+
+    @Override
+    public long releaseExpiredHeartbeat(String userId, Long performanceId, Long scheduleId, long now) {
+        if (!heartbeatRegistry.remove(userId, performanceId, scheduleId, now)) {
+            return -1L;
+        }
+        return unreserve(performanceId, scheduleId, 1);
+    }
+}
@@ -0,0 +1,395 @@
+package org.ddcn41.queue.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.ddcn41.queue.entity.QueueToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Redis 장애 중 노드 로컬 입장 (축소 운영)
+ * - 레인별 정원은 queue.max-active-tokens / queue.degraded.node-count, 틱당 입장은 batch-size / node-count 로
+ *   노드마다 자기 몫만큼만 입장시키므로 노드 수가 맞으면 전체 정원을 넘지 않는다
+ * - 대기열/활성 인원/토큰은 이 노드 메모리에만 있고, 활성 세션은 Heartbeat 없이 예매 가능 시각(10분)까지 유지된다
+ * - Redis 가 복구되면 reconcile() 이 토큰을 저장하고 대기자는 Redis 대기열 뒤에, 활성 인원은 활성 카운터에 더한다
+ * - 레인 락(ReentrantLock)은 메모리 상태 변경에만 잡고, 매진 조회와 Redis/DB 반영은 락 밖에서 한다
+ */
+@Slf4j
+@Component
+public class DegradedAdmission {
+
+    private final QueueTokenStore queueTokenStore;
+    private final WaitingLine waitingLine;
+    private final AdmissionControl admissionControl;
+    private final HeartbeatRegistry heartbeatRegistry;
+    private final ScheduleAvailability scheduleAvailability;
+    private final QueueMetrics queueMetrics;
+    private final int laneCapacity;
+    private final int admissionsPerTick;
+    private final long intervalMillis;
+
+    private final Map<QueueLane, Lane> lanes = new ConcurrentHashMap<>();
+    private final Map<String, QueueToken> tokens = new ConcurrentHashMap<>();
+    private final Map<String, String> liveTokens = new ConcurrentHashMap<>();
+    private final Map<String, Lane> tokenLanes = new ConcurrentHashMap<>();
+    // Redis 반영에 실패해 다시 시도할 (이미 분리된) 레인
+    private final Queue<Detached> unreconciled = new ConcurrentLinkedQueue<>();
+
+    public DegradedAdmission(QueueTokenStore queueTokenStore,
+                             WaitingLine waitingLine,
+                             AdmissionControl admissionControl,
+                             HeartbeatRegistry heartbeatRegistry,
+                             ScheduleAvailability scheduleAvailability,
+                             QueueMetrics queueMetrics,
+                             @Value("${queue.max-active-tokens:3}") int maxActiveTokens,
+                             @Value("${queue.admission.batch-size:10}") int batchSize,
+                             @Value("${queue.admission.interval-ms:1000}") long intervalMillis,
+                             @Value("${queue.degraded.node-count:1}") int nodeCount) {
+        this.queueTokenStore = queueTokenStore;
+        this.waitingLine = waitingLine;
+        this.admissionControl = admissionControl;
+        this.heartbeatRegistry = heartbeatRegistry;
+        this.scheduleAvailability = scheduleAvailability;
+        this.queueMetrics = queueMetrics;
+        this.laneCapacity = Math.max(1, maxActiveTokens / Math.max(1, nodeCount));
+        this.admissionsPerTick = Math.max(1, batchSize / Math.max(1, nodeCount));
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * 레인별 로컬 대기열과 활성 인원
+     */
+    private static final class Lane {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<QueueToken> line = new ArrayDeque<>();
+        private final List<QueueToken> sessions = new ArrayList<>();
+        private final List<QueueToken> issued = new ArrayList<>();
+        // Redis 반영을 위해 분리된 뒤 종료된 토큰 (반영 후 Redis 에서도 정리)
+        private final List<Completion> completions = new ArrayList<>();
+        private long nextSequence = 1;
+        private boolean reconciled;
+        private boolean waitingEnqueued;
+        private boolean sessionsRestored;
+    }
+
+    private record Completion(QueueToken token, QueueToken.TokenStatus previous) {
+    }
+
+    /**
+     * Redis 반영 대상으로 분리한 레인과 분리 시점의 대기자/활성 세션/발급 토큰
+     */
+    private record Detached(QueueLane key, Lane lane, List<QueueToken> waiting, List<QueueToken> sessions,
+                            List<QueueToken> issued) {
+    }
+
+    /**
+     * 이 노드 레인 정원
+     */
+    public int laneCapacity() {
+        return laneCapacity;
+    }
+
+    public boolean isEmpty() {
+        return tokens.isEmpty();
+    }
+
+    public Optional<QueueToken> find(String token) {
+        return Optional.ofNullable(tokens.get(token));
+    }
+
+    /**
+     * 사용자의 로컬 진행 중(WAITING/ACTIVE) 토큰
+     */
+    public Optional<QueueToken> findLive(String userId, Long performanceId) {
+        String token = liveTokens.get(userKey(userId, performanceId));
+        return token != null ? find(token) : Optional.empty();
+    }
+
+    /**
+     * 로컬 대기열 진입 - 대기자가 없고 정원이 남아 있으면 바로 ACTIVE, 아니면 로컬 대기열 뒤에 WAITING
+     */
+    public QueueToken enter(String tokenString, String userId, Long performanceId, Long scheduleId) {
+        while (true) {
+            Lane lane = lanes.computeIfAbsent(QueueLane.of(performanceId, scheduleId), key -> new Lane());
+            lane.lock.lock();
+            try {
+                if (lane.reconciled) {
+                    // Redis 반영으로 분리된 레인 - 새 레인으로 다시 시도
+                    continue;
+                }
+                Optional<QueueToken> existing = findLive(userId, performanceId);
+                if (existing.isPresent()) {
+                    return existing.get();
+                }
+
+                LocalDateTime now = LocalDateTime.now();
+                QueueToken token = QueueToken.builder()
+                        .token(tokenString)
+                        .userId(userId)
+                        .performanceId(performanceId)
+                        .scheduleId(scheduleId)
+                        .status(QueueToken.TokenStatus.WAITING)
+                        .issuedAt(now)
+                        .expiresAt(now.plusHours(2))
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build();
+
+                if (lane.line.isEmpty() && lane.sessions.size() < laneCapacity) {
+                    token.activate();
+                    lane.sessions.add(token);
+                    queueMetrics.admitted(performanceId, "degraded", 1);
+                } else {
+                    token.setQueueSequence(lane.nextSequence++);
+                    lane.line.addLast(token);
+                }
+                lane.issued.add(token);
+                tokens.put(tokenString, token);
+                tokenLanes.put(tokenString, lane);
+                liveTokens.put(userKey(userId, performanceId), tokenString);
+                log.info("축소 운영 진입 - {} 토큰 생성: {}", token.getStatus(), tokenString);
+                return token;
+            } finally {
+                lane.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 로컬 대기 순번 (1부터, 대기 중이 아니면 0)
+     */
+    public int position(QueueToken token) {
+        Lane lane = tokenLanes.get(token.getToken());
+        if (lane == null || token.getStatus() != QueueToken.TokenStatus.WAITING) {
+            return 0;
+        }
+        lane.lock.lock();
+        try {
+            QueueToken head = lane.line.peekFirst();
+            return head != null ? (int) (token.getQueueSequence() - head.getQueueSequence() + 1) : 0;
+        } finally {
+            lane.lock.unlock();
+        }
+    }
+
+    /**
+     * 예상 대기시간 (초) - 틱당 입장 인원 기준
+     */
+    public int estimatedWaitSeconds(int position) {
+        long ticks = (position + admissionsPerTick - 1L) / admissionsPerTick;
+        return (int) Math.max(1, ticks * intervalMillis / 1000);
+    }
+
+    /**
+     * 한 틱 분량 로컬 입장 - 예매 가능 시각이 지난 세션을 먼저 정리하고, 레인별 남은 정원과 틱당 몫만큼 선두를 입장
+     * - 매진 여부(DB 조회 가능)는 레인 락을 잡기 전에 확인
+     * @return 입장시킨 인원
+     */
+    public int admit() {
+        int admitted = 0;
+        for (Map.Entry<QueueLane, Lane> entry : lanes.entrySet()) {
+            QueueLane key = entry.getKey();
+            Lane lane = entry.getValue();
+            boolean soldOut = scheduleAvailability.isSoldOut(key.scheduleId());
+
+            lane.lock.lock();
+            try {
+                expireSessions(lane);
+                if (lane.reconciled || lane.line.isEmpty() || soldOut) {
+                    continue;
+                }
+                int count = 0;
+                LocalDateTime now = LocalDateTime.now();
+                while (count < admissionsPerTick && lane.sessions.size() < laneCapacity && !lane.line.isEmpty()) {
+                    QueueToken token = lane.line.pollFirst();
+                    if (token.isExpired()) {
+                        finish(token, QueueToken.TokenStatus.EXPIRED);
+                        continue;
+                    }
+                    token.activate();
+                    lane.sessions.add(token);
+                    count++;
+                    queueMetrics.timeInQueue(key.performanceId(), Duration.between(token.getIssuedAt(), now));
+                }
+                if (count > 0) {
+                    queueMetrics.admitted(key.performanceId(), "degraded", count);
+                    admitted += count;
+                }
+            } finally {
+                lane.lock.unlock();
+            }
+        }
+        return admitted;
+    }
+
+    /**
+     * 로컬 토큰 종료 (사용 완료/취소/만료) - ACTIVE 였으면 레인 자리를 반납
+     * - Redis 반영 중인 레인이면 기록해 두었다가 반영이 끝난 뒤 Redis 쪽에서도 정리
+     */
+    public void complete(QueueToken token, QueueToken.TokenStatus status) {
+        Lane lane = tokenLanes.get(token.getToken());
+        if (lane == null) {
+            return;
+        }
+        lane.lock.lock();
+        try {
+            QueueToken.TokenStatus previous = token.getStatus();
+            if (previous != QueueToken.TokenStatus.ACTIVE && previous != QueueToken.TokenStatus.WAITING) {
+                return;
+            }
+            if (lane.reconciled) {
+                lane.completions.add(new Completion(token, previous));
+            } else if (previous == QueueToken.TokenStatus.ACTIVE) {
+                lane.sessions.remove(token);
+            } else {
+                lane.line.remove(token);
+            }
+            finish(token, status);
+        } finally {
+            lane.lock.unlock();
+        }
+    }
+
+    /**
+     * Redis 복구 후 로컬 상태 반영 (레인 단위)
+     * - 레인 락 안에서는 레인을 분리(이후 진입은 새 레인으로)하고 스냅샷만 뜬 뒤, 락 밖에서 Redis/DB 에 반영
+     * - 토큰: Redis 해시 + DB write-behind 로 저장
+     * - 대기자: 로컬 순서대로 Redis 대기열 뒤에 추가
+     * - 활성 인원: 레인 카운터에 더하고 Heartbeat 를 새로 잡는다
+     * - 반영에 실패한 레인은 다음 호출에서 이어서 반영 (끝난 단계는 건너뜀)
+     */
+    public void reconcile() {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        List<Detached> pending = new ArrayList<>();
+        for (Detached detached = unreconciled.poll(); detached != null; detached = unreconciled.poll()) {
+            pending.add(detached);
+        }
+        for (Map.Entry<QueueLane, Lane> entry : lanes.entrySet()) {
+            Detached detached = detach(entry.getKey(), entry.getValue());
+            if (detached != null) {
+                pending.add(detached);
+            }
+        }
+
+        int reconciled = 0;
+        for (int i = 0; i < pending.size(); i++) {
+            Detached detached = pending.get(i);
+            try {
+                reconcile(detached);
+                reconciled += detached.issued().size();
+            } catch (RuntimeException e) {
+                unreconciled.addAll(pending.subList(i, pending.size()));
+                throw e;
+            }
+        }
+        log.warn("축소 운영 상태 Redis 반영 완료 - 토큰 {}건", reconciled);
+    }
+
+    private Detached detach(QueueLane key, Lane lane) {
+        lane.lock.lock();
+        try {
+            if (lane.reconciled) {
+                return null;
+            }
+            lane.reconciled = true;
+            lanes.remove(key, lane);
+            return new Detached(key, lane, new ArrayList<>(lane.line), new ArrayList<>(lane.sessions),
+                    new ArrayList<>(lane.issued));
+        } finally {
+            lane.lock.unlock();
+        }
+    }
+
+    private void reconcile(Detached detached) {
+        QueueLane key = detached.key();
+        Lane lane = detached.lane();
+        List<QueueToken> waiting = detached.waiting();
+        List<QueueToken> sessions = detached.sessions();
+
+        if (!lane.waitingEnqueued && !waiting.isEmpty()) {
+            long first = waitingLine.enqueueAll(key.performanceId(), key.scheduleId(),
+                    waiting.stream().map(QueueToken::getToken).toList());
+            for (int i = 0; i < waiting.size(); i++) {
+                waiting.get(i).setQueueSequence(first + i);
+            }
+        }
+        lane.waitingEnqueued = true;
+        queueTokenStore.saveAll(detached.issued());
+        if (!lane.sessionsRestored && !sessions.isEmpty()) {
+            admissionControl.restoreActiveCount(key.performanceId(), key.scheduleId(), sessions.size());
+        }
+        lane.sessionsRestored = true;
+        sessions.forEach(token -> heartbeatRegistry.register(token.getUserId(), key.performanceId(), key.scheduleId()));
+
+        List<Completion> completions;
+        lane.lock.lock();
+        try {
+            completions = new ArrayList<>(lane.completions);
+            lane.completions.clear();
+            detached.issued().forEach(token -> {
+                tokens.remove(token.getToken());
+                tokenLanes.remove(token.getToken(), lane);
+                liveTokens.remove(userKey(token.getUserId(), token.getPerformanceId()), token.getToken());
+            });
+        } finally {
+            lane.lock.unlock();
+        }
+        releaseCompleted(key, completions);
+
+        log.info("축소 운영 레인 Redis 반영: {} - 대기 {}명, 활성 {}명, 토큰 {}건",
+                key.member(), waiting.size(), sessions.size(), detached.issued().size());
+    }
+
+    /**
+     * 반영 도중 로컬에서 종료된 토큰을 Redis 에도 반영 (대기열 제거 / 자리 반납)
+     */
+    private void releaseCompleted(QueueLane key, List<Completion> completions) {
+        if (completions.isEmpty()) {
+            return;
+        }
+        for (Completion completion : completions) {
+            QueueToken token = completion.token();
+            if (completion.previous() == QueueToken.TokenStatus.WAITING) {
+                waitingLine.remove(key.performanceId(), key.scheduleId(), token.getToken());
+            } else {
+                admissionControl.releaseWithHeartbeat(token.getUserId(), key.performanceId(), key.scheduleId());
+            }
+        }
+        queueTokenStore.saveAll(completions.stream().map(Completion::token).toList());
+    }
+
+    private void expireSessions(Lane lane) {
+        lane.sessions.removeIf(token -> {
+            if (token.isActiveForBooking()) {
+                return false;
+            }
+            finish(token, QueueToken.TokenStatus.EXPIRED);
+            queueMetrics.expired(token.getPerformanceId(), "ttl", 1);
+            return true;
+        });
+    }
+
+    private void finish(QueueToken token, QueueToken.TokenStatus status) {
+        token.setStatus(status);
+        token.setBookingExpiresAt(null);
+        token.setUpdatedAt(LocalDateTime.now());
+        liveTokens.remove(userKey(token.getUserId(), token.getPerformanceId()), token.getToken());
+    }
+
+    private static String userKey(String userId, Long performanceId) {
+        return userId + ":" + performanceId;
+    }
+}
@@ -0,0 +1,137 @@
+package org.ddcn41.queue.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 분산 토큰 버킷 (Redis 스크립트)
+ * - 버킷은 HASH(tokens, ts) 로 저장하고, 요청 시점에 경과 시간만큼 채운 뒤 1개 소비
+ * - 여러 버킷(사용자/IP)을 한 번에 검사해 모두 여유가 있을 때만 소비 (한쪽만 깎이지 않음)
+ * - 거절된 버킷은 재시도 가능 시각까지 로컬에 기억해 두고 그동안은 Redis 를 호출하지 않는다
+ */
+@Component
+public class EntryRateLimiter {
+    private static final String RATE_LIMIT_KEY_PREFIX = "rate_limit:";
+    private static final int LOCAL_BLOCK_CACHE_LIMIT = 10_000;
+
+    /**
+     * KEYS: 버킷 키들, ARGV: 버킷별 (용량, 초당 충전량) 쌍
+     * 반환: {허용 여부(1/0), 재시도까지 남은 ms, 막힌 버킷 인덱스(1부터, 허용 시 0)}
+     * 시각은 노드 간 시계 차이를 피하기 위해 Redis TIME 을 사용
+     */
+    private static final RedisScript<List> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local levels = {}
+            local retry = 0
+            local blocked = 0
+            for i = 1, #KEYS do
+                local capacity = tonumber(ARGV[i * 2 - 1])
+                local perMillis = tonumber(ARGV[i * 2]) / 1000
+                local bucket = redis.call('HMGET', KEYS[i], 'tokens', 'ts')
+                local tokens = tonumber(bucket[1]) or capacity
+                local ts = tonumber(bucket[2]) or now
+                tokens = math.min(capacity, tokens + math.max(0, now - ts) * perMillis)
+                levels[i] = tokens
+                if tokens < 1 then
+                    local wait = math.ceil((1 - tokens) / perMillis)
+                    if wait > retry then
+                        retry = wait
+                        blocked = i
+                    end
+                end
+            end
+            local allowed = blocked == 0
+            for i = 1, #KEYS do
+                local capacity = tonumber(ARGV[i * 2 - 1])
+                local perMillis = tonumber(ARGV[i * 2]) / 1000
+                local tokens = levels[i]
+                if allowed then
+                    tokens = tokens - 1
+                end
+                redis.call('HSET', KEYS[i], 'tokens', tostring(tokens), 'ts', now)
+                redis.call('PEXPIRE', KEYS[i], math.ceil(capacity / perMillis))
+            end
+            return {allowed and 1 or 0, retry, blocked}
+            """, List.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Map<String, Long> blockedUntil = new ConcurrentHashMap<>();
+
+    public EntryRateLimiter(@Qualifier("stringRedisTemplate") RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 버킷 용량과 초당 충전량
+     */
+    public record Budget(int capacity, double refillPerSecond) {
+    }
+
+    /**
+     * 검사할 버킷 (예: check:user:{userId}, check:ip:{ip})
+     */
+    public record Bucket(String key, Budget budget) {
+    }
+
+    /**
+     * @param retryAfterMillis 거절 시 다음 요청이 허용될 때까지 남은 시간
+     */
+    public record Decision(boolean allowed, long retryAfterMillis) {
+        static final Decision ALLOWED = new Decision(true, 0);
+    }
+
+    public Decision tryAcquire(List<Bucket> buckets) {
+        if (buckets.isEmpty()) {
+            return Decision.ALLOWED;
+        }
+
+        long now = System.currentTimeMillis();
+        for (Bucket bucket : buckets) {
+            Long until = blockedUntil.get(bucket.key());
+            if (until != null) {
+                if (until > now) {
+                    return new Decision(false, until - now);
+                }
+                blockedUntil.remove(bucket.key(), until);
+            }
+        }
+
+        List<String> keys = new ArrayList<>(buckets.size());
+        List<String> args = new ArrayList<>(buckets.size() * 2);
+        for (Bucket bucket : buckets) {
+            keys.add(RATE_LIMIT_KEY_PREFIX + bucket.key());
+            args.add(String.valueOf(bucket.budget().capacity()));
+            args.add(String.valueOf(bucket.budget().refillPerSecond()));
+        }
+
+        List<?> result = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, keys, args.toArray());
+        if (((Number) result.get(0)).longValue() == 1) {
+            return Decision.ALLOWED;
+        }
+
+        long retryAfterMillis = ((Number) result.get(1)).longValue();
+        int blocked = ((Number) result.get(2)).intValue();
+        rememberBlocked(buckets.get(blocked - 1).key(), now + retryAfterMillis);
+        return new Decision(false, retryAfterMillis);
+    }
+
+    private void rememberBlocked(String key, long until) {
+        if (blockedUntil.size() >= LOCAL_BLOCK_CACHE_LIMIT) {
+            long now = System.currentTimeMillis();
+            blockedUntil.values().removeIf(value -> value <= now);
+            if (blockedUntil.size() >= LOCAL_BLOCK_CACHE_LIMIT) {
+                return;
+            }
+        }
+        blockedUntil.put(key, until);
+    }
+}
@@ -0,0 +1,266 @@
+package org.ddcn41.queue.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 공연별 Heartbeat 마감 인덱스 (ZSET)
+ * - key: heartbeats:{performanceId}, member: userId:scheduleId, score: 마감 시각(epoch ms)
+ * - 회차(레인)는 멤버에 담겨 있으므로 만료/반납 시 멤버의 scheduleId 로 해당 레인 카운터를 줄인다
+ * - 만료 처리는 ZRANGEBYSCORE 로 마감이 지난 멤버만 조회 (KEYS 스캔/문자열 파싱 없음)
+ */
+@Component
+public class HeartbeatRegistry {
+    private static final String HEARTBEATS_KEY_PREFIX = "heartbeats:";
+    private static final String HEARTBEAT_PERFORMANCES_KEY = "heartbeat_performances";
+
+    /**
+     * KEYS[1]: heartbeats, ARGV[1]: 멤버, ARGV[2]: 마감 기준 시각(epoch ms, 선택)
+     * 기준 시각이 주어지면 마감이 그 이전인 경우에만 제거
+     * 반환: 제거했으면 1, 아니면 0
+     */
+    private static final RedisScript<Long> REMOVE_SCRIPT = new DefaultRedisScript<>("""
+            local deadline = redis.call('ZSCORE', KEYS[1], ARGV[1])
+            if not deadline then
+                return 0
+            end
+            if ARGV[2] and tonumber(deadline) > tonumber(ARGV[2]) then
+                return 0
+            end
+            return redis.call('ZREM', KEYS[1], ARGV[1])
+            """, Long.class);
+
+    /**
+     * KEYS[1]: heartbeats, ARGV[1]: 멤버, ARGV[2]: 복구 멤버(userId:null, 없으면 ''), ARGV[3]: 새 마감 시각(epoch ms)
+     * 이미 있는 멤버만 마감을 갱신 (ZADD XX), 복구 멤버만 있으면 실제 멤버로 교체
+     * 반환: 갱신했으면 1, 입장 처리된 세션이 아니면 0
+     */
+    private static final String TOUCH_SCRIPT = """
+            if redis.call('ZSCORE', KEYS[1], ARGV[1]) then
+                redis.call('ZADD', KEYS[1], 'XX', ARGV[3], ARGV[1])
+                return 1
+            end
+            if ARGV[2] ~= '' and redis.call('ZREM', KEYS[1], ARGV[2]) > 0 then
+                redis.call('ZADD', KEYS[1], ARGV[3], ARGV[1])
+                return 1
+            end
+            return 0
+            """;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final int maxInactiveSeconds;
+    private final int minIntervalSeconds;
+    private final int loadStep;
+
+    public HeartbeatRegistry(@Qualifier("stringRedisTemplate") RedisTemplate<String, String> redisTemplate,
+                             @Value("${queue.max-inactive-seconds:120}") int maxInactiveSeconds,
+                             @Value("${queue.heartbeat.min-interval-seconds:15}") int minIntervalSeconds,
+                             @Value("${queue.heartbeat.load-step:1000}") int loadStep) {
+        this.redisTemplate = redisTemplate;
+        this.maxInactiveSeconds = maxInactiveSeconds;
+        this.minIntervalSeconds = minIntervalSeconds;
+        this.loadStep = loadStep;
+    }
+
+    /**
+     * 입장 처리된 세션의 Heartbeat 등록 - 마감 시각 ZADD 와 공연 목록 갱신을 한 번의 파이프라인으로 전송
+     * - 입장(직접/선두)과 축소 운영 세션 반영에서만 호출 (활성 카운터를 올린 세션만 등록)
+     * - 복구 시 넣어 둔 userId:null 멤버가 있으면 실제 멤버로 교체 (활성 수는 그대로)
+     */
+    public void register(String userId, Long performanceId, Long scheduleId) {
+        long now = System.currentTimeMillis();
+        String heartbeatsKey = heartbeatsKey(performanceId);
+        String heartbeatMember = member(userId, scheduleId);
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            if (scheduleId != null) {
+                stringConnection.zRem(heartbeatsKey, member(userId, null));
+            }
+            stringConnection.zAdd(heartbeatsKey, deadline(now), heartbeatMember);
+            stringConnection.zAdd(HEARTBEAT_PERFORMANCES_KEY, now, String.valueOf(performanceId));
+            return null;
+        });
+    }
+
+    /**
+     * 클라이언트 Heartbeat - 이미 등록된 세션의 마감만 갱신 (스크립트와 공연 목록 갱신을 한 번의 파이프라인으로 전송)
+     * - 자리를 받은 적 없는 사용자(WAITING 토큰, 오래된 클라이언트)는 등록하지 않는다
+     *   (등록하면 만료 스윕이 잡은 적 없는 자리를 반납한다)
+     * @return 갱신했으면 true, 입장 처리된 세션이 아니면 false
+     */
+    public boolean touch(String userId, Long performanceId, Long scheduleId) {
+        long now = System.currentTimeMillis();
+        String recoveredMember = scheduleId != null ? member(userId, null) : "";
+
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            stringConnection.eval(TOUCH_SCRIPT, ReturnType.INTEGER, 1, heartbeatsKey(performanceId),
+                    member(userId, scheduleId), recoveredMember, String.valueOf(deadline(now)));
+            stringConnection.zAdd(HEARTBEAT_PERFORMANCES_KEY, now, String.valueOf(performanceId));
+            return null;
+        });
+        return !results.isEmpty() && results.get(0) instanceof Number touched && touched.longValue() > 0;
+    }
+
+    /**
+     * 같은 레인 여러 세션의 Heartbeat 를 한 번의 파이프라인으로 등록 (일괄 입장용)
+     */
+    public void registerAll(Long performanceId, Long scheduleId, Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        String heartbeatsKey = heartbeatsKey(performanceId);
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (String userId : userIds) {
+                if (scheduleId != null) {
+                    stringConnection.zRem(heartbeatsKey, member(userId, null));
+                }
+                stringConnection.zAdd(heartbeatsKey, deadline(now), member(userId, scheduleId));
+            }
+            stringConnection.zAdd(HEARTBEAT_PERFORMANCES_KEY, now, String.valueOf(performanceId));
+            return null;
+        });
+    }
+
+    /**
+     * DB 기준 ACTIVE 사용자의 Heartbeat 복구 (파이프라인, 이미 있는 멤버는 유지)
+     * - 토큰의 회차로 멤버를 만들고 (회차 없는 토큰은 userId:null), 마감은 지금부터 max-inactive-seconds
+     * @param schedulesByUser userId → scheduleId (null 가능)
+     */
+    public void restoreAll(Long performanceId, Map<String, Long> schedulesByUser) {
+        long now = System.currentTimeMillis();
+        String heartbeatsKey = heartbeatsKey(performanceId);
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            schedulesByUser.forEach((userId, scheduleId) -> stringConnection.zAdd(heartbeatsKey, deadline(now),
+                    member(userId, scheduleId), RedisZSetCommands.ZAddArgs.ifNotExists()));
+            stringConnection.zAdd(HEARTBEAT_PERFORMANCES_KEY, now, String.valueOf(performanceId));
+            return null;
+        });
+    }
+
+    /**
+     * 공연의 Heartbeat 인덱스 존재 여부 (복구 대상 판별용)
+     */
+    public boolean exists(Long performanceId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(heartbeatsKey(performanceId)));
+    }
+
+    /**
+     * 만료 스윕 대상 공연으로 등록 (입장 스크립트가 heartbeats 에 직접 ZADD 한 경우)
+     */
+    public void registerPerformance(Long performanceId) {
+        redisTemplate.opsForZSet().add(HEARTBEAT_PERFORMANCES_KEY, String.valueOf(performanceId),
+                System.currentTimeMillis());
+    }
+
+    /**
+     * 세션 Heartbeat 제거 - 동시에 여러 곳에서 제거해도 한 곳만 true
+     * @param deadlineBefore null 이 아니면 마감이 이 시각 이전인 경우에만 제거
+     */
+    public boolean remove(String userId, Long performanceId, Long scheduleId, Long deadlineBefore) {
+        String member = member(userId, scheduleId);
+        Long removed = deadlineBefore != null
+                ? redisTemplate.execute(REMOVE_SCRIPT, List.of(heartbeatsKey(performanceId)), member,
+                        String.valueOf(deadlineBefore))
+                : redisTemplate.execute(REMOVE_SCRIPT, List.of(heartbeatsKey(performanceId)), member);
+        return removed != null && removed > 0;
+    }
+
+    /**
+     * 마감이 지난 멤버 조회 (최대 limit 개)
+     */
+    public List<Member> expired(Long performanceId, long now, int limit) {
+        Set<String> members = redisTemplate.opsForZSet()
+                .rangeByScore(heartbeatsKey(performanceId), 0, now, 0, limit);
+        if (members == null) {
+            return List.of();
+        }
+        return members.stream().map(Member::parse).toList();
+    }
+
+    /**
+     * 최근 Heartbeat 가 있었던 공연 목록 (만료 스윕 순회용)
+     */
+    public Set<Long> performanceIds() {
+        long cutoff = System.currentTimeMillis() - Duration.ofSeconds(maxInactiveSeconds).multipliedBy(2).toMillis();
+        redisTemplate.opsForZSet().removeRangeByScore(HEARTBEAT_PERFORMANCES_KEY, 0, cutoff);
+
+        Set<String> ids = redisTemplate.opsForZSet().range(HEARTBEAT_PERFORMANCES_KEY, 0, -1);
+        if (ids == null) {
+            return Set.of();
+        }
+        return ids.stream().map(Long::valueOf).collect(Collectors.toSet());
+    }
+
+    /**
+     * 공연의 Heartbeat 세션 수 (입장 처리된 모든 세션 - 마감이 지났지만 아직 스윕되지 않은 세션 포함)
+     */
+    public long sessionCount(Long performanceId) {
+        Long sessions = redisTemplate.opsForZSet().zCard(heartbeatsKey(performanceId));
+        return sessions != null ? sessions : 0L;
+    }
+
+    /**
+     * 서버 권장 Heartbeat 주기 (초)
+     * - 접속자가 많을수록 주기를 늘려 Heartbeat 트래픽을 줄이되, 마감 전에 최소 두 번은 보내도록 상한을 둔다
+     * - 세션 수는 QueueCounterCache 의 니어 캐시 값을 받는다 (응답마다 ZCARD 하지 않음)
+     * @param load 공연의 Heartbeat 세션 수
+     */
+    public int suggestedIntervalSeconds(long load) {
+        int upperBound = Math.max(minIntervalSeconds, maxInactiveSeconds / 2);
+        long interval = minIntervalSeconds * (1 + load / Math.max(1, loadStep));
+        return (int) Math.min(upperBound, interval);
+    }
+
+    /**
+     * 부하와 무관한 최소 Heartbeat 주기 (Redis 를 읽을 수 없을 때 사용)
+     */
+    public int minIntervalSeconds() {
+        return minIntervalSeconds;
+    }
+
+    public long deadline(long now) {
+        return now + maxInactiveSeconds * 1000L;
+    }
+
+    static String heartbeatsKey(Long performanceId) {
+        return HEARTBEATS_KEY_PREFIX + "{" + performanceId + "}";
+    }
+
+    static String member(String userId, Long scheduleId) {
+        return userId + ":" + scheduleId;
+    }
+
+    /**
+     * Heartbeat 멤버 (userId:scheduleId)
+     */
+    public record Member(String userId, Long scheduleId, String raw) {
+        static Member parse(String raw) {
+            int separator = raw.lastIndexOf(':');
+            String scheduleId = raw.substring(separator + 1);
+            return new Member(raw.substring(0, separator),
+                    "null".equals(scheduleId) ? null : Long.valueOf(scheduleId), raw);
+        }
+    }
+}
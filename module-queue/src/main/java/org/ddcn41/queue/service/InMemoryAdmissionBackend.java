@@ -0,0 +1,110 @@
+package org.ddcn41.queue.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 메모리 입장 백엔드 (단일 노드/개발/벤치마크용)
+ * - 레인/공연별 AtomicInteger 를 CAS 로 갱신하므로 락 없이 정원이 지켜진다
+ * - 노드마다 카운터가 따로이므로 여러 노드로 띄우면 노드 수만큼 정원이 늘어난다
+ * - 재시작하면 카운터가 사라지며 QueueTokenRecovery 가 queue_tokens 기준으로 다시 채운다
+ */
+@Component
+public class InMemoryAdmissionBackend extends CounterAdmissionBackend {
+
+    private final Map<QueueLane, AtomicInteger> active = new ConcurrentHashMap<>();
+
+    public InMemoryAdmissionBackend(WaitingLine waitingLine, HeartbeatRegistry heartbeatRegistry) {
+        super(waitingLine, heartbeatRegistry);
+    }
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    /**
+     * 레인 카운터에서 먼저 자리를 잡고, 공연 상한에 걸려 덜 잡힌 만큼은 레인에 되돌린다
+     * - 두 카운터를 한 번에 바꾸지는 않지만 어느 쪽도 상한을 넘지 않는다
+     */
+    @Override
+    protected int reserve(Long performanceId, Long scheduleId, Capacity capacity, int count, boolean wait) {
+        AtomicInteger total = counter(performanceId, null);
+        if (scheduleId == null) {
+            return take(total, capacity.performanceCapped()
+                    ? Math.min(capacity.lane(), capacity.performance()) : capacity.lane(), count);
+        }
+
+        AtomicInteger lane = counter(performanceId, scheduleId);
+        int granted = take(lane, capacity.lane(), count);
+        if (granted == 0) {
+            return 0;
+        }
+        if (!capacity.performanceCapped()) {
+            total.addAndGet(granted);
+            return granted;
+        }
+        int allowed = take(total, capacity.performance(), granted);
+        if (allowed < granted) {
+            lane.addAndGet(allowed - granted);
+        }
+        return allowed;
+    }
+
+    @Override
+    protected long unreserve(Long performanceId, Long scheduleId, int count) {
+        long remaining = decrement(counter(performanceId, scheduleId), count);
+        if (scheduleId != null) {
+            decrement(counter(performanceId, null), count);
+        }
+        return remaining;
+    }
+
+    @Override
+    public int activeCount(Long performanceId, Long scheduleId) {
+        AtomicInteger counter = active.get(QueueLane.of(performanceId, scheduleId));
+        return counter != null ? counter.get() : 0;
+    }
+
+    @Override
+    public void syncActiveCount(Long performanceId, Long scheduleId, long count) {
+        counter(performanceId, scheduleId).set((int) count);
+    }
+
+    @Override
+    public boolean hasActiveCount(Long performanceId) {
+        return active.containsKey(QueueLane.of(performanceId, null));
+    }
+
+    @Override
+    public long restoreActiveCount(Long performanceId, Long scheduleId, long count) {
+        if (scheduleId != null) {
+            counter(performanceId, null).addAndGet((int) count);
+        }
+        return counter(performanceId, scheduleId).addAndGet((int) count);
+    }
+
+    private static int take(AtomicInteger counter, int max, int count) {
+        while (true) {
+            int current = counter.get();
+            int granted = Math.min(count, max - current);
+            if (granted <= 0) {
+                return 0;
+            }
+            if (counter.compareAndSet(current, current + granted)) {
+                return granted;
+            }
+        }
+    }
+
+    private static int decrement(AtomicInteger counter, int count) {
+        return counter.updateAndGet(current -> Math.max(0, current - count));
+    }
+
+    private AtomicInteger counter(Long performanceId, Long scheduleId) {
+        return active.computeIfAbsent(QueueLane.of(performanceId, scheduleId), lane -> new AtomicInteger());
+    }
+}
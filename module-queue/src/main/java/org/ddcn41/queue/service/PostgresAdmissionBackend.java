@@ -0,0 +1,149 @@
+package org.ddcn41.queue.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Postgres 입장 백엔드 (활성 카운터만 DB 에 저장)
+ * - 활성 카운터는 queue_admission_counters 의 (공연, 회차) 행과 공연 전체 행(schedule_id = 0),
+ *   공연별 트랜잭션 advisory lock 안에서 두 행을 함께 확인/증가
+ * - 배치 입장은 pg_try_advisory_xact_lock 으로 다른 노드가 같은 공연을 처리 중이면 기다리지 않고 건너뜀 (SKIP LOCKED)
+ * - 호출하는 서비스 트랜잭션과 분리(REQUIRES_NEW)해 락을 짧게 잡고 바로 커밋한다
+ */
+@Component
+public class PostgresAdmissionBackend extends CounterAdmissionBackend {
+    private static final int ADVISORY_LOCK_CLASS = 0x51554555; // 'QUEU'
+    private static final long PERFORMANCE_ROW = 0L; // schedule_id = 0: 공연 전체 카운터 (기본 레인 겸용)
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public PostgresAdmissionBackend(WaitingLine waitingLine,
+                                    HeartbeatRegistry heartbeatRegistry,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager) {
+        super(waitingLine, heartbeatRegistry);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public String name() {
+        return "postgres";
+    }
+
+    @Override
+    protected int reserve(Long performanceId, Long scheduleId, Capacity capacity, int count, boolean wait) {
+        Integer granted = transactionTemplate.execute(status -> {
+            if (wait) {
+                jdbcTemplate.queryForObject("SELECT 1 FROM pg_advisory_xact_lock(?, ?)", Integer.class,
+                        ADVISORY_LOCK_CLASS, Long.hashCode(performanceId));
+            } else if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?, ?)",
+                    Boolean.class, ADVISORY_LOCK_CLASS, Long.hashCode(performanceId)))) {
+                return 0;
+            }
+
+            int lane = lockedCount(performanceId, scheduleKey(scheduleId));
+            int total = scheduleId != null ? lockedCount(performanceId, PERFORMANCE_ROW) : lane;
+            int slots = Math.min(count, capacity.lane() - lane);
+            if (capacity.performanceCapped()) {
+                slots = Math.min(slots, capacity.performance() - total);
+            }
+            if (slots <= 0) {
+                return 0;
+            }
+            jdbcTemplate.update("UPDATE queue_admission_counters SET active_count = active_count + ?, " +
+                            "updated_at = CURRENT_TIMESTAMP WHERE performance_id = ? AND schedule_id IN (?, ?)",
+                    slots, performanceId, scheduleKey(scheduleId), PERFORMANCE_ROW);
+            return slots;
+        });
+        return granted != null ? granted : 0;
+    }
+
+    @Override
+    protected long unreserve(Long performanceId, Long scheduleId, int count) {
+        Long active = transactionTemplate.execute(status -> {
+            if (scheduleId != null) {
+                jdbcTemplate.update("UPDATE queue_admission_counters SET active_count = GREATEST(active_count - ?, 0), " +
+                        "updated_at = CURRENT_TIMESTAMP WHERE performance_id = ? AND schedule_id = ?",
+                        count, performanceId, PERFORMANCE_ROW);
+            }
+            return first(jdbcTemplate.queryForList(
+                    "UPDATE queue_admission_counters SET active_count = GREATEST(active_count - ?, 0), " +
+                            "updated_at = CURRENT_TIMESTAMP WHERE performance_id = ? AND schedule_id = ? " +
+                            "RETURNING active_count",
+                    Long.class, count, performanceId, scheduleKey(scheduleId)));
+        });
+        return active != null ? active : 0L;
+    }
+
+    @Override
+    public int activeCount(Long performanceId, Long scheduleId) {
+        Long active = first(jdbcTemplate.queryForList(
+                "SELECT active_count FROM queue_admission_counters WHERE performance_id = ? AND schedule_id = ?",
+                Long.class, performanceId, scheduleKey(scheduleId)));
+        return active != null ? active.intValue() : 0;
+    }
+
+    @Override
+    public void syncActiveCount(Long performanceId, Long scheduleId, long count) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "INSERT INTO queue_admission_counters (performance_id, schedule_id, active_count) VALUES (?, ?, ?) " +
+                        "ON CONFLICT (performance_id, schedule_id) DO UPDATE SET " +
+                        "active_count = EXCLUDED.active_count, updated_at = CURRENT_TIMESTAMP",
+                performanceId, scheduleKey(scheduleId), count));
+    }
+
+    @Override
+    public boolean hasActiveCount(Long performanceId) {
+        return first(jdbcTemplate.queryForList(
+                "SELECT active_count FROM queue_admission_counters WHERE performance_id = ? AND schedule_id = ?",
+                Long.class, performanceId, PERFORMANCE_ROW)) != null;
+    }
+
+    @Override
+    public long restoreActiveCount(Long performanceId, Long scheduleId, long count) {
+        Long active = transactionTemplate.execute(status -> {
+            if (scheduleId != null) {
+                add(performanceId, PERFORMANCE_ROW, count);
+            }
+            return add(performanceId, scheduleKey(scheduleId), count);
+        });
+        return active != null ? active : count;
+    }
+
+    /**
+     * advisory lock 안에서 카운터 행을 만들고(없으면) 현재 값을 읽음
+     */
+    private int lockedCount(Long performanceId, long scheduleKey) {
+        jdbcTemplate.update("INSERT INTO queue_admission_counters (performance_id, schedule_id, active_count) " +
+                "VALUES (?, ?, 0) ON CONFLICT (performance_id, schedule_id) DO NOTHING", performanceId, scheduleKey);
+        Integer current = jdbcTemplate.queryForObject(
+                "SELECT active_count FROM queue_admission_counters WHERE performance_id = ? AND schedule_id = ?",
+                Integer.class, performanceId, scheduleKey);
+        return current != null ? current : 0;
+    }
+
+    private Long add(Long performanceId, long scheduleKey, long count) {
+        return first(jdbcTemplate.queryForList(
+                "INSERT INTO queue_admission_counters (performance_id, schedule_id, active_count) VALUES (?, ?, ?) " +
+                        "ON CONFLICT (performance_id, schedule_id) DO UPDATE SET " +
+                        "active_count = queue_admission_counters.active_count + EXCLUDED.active_count, " +
+                        "updated_at = CURRENT_TIMESTAMP RETURNING active_count",
+                Long.class, performanceId, scheduleKey, count));
+    }
+
+    private static long scheduleKey(Long scheduleId) {
+        return scheduleId != null ? scheduleId : PERFORMANCE_ROW;
+    }
+
+    private static Long first(List<Long> values) {
+        return values.isEmpty() ? null : values.get(0);
+    }
+}
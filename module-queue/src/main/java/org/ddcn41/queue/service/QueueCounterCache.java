@@ -0,0 +1,97 @@
+package org.ddcn41.queue.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 레인(공연 + 회차)별 활성/대기 인원 니어 캐시
+ * - 응답/SSE 프레임에 싣는 인원 수는 요청마다 Redis 를 읽지 않고 메모리 값을 사용
+ * - 입장/반납 스크립트가 queue_counters 채널로 최신 값을 PUBLISH 하면 모든 노드가 즉시 갱신
+ * - 알림을 놓치거나(재연결 등) 대기열 진입처럼 알림이 없는 변경은 max-age 가 지나면 Redis 에서 다시 읽어 보정
+ * - 공연별 Heartbeat 세션 수(권장 Heartbeat 주기 계산용)도 max-age 동안 재사용 (응답마다 ZCARD 하지 않음)
+ *   → 오차는 최대 max-age 동안만 유지된다
+ * - 입장 판정/카운터 보정처럼 정확한 값이 필요한 곳은 AdmissionControl/WaitingLine 을 직접 사용
+ */
+@Slf4j
+@Component
+public class QueueCounterCache implements MessageListener {
+
+    private final AdmissionControl admissionControl;
+    private final WaitingLine waitingLine;
+    private final HeartbeatRegistry heartbeatRegistry;
+    private final long maxAgeMillis;
+
+    private final Map<QueueLane, Snapshot> active = new ConcurrentHashMap<>();
+    private final Map<QueueLane, Snapshot> waiting = new ConcurrentHashMap<>();
+    private final Map<QueueLane, Snapshot> sessions = new ConcurrentHashMap<>();
+
+    public QueueCounterCache(AdmissionControl admissionControl,
+                             WaitingLine waitingLine,
+                             HeartbeatRegistry heartbeatRegistry,
+                             @Value("${queue.near-cache.max-age-ms:1000}") long maxAgeMillis) {
+        this.admissionControl = admissionControl;
+        this.waitingLine = waitingLine;
+        this.heartbeatRegistry = heartbeatRegistry;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    private record Snapshot(long value, long loadedAt) {
+    }
+
+    public int activeCount(Long performanceId, Long scheduleId) {
+        return (int) read(active, QueueLane.of(performanceId, scheduleId),
+                () -> admissionControl.activeCount(performanceId, scheduleId));
+    }
+
+    public long waitingCount(Long performanceId, Long scheduleId) {
+        return read(waiting, QueueLane.of(performanceId, scheduleId),
+                () -> waitingLine.size(performanceId, scheduleId));
+    }
+
+    /**
+     * 서버 권장 Heartbeat 주기 (초) - 공연 Heartbeat 세션 수는 max-age 동안 재사용
+     */
+    public int heartbeatIntervalSeconds(Long performanceId) {
+        long load = read(sessions, QueueLane.of(performanceId, null),
+                () -> heartbeatRegistry.sessionCount(performanceId));
+        return heartbeatRegistry.suggestedIntervalSeconds(load);
+    }
+
+    /**
+     * "active_tokens:{performanceId}[:scheduleId]|레인 활성 수[|레인 대기 인원]"
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            String[] parts = body.split("\\|");
+            QueueLane lane = QueueLane.fromKey(parts[0]);
+            long now = System.currentTimeMillis();
+            active.put(lane, new Snapshot(Long.parseLong(parts[1]), now));
+            if (parts.length > 2) {
+                waiting.put(lane, new Snapshot(Long.parseLong(parts[2]), now));
+            }
+        } catch (RuntimeException e) {
+            log.warn("카운터 알림 해석 실패: {}", body);
+        }
+    }
+
+    private long read(Map<QueueLane, Snapshot> cache, QueueLane lane, LongSupplier loader) {
+        long now = System.currentTimeMillis();
+        Snapshot snapshot = cache.get(lane);
+        if (snapshot != null && now - snapshot.loadedAt() < maxAgeMillis) {
+            return snapshot.value();
+        }
+        long value = loader.getAsLong();
+        cache.put(lane, new Snapshot(value, now));
+        return value;
+    }
+}
@@ -0,0 +1,48 @@
+package org.ddcn41.queue.service;
+
+/**
+ * 입장 레인 (공연 + 회차)
+ * - 정원, 대기열, 활성 카운터는 레인 단위로 관리하고 공연 전체 상한은 선택 사항 (queue.max-active-tokens-per-performance)
+ * - scheduleId 가 null 이면 회차 없이 발급된 토큰이 쓰는 공연 기본 레인이며, 키는 기존 공연 단위 키와 같다
+ * - 키 태그는 {performanceId} 해시태그를 공유하므로 한 공연의 레인은 Redis Cluster 에서 모두 같은 슬롯에 놓인다
+ */
+public record QueueLane(Long performanceId, Long scheduleId) {
+
+    public static QueueLane of(Long performanceId, Long scheduleId) {
+        return new QueueLane(performanceId, scheduleId);
+    }
+
+    /**
+     * 키 접미사: {performanceId} 또는 {performanceId}:scheduleId
+     */
+    public String tag() {
+        return scheduleId == null ? "{" + performanceId + "}" : "{" + performanceId + "}:" + scheduleId;
+    }
+
+    /**
+     * 레인 인덱스 멤버: performanceId 또는 performanceId:scheduleId
+     */
+    public String member() {
+        return scheduleId == null ? String.valueOf(performanceId) : performanceId + ":" + scheduleId;
+    }
+
+    static QueueLane fromMember(String member) {
+        int separator = member.indexOf(':');
+        if (separator < 0) {
+            return new QueueLane(Long.valueOf(member), null);
+        }
+        return new QueueLane(Long.valueOf(member.substring(0, separator)), Long.valueOf(member.substring(separator + 1)));
+    }
+
+    /**
+     * "prefix:{performanceId}[:scheduleId]" 형태의 키에서 레인 추출
+     */
+    static QueueLane fromKey(String key) {
+        int open = key.indexOf('{');
+        int close = key.indexOf('}', open);
+        Long performanceId = Long.valueOf(key.substring(open + 1, close));
+        return close + 1 < key.length()
+                ? new QueueLane(performanceId, Long.valueOf(key.substring(close + 2)))
+                : new QueueLane(performanceId, null);
+    }
+}
@@ -0,0 +1,231 @@
+package org.ddcn41.queue.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 대기열 Micrometer 지표 (actuator/prometheus 로 노출)
+ * - queue.waiting.depth / queue.active.count: 공연별 게이지, Redis 대기열(ZCARD)과 활성 카운터 기준으로 주기적으로 갱신
+ * - queue.admissions / queue.expirations / queue.cancellations / queue.tokens.used: 공연별 카운터 (노드 단위 누적)
+ * - queue.active.drift: 활성 카운터와 Heartbeat 세션 수 불일치 감지 횟수
+ * - queue.entry.throttled: 요청 제한으로 거절된 진입 요청 수
+ * - queue.time.in.queue / queue.admission.latency: 히스토그램 타이머 (p50/p95/p99 + 버킷)
+ * - queue.rebuild.duration / queue.rebuild.rows: queue_tokens 기준 Redis 상태 재구성 시간과 읽은 행 수
+ */
+@Component
+public class QueueMetrics {
+    private static final Duration PERFORMANCE_HORIZON = Duration.ofHours(2);
+    private static final String PERFORMANCE_TAG = "performanceId";
+
+    static final String ADMISSIONS = "queue.admissions";
+    static final String EXPIRATIONS = "queue.expirations";
+    static final String CANCELLATIONS = "queue.cancellations";
+    static final String TOKENS_USED = "queue.tokens.used";
+    static final String ACTIVE_DRIFT = "queue.active.drift";
+    static final String THROTTLED = "queue.entry.throttled";
+    static final String TIME_IN_QUEUE = "queue.time.in.queue";
+    static final String ADMISSION_LATENCY = "queue.admission.latency";
+    static final String REBUILD_DURATION = "queue.rebuild.duration";
+    static final String REBUILD_ROWS = "queue.rebuild.rows";
+
+    private final MeterRegistry meterRegistry;
+    private final WaitingLine waitingLine;
+    private final AdmissionControl admissionControl;
+    private final HeartbeatRegistry heartbeatRegistry;
+    private final MultiGauge waitingDepth;
+    private final MultiGauge activeCount;
+
+    private volatile Map<Long, Depth> depths = Map.of();
+    private final Set<Long> observedPerformances = ConcurrentHashMap.newKeySet();
+
+    public QueueMetrics(MeterRegistry meterRegistry,
+                        WaitingLine waitingLine,
+                        AdmissionControl admissionControl,
+                        HeartbeatRegistry heartbeatRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.waitingLine = waitingLine;
+        this.admissionControl = admissionControl;
+        this.heartbeatRegistry = heartbeatRegistry;
+        this.waitingDepth = MultiGauge.builder("queue.waiting.depth")
+                .description("공연별 대기 인원")
+                .register(meterRegistry);
+        this.activeCount = MultiGauge.builder("queue.active.count")
+                .description("공연별 활성(입장) 인원")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 공연별 대기/활성 인원 (Redis 기준, 모든 노드 공통)
+     */
+    public record Depth(long waiting, long active) {
+    }
+
+    /**
+     * 대기/활성 게이지 갱신 - 스크랩마다 Redis 를 조회하지 않도록 주기적으로 읽어 둔다
+     */
+    @Scheduled(fixedDelayString = "${queue.metrics.refresh-interval-ms:5000}")
+    public void refresh() {
+        Set<QueueLane> lanes = waitingLine.recentLanes(PERFORMANCE_HORIZON);
+        Set<Long> performanceIds = new HashSet<>(heartbeatRegistry.performanceIds());
+        lanes.forEach(lane -> performanceIds.add(lane.performanceId()));
+
+        // 대기 인원은 레인 대기열의 합, 활성 인원은 공연 전체 카운터
+        Map<Long, Long> waiting = new HashMap<>();
+        for (QueueLane lane : lanes) {
+            waiting.merge(lane.performanceId(), waitingLine.size(lane.performanceId(), lane.scheduleId()), Long::sum);
+        }
+        Map<Long, Depth> current = new HashMap<>();
+        for (Long performanceId : performanceIds) {
+            current.put(performanceId, new Depth(waiting.getOrDefault(performanceId, 0L),
+                    admissionControl.activeCount(performanceId, null)));
+        }
+        depths = Collections.unmodifiableMap(current);
+
+        waitingDepth.register(rows(current, Depth::waiting), true);
+        activeCount.register(rows(current, Depth::active), true);
+    }
+
+    public void admitted(Long performanceId, String path, int count) {
+        if (count > 0) {
+            counter(ADMISSIONS, performanceId, "path", path).increment(count);
+        }
+    }
+
+    /**
+     * @param reason heartbeat(Heartbeat 마감), ttl(토큰 만료 시각 경과)
+     */
+    public void expired(Long performanceId, String reason, int count) {
+        if (count > 0) {
+            counter(EXPIRATIONS, performanceId, "reason", reason).increment(count);
+        }
+    }
+
+    public void cancelled(Long performanceId, String status) {
+        counter(CANCELLATIONS, performanceId, "status", status).increment();
+    }
+
+    public void used(Long performanceId) {
+        counter(TOKENS_USED, performanceId).increment();
+    }
+
+    public void drift(Long performanceId, long counterValue, long storedValue) {
+        counter(ACTIVE_DRIFT, performanceId, "direction", counterValue > storedValue ? "over" : "under").increment();
+    }
+
+    /**
+     * 요청 제한(429)으로 거절된 진입 요청
+     */
+    public void throttled(String endpoint) {
+        meterRegistry.counter(THROTTLED, "endpoint", endpoint).increment();
+    }
+
+    /**
+     * 대기열 진입부터 입장까지 걸린 시간
+     */
+    public void timeInQueue(Long performanceId, Duration waited) {
+        observedPerformances.add(performanceId);
+        Timer.builder(TIME_IN_QUEUE)
+                .description("대기열 진입부터 입장까지 걸린 시간")
+                .tag(PERFORMANCE_TAG, String.valueOf(performanceId))
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofHours(2))
+                .register(meterRegistry)
+                .record(waited.isNegative() ? Duration.ZERO : waited);
+    }
+
+    /**
+     * 입장 판정(Redis 스크립트) 지연시간
+     * @param path direct(즉시 입장), head(선두 활성화), batch(배치 입장)
+     */
+    public <T> T timeAdmission(String path, Supplier<T> admission) {
+        return Timer.builder(ADMISSION_LATENCY)
+                .description("입장 판정 지연시간")
+                .tag("path", path)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(admission);
+    }
+
+    /**
+     * queue_tokens 기준 Redis 상태 재구성 (기동 시 또는 Redis 유실 감지 시)
+     */
+    public void rebuilt(long rows, Duration elapsed) {
+        meterRegistry.counter(REBUILD_ROWS).increment(rows);
+        Timer.builder(REBUILD_DURATION)
+                .description("Redis 대기열 상태 재구성 시간")
+                .register(meterRegistry)
+                .record(elapsed);
+    }
+
+    /**
+     * 최근 갱신된 공연별 대기/활성 인원
+     */
+    public Map<Long, Depth> depths() {
+        return depths;
+    }
+
+    /**
+     * 게이지 또는 카운터가 있는 공연 목록
+     */
+    public Set<Long> performanceIds() {
+        Set<Long> performanceIds = new HashSet<>(depths.keySet());
+        performanceIds.addAll(observedPerformances);
+        return performanceIds;
+    }
+
+    /**
+     * 이 노드에서 누적된 카운터 합계 (태그 구분 없이 합산)
+     */
+    public long count(String name, Long performanceId) {
+        return (long) meterRegistry.find(name)
+                .tag(PERFORMANCE_TAG, String.valueOf(performanceId))
+                .counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    /**
+     * 이 노드에서 관측된 평균 대기시간 (초, 관측값이 없으면 null)
+     */
+    public Double averageTimeInQueueSeconds(Long performanceId) {
+        Timer timer = meterRegistry.find(TIME_IN_QUEUE)
+                .tag(PERFORMANCE_TAG, String.valueOf(performanceId))
+                .timer();
+        return timer != null && timer.count() > 0 ? timer.mean(TimeUnit.SECONDS) : null;
+    }
+
+    private Counter counter(String name, Long performanceId, String... tags) {
+        observedPerformances.add(performanceId);
+        return Counter.builder(name)
+                .tag(PERFORMANCE_TAG, String.valueOf(performanceId))
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    private static List<MultiGauge.Row<?>> rows(Map<Long, Depth> depths, ToLongFunction<Depth> value) {
+        return depths.entrySet().stream()
+                .<MultiGauge.Row<?>>map(entry -> MultiGauge.Row.of(
+                        Tags.of(PERFORMANCE_TAG, String.valueOf(entry.getKey())),
+                        value.applyAsLong(entry.getValue())))
+                .toList();
+    }
+}
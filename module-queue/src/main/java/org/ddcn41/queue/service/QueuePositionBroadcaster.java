@@ -0,0 +1,127 @@
+package org.ddcn41.queue.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.ddcn41.queue.dto.response.QueuePositionEvent;
+import org.ddcn41.queue.dto.response.QueueStatusResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 대기열 순번 SSE 브로드캐스터
+ * - 클라이언트는 토큰으로 구독하고, 틱마다 레인(공연 + 회차)별 선두 시퀀스를 한 번만 계산해 같은 레인 구독자에게 전송
+ * - 각 클라이언트는 자기 시퀀스와 선두 시퀀스로 순번을 직접 계산하므로 상태 조회 폴링이 필요 없다
+ */
+@Slf4j
+@Component
+public class QueuePositionBroadcaster {
+
+    private final Map<QueueLane, Map<String, SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    private final WaitingLine waitingLine;
+    private final QueueCounterCache queueCounterCache;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMillis;
+
+    public QueuePositionBroadcaster(WaitingLine waitingLine,
+                                    QueueCounterCache queueCounterCache,
+                                    ObjectMapper objectMapper,
+                                    @Value("${queue.push.emitter-timeout-ms:1800000}") long emitterTimeoutMillis) {
+        this.waitingLine = waitingLine;
+        this.queueCounterCache = queueCounterCache;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+    }
+
+    /**
+     * 구독 등록 후 현재 상태를 첫 이벤트로 전송
+     * - 같은 토큰으로 다시 구독하면 이전 연결은 종료
+     */
+    public SseEmitter subscribe(QueueStatusResponse status) {
+        QueueLane lane = QueueLane.of(status.getPerformanceId(), status.getScheduleId());
+        String token = status.getToken();
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+
+        SseEmitter[] previous = new SseEmitter[1];
+        subscribers.compute(lane, (key, emitters) -> {
+            Map<String, SseEmitter> target = emitters != null ? emitters : new ConcurrentHashMap<>();
+            previous[0] = target.put(token, emitter);
+            return target;
+        });
+        if (previous[0] != null) {
+            previous[0].complete();
+        }
+
+        emitter.onCompletion(() -> unsubscribe(lane, token, emitter));
+        emitter.onTimeout(() -> unsubscribe(lane, token, emitter));
+        emitter.onError(e -> unsubscribe(lane, token, emitter));
+
+        try {
+            emitter.send(SseEmitter.event().name("status").data(status, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            unsubscribe(lane, token, emitter);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * 레인별 선두 시퀀스를 한 번 계산해 구독자 전체에 전송
+     */
+    public void broadcast() {
+        subscribers.forEach((lane, emitters) -> {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame = buildFrame(lane);
+                emitters.forEach((token, emitter) -> send(lane, token, emitter, frame));
+            } catch (Exception e) {
+                log.error("레인 {} 순번 브로드캐스트 중 오류", lane.member(), e);
+            }
+        });
+    }
+
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> buildFrame(QueueLane lane) throws JsonProcessingException {
+        QueuePositionEvent event = QueuePositionEvent.builder()
+                .performanceId(lane.performanceId())
+                .scheduleId(lane.scheduleId())
+                .headSequence(waitingLine.headSequence(lane.performanceId(), lane.scheduleId()))
+                .waitingCount(queueCounterCache.waitingCount(lane.performanceId(), lane.scheduleId()))
+                .activeCount(queueCounterCache.activeCount(lane.performanceId(), lane.scheduleId()))
+                .build();
+
+        // 직렬화와 프레임 생성은 레인당 한 번만 수행하고 같은 프레임을 모든 구독자에게 재사용
+        return SseEmitter.event()
+                .name("position")
+                .data(objectMapper.writeValueAsString(event), MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private void send(QueueLane lane, String token, SseEmitter emitter,
+                      Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        try {
+            emitter.send(frame);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("SSE 전송 실패로 구독 해제: {}", token);
+            unsubscribe(lane, token, emitter);
+        }
+    }
+
+    private void unsubscribe(QueueLane lane, String token, SseEmitter emitter) {
+        subscribers.computeIfPresent(lane, (key, emitters) -> {
+            emitters.remove(token, emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -6,7 +6,6 @@ import org.ddcn41.queue.dto.response.QueueStatsResponse;
 import org.ddcn41.queue.dto.response.QueueStatusResponse;
 import org.ddcn41.queue.dto.response.TokenIssueResponse;
 import org.ddcn41.queue.entity.QueueToken;
-import org.ddcn41.queue.repository.QueueTokenRepository;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -18,121 +17,230 @@ import org.springframework.web.server.ResponseStatusException;
 import java.security.SecureRandom;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @Transactional
 public class QueueService {
     private static final String TOKEN_ERROR_MSG = "토큰을 찾을 수 없습니다";
+    private static final String SOLD_OUT_MSG = "매진된 회차입니다.";
+    private static final String DEGRADED_REASON = "축소 운영";
 
-    private final QueueTokenRepository queueTokenRepository;
+    private final QueueTokenStore queueTokenStore;
     private final  RedisTemplate<String, String> redisTemplate;
+    private final WaitingLine waitingLine;
+    private final AdmissionControl admissionControl;
+    private final HeartbeatRegistry heartbeatRegistry;
+    private final AdmissionTicketIssuer admissionTicketIssuer;
+    private final WaitTimeEstimator waitTimeEstimator;
+    private final QueueMetrics queueMetrics;
+    private final WaitingRoom waitingRoom;
+    private final QueueCounterCache queueCounterCache;
+    private final QueueTokenRecovery queueTokenRecovery;
+    private final ScheduleAvailability scheduleAvailability;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    private final DegradedAdmission degradedAdmission;
+    private final BookingOpenTimes bookingOpenTimes;
     private final int maxActiveTokens;
-    private final int maxInactiveSeconds;
+    private final AdmissionBackend.Capacity capacity;
     private final int waitTimePerPerson;
-
-    public QueueService(QueueTokenRepository queueTokenRepository, @Qualifier("stringRedisTemplate") RedisTemplate<String, String> redisTemplate,
+    private final boolean rateBasedAdmission;
+
+    public QueueService(QueueTokenStore queueTokenStore,
+                        @Qualifier("stringRedisTemplate") RedisTemplate<String, String> redisTemplate,
+                        WaitingLine waitingLine,
+                        AdmissionControl admissionControl,
+                        HeartbeatRegistry heartbeatRegistry,
+                        AdmissionTicketIssuer admissionTicketIssuer,
+                        WaitTimeEstimator waitTimeEstimator,
+                        QueueMetrics queueMetrics,
+                        WaitingRoom waitingRoom,
+                        QueueCounterCache queueCounterCache,
+                        QueueTokenRecovery queueTokenRecovery,
+                        ScheduleAvailability scheduleAvailability,
+                        RedisCircuitBreaker redisCircuitBreaker,
+                        DegradedAdmission degradedAdmission,
+                        BookingOpenTimes bookingOpenTimes,
                         @Value("${queue.max-active-tokens:3}") int maxActiveTokens,
-                        @Value("${queue.max-inactive-seconds:120}") int maxInactiveSeconds,
-                        @Value("${queue.wait-time-per-person:10}") int waitTimePerPerson) {
-        this.queueTokenRepository = queueTokenRepository;
+                        @Value("${queue.max-active-tokens-per-performance:0}") int maxActiveTokensPerPerformance,
+                        @Value("${queue.wait-time-per-person:10}") int waitTimePerPerson,
+                        @Value("${queue.admission.mode:rate}") String admissionMode) {
+        this.queueTokenStore = queueTokenStore;
         this.redisTemplate = redisTemplate;
+        this.waitingLine = waitingLine;
+        this.admissionControl = admissionControl;
+        this.heartbeatRegistry = heartbeatRegistry;
+        this.admissionTicketIssuer = admissionTicketIssuer;
+        this.waitTimeEstimator = waitTimeEstimator;
+        this.queueMetrics = queueMetrics;
+        this.waitingRoom = waitingRoom;
+        this.queueCounterCache = queueCounterCache;
+        this.queueTokenRecovery = queueTokenRecovery;
+        this.scheduleAvailability = scheduleAvailability;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.degradedAdmission = degradedAdmission;
+        this.bookingOpenTimes = bookingOpenTimes;
         this.maxActiveTokens = maxActiveTokens;
-        this.maxInactiveSeconds = maxInactiveSeconds;
+        this.capacity = new AdmissionBackend.Capacity(maxActiveTokens, maxActiveTokensPerPerformance);
         this.waitTimePerPerson = waitTimePerPerson;
+        this.rateBasedAdmission = "rate".equalsIgnoreCase(admissionMode);
     }
 
     private final SecureRandom secureRandom = new SecureRandom();
 
-    private final Object queueLock = new Object();
-
     private static final String SESSION_KEY_PREFIX = "active_sessions:";
-    private static final String HEARTBEAT_KEY_PREFIX = "heartbeat:";
+    private static final String HEARTBEATS_KEY_PREFIX = "heartbeats:";
+    private static final int SWEEP_BATCH_SIZE = 500;
+    private static final Duration LANE_HORIZON = Duration.ofHours(2);
     private static final String ACTIVE_TOKENS_KEY_PREFIX = "active_tokens:";
 
     /**
      * 대기열 생성 시 직접 입장 세션 추적용
+     * - 입장 여부 판단은 Redis 스크립트로 원자적으로 처리 (노드 간 락 불필요)
+     * - 정원과 대기열은 회차(scheduleId) 레인 단위이며, 매진된 회차는 진입을 받지 않는다
+     * - Redis 장애 중(차단기 열림)이거나 이번 요청이 Redis 장애로 실패하면 노드 로컬 축소 운영으로 처리
      */
     public QueueCheckResponse getBookingToken(Long performanceId, Long scheduleId, String userId) {
-        String activeTokensKey = ACTIVE_TOKENS_KEY_PREFIX + performanceId;
-
-        synchronized (queueLock) {
-            try {
-                // 기존 활성 토큰 확인
-                Optional<QueueToken> existingToken = queueTokenRepository
-                        .findActiveTokenByUserIdAndPerformanceId(userId, performanceId);
-
-                if (existingToken.isPresent()) {
-                    QueueToken token = existingToken.get();
-                    if (!token.isExpired()) {
-                        return buildQueueCheckResponse(token, performanceId, scheduleId);
-                    } else {
-                        token.markAsExpired();
-                        queueTokenRepository.save(token);
-                        if (token.getStatus() == QueueToken.TokenStatus.ACTIVE) {
-                            releaseTokenFromRedis(performanceId);
-                        }
-                    }
-                }
-
-                String activeTokensStr = redisTemplate.opsForValue().get(activeTokensKey);
-                int activeTokens = activeTokensStr != null ? Integer.parseInt(activeTokensStr) : 0;
+        if (redisCircuitBreaker.isOpen()) {
+            return getDegradedBookingToken(performanceId, scheduleId, userId);
+        }
+        try {
+            QueueCheckResponse response = getRedisBookingToken(performanceId, scheduleId, userId);
+            redisCircuitBreaker.recordSuccess();
+            return response;
 
-                String tokenString = generateToken();
-                QueueToken newToken;
+        } catch (Exception e) {
+            if (redisCircuitBreaker.recordFailure(e)) {
+                log.warn("Redis 장애로 축소 운영 진입 처리: {}", e.getMessage());
+                return getDegradedBookingToken(performanceId, scheduleId, userId);
+            }
+            log.error("대기열 확인 중 오류 발생", e);
+            return systemErrorResponse();
+        }
+    }
 
-                if (activeTokens < maxActiveTokens) {
-                    redisTemplate.opsForValue().increment(activeTokensKey);
-                    redisTemplate.expire(activeTokensKey, Duration.ofMinutes(10));
+    private QueueCheckResponse getRedisBookingToken(Long performanceId, Long scheduleId, String userId) {
+        // 축소 운영 중 받은 토큰이 아직 Redis 에 반영되지 않았으면 그대로 사용
+        Optional<QueueToken> degradedToken = degradedAdmission.findLive(userId, performanceId);
+        if (degradedToken.isPresent()) {
+            return buildDegradedCheckResponse(degradedToken.get());
+        }
 
-                    startHeartbeat(userId, performanceId, scheduleId);
+        if (scheduleAvailability.isSoldOut(scheduleId)) {
+            return soldOutResponse();
+        }
 
-                    log.info("직접 입장 - ACTIVE 토큰 생성: {}", tokenString);
+        // 예매 오픈 전이면 대기실 사전 등록만 (SADD 1회)
+        Optional<LocalDateTime> opensAt = waitingRoom.registerIfBeforeOpen(performanceId, scheduleId, userId);
+        if (opensAt.isPresent()) {
+            return QueueCheckResponse.builder()
+                    .requiresQueue(true)
+                    .canProceedDirectly(false)
+                    .message("예매 오픈 전입니다. 오픈 시각에 무작위 순서로 대기열에 배정됩니다.")
+                    .reason("예매 오픈 전")
+                    .opensAt(opensAt.get())
+                    .build();
+        }
 
-                    return QueueCheckResponse.builder()
-                            .requiresQueue(false)
-                            .canProceedDirectly(true)
-                            .sessionId(tokenString)
-                            .message("좌석 선택으로 이동합니다")
-                            .currentActiveSessions(activeTokens + 1)
-                            .maxConcurrentSessions(maxActiveTokens)
-                            .build();
+        // 기존 활성 토큰 확인
+        Optional<QueueToken> existingToken = queueTokenStore.findLive(userId, performanceId);
 
+        if (existingToken.isPresent()) {
+            QueueToken token = existingToken.get();
+            if (!token.isExpired()) {
+                return buildQueueCheckResponse(token);
+            } else {
+                boolean wasActive = token.getStatus() == QueueToken.TokenStatus.ACTIVE;
+                token.markAsExpired();
+                queueTokenStore.save(token);
+                if (wasActive) {
+                    releaseTokenFromRedis(token);
                 } else {
-                    newToken = createWaitingToken(tokenString, userId, performanceId);
+                    waitingLine.remove(performanceId, token.getScheduleId(), token.getToken());
+                }
+            }
+        }
+
+        String tokenString = generateToken();
+        AdmissionBackend.AdmissionResult admission = queueMetrics.timeAdmission("direct", () ->
+                admissionControl.admitDirect(userId, performanceId, scheduleId, capacity));
+
+        if (admission.admitted()) {
+            waitTimeEstimator.recordAdmissions(performanceId, 1);
+            queueMetrics.admitted(performanceId, "direct", 1);
+            log.info("직접 입장 - ACTIVE 토큰 생성: {}", tokenString);
+
+            return QueueCheckResponse.builder()
+                    .requiresQueue(false)
+                    .canProceedDirectly(true)
+                    .sessionId(tokenString)
+                    .message("좌석 선택으로 이동합니다")
+                    .currentActiveSessions((int) admission.value())
+                    .maxConcurrentSessions(maxActiveTokens)
+                    .heartbeatIntervalSeconds(queueCounterCache.heartbeatIntervalSeconds(performanceId))
+                    .admissionTicket(admissionTicketIssuer.issue(userId, performanceId, scheduleId, tokenString, null))
+                    .build();
+        }
 
-                    updateQueuePosition(newToken);
+        QueueToken newToken = createWaitingToken(tokenString, userId, performanceId, scheduleId);
 
-                    int waitingCount = getRedisWaitingCount(performanceId);
-                    int estimatedWait = newToken.getPositionInQueue() * waitTimePerPerson;
+        updateQueuePosition(newToken);
 
-                    log.info("대기열 진입 - WAITING 토큰 생성: {} (순번: {})",
-                            tokenString, newToken.getPositionInQueue());
+        int waitingCount = getRedisWaitingCount(performanceId, scheduleId);
 
-                    return QueueCheckResponse.builder()
-                            .requiresQueue(true)
-                            .canProceedDirectly(false)
-                            .sessionId(tokenString)
-                            .message("현재 많은 사용자가 접속중입니다. 대기열에 참여합니다.")
-                            .currentActiveSessions(activeTokens)
-                            .maxConcurrentSessions(maxActiveTokens)
-                            .estimatedWaitTime(estimatedWait)
-                            .currentWaitingCount(waitingCount)
-                            .build();
-                }
+        log.info("대기열 진입 - WAITING 토큰 생성: {} (순번: {})",
+                tokenString, newToken.getPositionInQueue());
+
+        return QueueCheckResponse.builder()
+                .requiresQueue(true)
+                .canProceedDirectly(false)
+                .sessionId(tokenString)
+                .message("현재 많은 사용자가 접속중입니다. 대기열에 참여합니다.")
+                .currentActiveSessions(queueCounterCache.activeCount(performanceId, scheduleId))
+                .maxConcurrentSessions(maxActiveTokens)
+                .estimatedWaitTime(newToken.getEstimatedWaitSeconds())
+                .estimatedWaitTimeLower(newToken.getEstimatedWaitSecondsLower())
+                .estimatedWaitTimeUpper(newToken.getEstimatedWaitSecondsUpper())
+                .admissionsPerMinute(newToken.getAdmissionsPerMinute())
+                .currentWaitingCount(waitingCount)
+                .heartbeatIntervalSeconds(queueCounterCache.heartbeatIntervalSeconds(performanceId))
+                .build();
+    }
 
-            } catch (Exception e) {
-                log.error("대기열 확인 중 오류 발생", e);
+    /**
+     * 축소 운영 진입 - Redis 없이 이 노드의 몫(정원/입장률)만큼 로컬로 입장/대기
+     * - 예매 오픈 전이면 대기실에 등록할 수 없으므로 오픈 후 다시 시도하도록 안내
+     */
+    private QueueCheckResponse getDegradedBookingToken(Long performanceId, Long scheduleId, String userId) {
+        try {
+            if (scheduleAvailability.isSoldOut(scheduleId)) {
+                return soldOutResponse();
+            }
+            Optional<LocalDateTime> opensAt = bookingOpenTimes.opensAt(performanceId, scheduleId)
+                    .filter(LocalDateTime.now()::isBefore);
+            if (opensAt.isPresent()) {
                 return QueueCheckResponse.builder()
                         .requiresQueue(true)
                         .canProceedDirectly(false)
-                        .message("시스템 오류로 대기열에 참여합니다.")
-                        .reason("시스템 오류")
+                        .message("예매 오픈 전입니다. 오픈 시각 이후 다시 시도해 주세요.")
+                        .reason("예매 오픈 전")
+                        .opensAt(opensAt.get())
                         .build();
             }
+
+            QueueToken token = degradedAdmission.enter(generateToken(), userId, performanceId, scheduleId);
+            return buildDegradedCheckResponse(token);
+
+        } catch (Exception e) {
+            log.error("축소 운영 대기열 확인 중 오류 발생", e);
+            return systemErrorResponse();
         }
     }
 
@@ -150,34 +258,51 @@ public class QueueService {
                 .build();
 
         token.activate();
-        return queueTokenRepository.save(token);
+        return queueTokenStore.save(token);
     }
 
     // WAITING 토큰 생성 (Entity 없이)
-    private QueueToken createWaitingToken(String tokenString, String userId, Long performanceId) {
+    private QueueToken createWaitingToken(String tokenString, String userId, Long performanceId, Long scheduleId) {
+        long sequence = waitingLine.enqueue(performanceId, scheduleId, tokenString);
+
         QueueToken token = QueueToken.builder()
                 .token(tokenString)
                 .userId(userId)
                 .performanceId(performanceId)
+                .scheduleId(scheduleId)
                 .status(QueueToken.TokenStatus.WAITING)
                 .issuedAt(LocalDateTime.now())
                 .expiresAt(LocalDateTime.now().plusHours(2))
                 .positionInQueue(1)
                 .estimatedWaitTimeMinutes(waitTimePerPerson / 60)
+                .queueSequence(sequence)
                 .build();
 
-        return queueTokenRepository.save(token);
+        return queueTokenStore.save(token);
     }
 
     /**
      * 대기열 토큰 발급 - Redis 기반
+     * @param scheduleId 입장 레인 회차 (null 이면 공연 기본 레인)
      */
-    public TokenIssueResponse issueQueueToken(String userId, Long performanceId) {
-        // Entity 조회 제거
+    public TokenIssueResponse issueQueueToken(String userId, Long performanceId, Long scheduleId) {
+        if (scheduleAvailability.isSoldOut(scheduleId)) {
+            return TokenIssueResponse.builder()
+                    .message(SOLD_OUT_MSG)
+                    .build();
+        }
+
+        // 예매 오픈 전이면 대기실 사전 등록만
+        Optional<LocalDateTime> opensAt = waitingRoom.registerIfBeforeOpen(performanceId, scheduleId, userId);
+        if (opensAt.isPresent()) {
+            return TokenIssueResponse.builder()
+                    .message("예매 오픈 전입니다. 오픈 시각에 무작위 순서로 대기열에 배정됩니다.")
+                    .opensAt(opensAt.get())
+                    .build();
+        }
 
         // 기존 토큰 확인
-        Optional<QueueToken> existingToken = queueTokenRepository
-                .findActiveTokenByUserIdAndPerformanceId(userId, performanceId);
+        Optional<QueueToken> existingToken = queueTokenStore.findLive(userId, performanceId);
 
         if (existingToken.isPresent()) {
             QueueToken token = existingToken.get();
@@ -186,59 +311,48 @@ public class QueueService {
                 log.info("기존 토큰 반환: {}", token.getToken());
                 return createTokenResponse(token, "기존 토큰을 반환합니다.");
             } else {
+                if (token.getStatus() == QueueToken.TokenStatus.WAITING) {
+                    waitingLine.remove(performanceId, token.getScheduleId(), token.getToken());
+                }
                 token.markAsExpired();
-                queueTokenRepository.save(token);
+                queueTokenStore.save(token);
             }
         }
 
-        // 새 토큰 생성
-        String tokenString = generateToken();
-        QueueToken newToken = QueueToken.builder()
-                .token(tokenString)
-                .userId(userId)
-                .performanceId(performanceId)
-                .status(QueueToken.TokenStatus.WAITING)
-                .issuedAt(LocalDateTime.now())
-                .expiresAt(LocalDateTime.now().plusHours(2))
-                .build();
-
-        QueueToken savedToken = queueTokenRepository.save(newToken);
-        updateQueuePosition(savedToken);
-
-        String activeTokensKey = ACTIVE_TOKENS_KEY_PREFIX + performanceId;
-        String activeTokensStr = redisTemplate.opsForValue().get(activeTokensKey);
-        int currentActive = activeTokensStr != null ? Integer.parseInt(activeTokensStr) : 0;
-
-        log.info("토큰 발급 후 활성화 체크 - 현재 활성: {}/{}", currentActive, maxActiveTokens);
-
-        if (currentActive < maxActiveTokens) {
-            redisTemplate.opsForValue().increment(activeTokensKey);
-            redisTemplate.expire(activeTokensKey, Duration.ofMinutes(10));
-
-            savedToken.activate();
-            savedToken.setPositionInQueue(0);
-            savedToken.setEstimatedWaitTimeMinutes(0);
-            savedToken = queueTokenRepository.save(savedToken);
+        // 새 토큰 생성 후 빈 자리가 있으면 대기열 선두부터 입장 (FIFO)
+        QueueToken createdToken = createWaitingToken(generateToken(), userId, performanceId, scheduleId);
+        activateNextTokens(performanceId, scheduleId);
+        QueueToken savedToken = queueTokenStore.find(createdToken.getToken()).orElse(createdToken);
 
+        if (savedToken.getStatus() == QueueToken.TokenStatus.ACTIVE) {
             log.info(">>> 즉시 활성화: {}", savedToken.getToken());
             return createTokenResponse(savedToken, "예매 세션이 활성화되었습니다.");
         }
 
+        updateQueuePosition(savedToken);
         log.info(">>> 대기열 추가: {}", savedToken.getToken());
         return createTokenResponse(savedToken, "대기열에 추가되었습니다.");
     }
 
     /**
      * 토큰 상태 조회
+     * - 만료 처리와 순번 복구로 토큰이 바뀔 수 있으므로 읽기 전용 트랜잭션으로 묶지 않는다
+     *   (변경은 QueueTokenStore 가 Redis 에 먼저 기록하고 DB 는 write-behind 로 반영)
      */
-    @Transactional(readOnly = true)
     public QueueStatusResponse getTokenStatus(String token) {
-        QueueToken queueToken = queueTokenRepository.findByToken(token)
+        Optional<QueueToken> degradedToken = degradedAdmission.find(token);
+        if (degradedToken.isPresent()) {
+            return buildDegradedStatusResponse(degradedToken.get());
+        }
+        QueueToken queueToken = queueTokenStore.find(token)
                 .orElseThrow(() -> new IllegalArgumentException(TOKEN_ERROR_MSG));
 
         if (queueToken.isExpired()) {
+            if (queueToken.getStatus() == QueueToken.TokenStatus.WAITING) {
+                waitingLine.remove(queueToken.getPerformanceId(), queueToken.getScheduleId(), queueToken.getToken());
+            }
             queueToken.markAsExpired();
-            queueTokenRepository.save(queueToken);
+            queueTokenStore.save(queueToken);
         } else if (queueToken.getStatus() == QueueToken.TokenStatus.WAITING) {
             updateQueuePosition(queueToken);
         }
@@ -252,8 +366,14 @@ public class QueueService {
                 .status(queueToken.getStatus())
                 .positionInQueue(position)
                 .estimatedWaitTime(waitTime)
+                .estimatedWaitTimeLower(toMinutes(queueToken.getEstimatedWaitSecondsLower()))
+                .estimatedWaitTimeUpper(toMinutes(queueToken.getEstimatedWaitSecondsUpper()))
+                .admissionsPerMinute(queueToken.getAdmissionsPerMinute())
                 .isActiveForBooking(queueToken.isActiveForBooking())
                 .bookingExpiresAt(queueToken.getBookingExpiresAt())
+                .performanceId(queueToken.getPerformanceId())
+                .scheduleId(queueToken.getScheduleId())
+                .queueSequence(queueToken.getQueueSequence())
                 .build();
     }
 
@@ -261,7 +381,11 @@ public class QueueService {
      * 토큰 활성화
      */
     public QueueStatusResponse activateToken(String token, String userId, Long performanceId, Long scheduleId) {
-        QueueToken queueToken = queueTokenRepository.findByToken(token)
+        Optional<QueueToken> degradedToken = degradedAdmission.find(token);
+        if (degradedToken.isPresent()) {
+            return activateDegradedToken(degradedToken.get(), userId, performanceId);
+        }
+        QueueToken queueToken = queueTokenStore.find(token)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, TOKEN_ERROR_MSG));
 
         if (!queueToken.getUserId().equals(userId)) {
@@ -272,6 +396,12 @@ public class QueueService {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "요청한 공연 정보와 토큰이 일치하지 않습니다");
         }
 
+        // 입장 레인은 토큰을 발급한 회차 기준
+        Long laneScheduleId = queueToken.getScheduleId();
+        if (laneScheduleId != null && scheduleId != null && !laneScheduleId.equals(scheduleId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "요청한 회차 정보와 토큰이 일치하지 않습니다");
+        }
+
         if (queueToken.getStatus() == QueueToken.TokenStatus.CANCELLED ||
                 queueToken.getStatus() == QueueToken.TokenStatus.USED) {
             throw new ResponseStatusException(HttpStatus.GONE, "토큰이 만료되었거나 취소되었습니다");
@@ -280,9 +410,9 @@ public class QueueService {
         if (queueToken.getStatus() == QueueToken.TokenStatus.ACTIVE) {
             if (queueToken.isExpired()) {
                 queueToken.markAsExpired();
-                queueTokenRepository.save(queueToken);
-                releaseTokenFromRedis(performanceId);
-                activateNextTokens(performanceId);
+                queueTokenStore.save(queueToken);
+                releaseTokenFromRedis(queueToken);
+                activateNextTokens(performanceId, laneScheduleId);
                 throw new ResponseStatusException(HttpStatus.GONE, "토큰이 만료되었습니다");
             }
             return buildQueueStatusResponse(queueToken);
@@ -290,8 +420,8 @@ public class QueueService {
 
         if (queueToken.isExpired()) {
             queueToken.markAsExpired();
-            queueTokenRepository.save(queueToken);
-            updateWaitingPositions(performanceId);
+            queueTokenStore.save(queueToken);
+            waitingLine.remove(performanceId, laneScheduleId, token);
             throw new ResponseStatusException(HttpStatus.GONE, "토큰이 만료되었습니다");
         }
 
@@ -299,69 +429,69 @@ public class QueueService {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "대기 중인 토큰만 활성화할 수 있습니다");
         }
 
-        Long position = queueTokenRepository.findPositionInQueue(
-                performanceId, queueToken.getIssuedAt()) + 1;
-
-        int estimatedSeconds = position.intValue() * waitTimePerPerson;
-        int estimatedMinutes = Math.max(1, estimatedSeconds / 60);
-        queueToken.setPositionInQueue(position.intValue());
-        queueToken.setEstimatedWaitTimeMinutes(estimatedMinutes);
-
-        String activeTokensKey = ACTIVE_TOKENS_KEY_PREFIX + performanceId;
+        if (scheduleAvailability.isSoldOut(laneScheduleId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, SOLD_OUT_MSG);
+        }
 
-        synchronized (queueLock) {
-            // 1) 락 안에서 "현재" 순번 재계산 (진짜 1등인지 확인)
-            Long currentPosition = queueTokenRepository.findPositionInQueue(
-                    performanceId, queueToken.getIssuedAt()
-            ) + 1;
+        updateQueuePosition(queueToken);
 
-            // 2) 맨 앞이 아니면 거절 (FIFO 보장)
-            if (currentPosition > 1) {
-                queueTokenRepository.save(queueToken);
-                throw new ResponseStatusException(
-                        HttpStatus.CONFLICT,
-                        "아직 차례가 아닙니다. 현재 대기번호: " + currentPosition
-                );
-            }
-            // 3) 활성 슬롯 확인(동기화 포함)
-            // ID로 조회
-            Long dbActiveCount = queueTokenRepository.countActiveTokensByPerformanceId(performanceId);
-            String redisCountStr = redisTemplate.opsForValue().get(activeTokensKey);
-            int redisActiveCount = redisCountStr != null ? Integer.parseInt(redisCountStr) : 0;
-
-            if (redisActiveCount != dbActiveCount.intValue()) {
-                log.warn("Redis-DB 불일치 감지. Redis: {}, DB: {}. DB 기준으로 동기화...",
-                        redisActiveCount, dbActiveCount);
-
-                // DB 값을 신뢰할 수 있는 source of truth로 사용
-                redisTemplate.opsForValue().set(activeTokensKey, dbActiveCount.toString());
-                redisTemplate.expire(activeTokensKey, Duration.ofMinutes(10));
-                redisActiveCount = dbActiveCount.intValue();
-                log.info("동기화 완료. 현재 활성 토큰: {}", redisActiveCount);
-            }
+        // 1) 공연 활성 카운터와 Heartbeat 세션 수 비교 (감지만 - 카운터를 덮어쓰면 방금 입장한 세션이 지워진다)
+        long sessionCount = heartbeatRegistry.sessionCount(performanceId);
+        int activeCount = admissionControl.activeCount(performanceId, null);
 
-            if (redisActiveCount >= maxActiveTokens) {
-                throw new ResponseStatusException(HttpStatus.CONFLICT,
-                        "현재 입장 가능한 인원이 가득 찼습니다");
-            }
+        if (activeCount != sessionCount) {
+            log.warn("활성 카운터 불일치 감지. 카운터: {}, Heartbeat 세션: {} (만료 스윕/반납에서 정리)",
+                    activeCount, sessionCount);
+            queueMetrics.drift(performanceId, activeCount, sessionCount);
+        }
 
-            redisTemplate.expire(activeTokensKey, Duration.ofMinutes(10));
+        // 2) 맨 앞 확인 + 정원 확인 + 입장을 스크립트 한 번으로 처리 (FIFO 보장)
+        AdmissionBackend.AdmissionResult admission = queueMetrics.timeAdmission("head", () ->
+                admissionControl.admitHead(token, userId, performanceId, laneScheduleId, capacity));
+
+        switch (admission.outcome()) {
+            case NOT_AT_HEAD, NOT_IN_LINE -> throw new ResponseStatusException(
+                    HttpStatus.CONFLICT,
+                    "아직 차례가 아닙니다. 현재 대기번호: " + queueToken.getPositionInQueue()
+            );
+            case FULL -> throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "현재 입장 가능한 인원이 가득 찼습니다");
+            default -> log.info("대기열 선두 입장: {} (활성: {}/{})", token, admission.value(), maxActiveTokens);
+        }
+        waitTimeEstimator.recordAdmissions(performanceId, 1);
+        queueMetrics.admitted(performanceId, "head", 1);
 
-            try {
-                queueToken.activate();
-                queueTokenRepository.save(queueToken);
-                startHeartbeat(userId, performanceId, scheduleId);
-                updateWaitingPositions(performanceId);
+        try {
+            queueToken.activate();
+            queueTokenStore.save(queueToken);
+            queueMetrics.timeInQueue(performanceId, Duration.between(queueToken.getIssuedAt(), LocalDateTime.now()));
 
-            } catch (RuntimeException ex) {
-                redisTemplate.opsForValue().decrement(activeTokensKey);
-                throw ex;
-            }
+        } catch (RuntimeException ex) {
+            admissionControl.release(userId, performanceId, laneScheduleId);
+            throw ex;
         }
 
         return buildQueueStatusResponse(queueToken);
     }
 
+    /**
+     * 축소 운영 토큰 활성화 요청 - 입장은 로컬 틱(DegradedAdmission.admit)이 처리하므로 상태만 확인
+     */
+    private QueueStatusResponse activateDegradedToken(QueueToken queueToken, String userId, Long performanceId) {
+        if (!queueToken.getUserId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, TOKEN_ERROR_MSG);
+        }
+        if (!queueToken.getPerformanceId().equals(performanceId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "요청한 공연 정보와 토큰이 일치하지 않습니다");
+        }
+        return switch (queueToken.getStatus()) {
+            case ACTIVE -> buildDegradedStatusResponse(queueToken);
+            case WAITING -> throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "아직 차례가 아닙니다. 현재 대기번호: " + degradedAdmission.position(queueToken));
+            default -> throw new ResponseStatusException(HttpStatus.GONE, "토큰이 만료되었거나 취소되었습니다");
+        };
+    }
+
     /**
      * 토큰 검증 - 사용자 ID와 공연 ID 모두 검증
      */
@@ -371,7 +501,15 @@ public class QueueService {
             return false;
         }
 
-        Optional<QueueToken> optionalToken = queueTokenRepository.findByToken(token);
+        Optional<QueueToken> degradedToken = degradedAdmission.find(token);
+        if (degradedToken.isPresent()) {
+            QueueToken queueToken = degradedToken.get();
+            return queueToken.getUserId().equals(userId)
+                    && queueToken.getPerformanceId().equals(performanceId)
+                    && queueToken.isActiveForBooking();
+        }
+
+        Optional<QueueToken> optionalToken = queueTokenStore.find(token);
         if (optionalToken.isEmpty()) {
             log.warn("토큰을 찾을 수 없음: {}", token);
             return false;
@@ -380,12 +518,15 @@ public class QueueService {
         QueueToken queueToken = optionalToken.get();
 
         if (queueToken.isExpired()) {
+            boolean wasActive = queueToken.getStatus() == QueueToken.TokenStatus.ACTIVE;
             queueToken.markAsExpired();
-            queueTokenRepository.save(queueToken);
+            queueTokenStore.save(queueToken);
 
-            if (queueToken.getStatus() == QueueToken.TokenStatus.ACTIVE) {
-                releaseTokenFromRedis(queueToken.getPerformanceId());
-                activateNextTokens(queueToken.getPerformanceId());
+            if (wasActive) {
+                releaseTokenFromRedis(queueToken);
+                activateNextTokens(queueToken.getPerformanceId(), queueToken.getScheduleId());
+            } else {
+                waitingLine.remove(queueToken.getPerformanceId(), queueToken.getScheduleId(), token);
             }
 
             log.warn("만료된 토큰: {}", token);
@@ -411,7 +552,18 @@ public class QueueService {
      * 토큰 사용 완료 - Redis와 DB 동기화
      */
     public void useToken(String token) {
-        QueueToken queueToken = queueTokenRepository.findByToken(token)
+        Optional<QueueToken> degradedToken = degradedAdmission.find(token);
+        if (degradedToken.isPresent()) {
+            if (!degradedToken.get().isActiveForBooking()) {
+                throw new IllegalStateException("예매 가능한 상태가 아닙니다");
+            }
+            degradedAdmission.complete(degradedToken.get(), QueueToken.TokenStatus.USED);
+            queueMetrics.used(degradedToken.get().getPerformanceId());
+            log.info(">>> 축소 운영 토큰 사용 완료: {}", token);
+            return;
+        }
+
+        QueueToken queueToken = queueTokenStore.find(token)
                 .orElseThrow(() -> new IllegalArgumentException(TOKEN_ERROR_MSG));
 
         if (!queueToken.isActiveForBooking()) {
@@ -419,151 +571,188 @@ public class QueueService {
         }
 
         queueToken.markAsUsed();
-        queueTokenRepository.save(queueToken);
+        queueTokenStore.save(queueToken);
+        queueMetrics.used(queueToken.getPerformanceId());
 
-        releaseTokenFromRedis(queueToken.getPerformanceId());
+        releaseTokenFromRedis(queueToken);
 
         log.info(">>> 토큰 사용 완료: {}", token);
 
-        activateNextTokens(queueToken.getPerformanceId());
+        activateNextTokens(queueToken.getPerformanceId(), queueToken.getScheduleId());
     }
 
     /**
-     * 세션 해제 (synchronized 버전)
+     * 세션 해제
+     * - Heartbeat 삭제와 카운터 감소는 스크립트로 원자적으로 처리
      */
     @Transactional
     public void releaseSession(String userId, Long performanceId, Long scheduleId) {
-        String heartbeatKey = HEARTBEAT_KEY_PREFIX + userId + ":" + performanceId + ":" + scheduleId;
-        String activeTokensKey = ACTIVE_TOKENS_KEY_PREFIX + performanceId;
-
         log.info("=== 세션 해제 시작: 사용자={}, 공연={} ===", userId, performanceId);
 
-        synchronized (queueLock) {
-            boolean heartbeatExisted = Boolean.TRUE.equals(redisTemplate.delete(heartbeatKey));
+        Optional<QueueToken> degradedToken = degradedAdmission.findLive(userId, performanceId);
+        if (degradedToken.isPresent()) {
+            degradedAdmission.complete(degradedToken.get(), QueueToken.TokenStatus.EXPIRED);
+            log.info(">>> 축소 운영 세션 해제 완료");
+            return;
+        }
 
-            Optional<QueueToken> activeToken = queueTokenRepository
-                    .findActiveTokenByUserIdAndPerformanceId(userId, performanceId);
+        long remaining = admissionControl.releaseWithHeartbeat(userId, performanceId, scheduleId);
+        expireActiveToken(userId, performanceId);
 
-            if (activeToken.isPresent() &&
-                    activeToken.get().getStatus() == QueueToken.TokenStatus.ACTIVE) {
+        if (remaining >= 0) {
+            waitTimeEstimator.recordCompletions(performanceId, 1);
+            log.info(">>> Redis 카운터 감소: 현재 {}", remaining);
+        }
 
-                QueueToken token = activeToken.get();
-                token.markAsExpired();
-                queueTokenRepository.save(token);
+        activateNextTokens(performanceId, scheduleId);
 
-                log.info(">>> DB 토큰 만료: {}", token.getToken());
-            }
+        log.info(">>> 세션 해제 완료");
+    }
 
-            if (heartbeatExisted) {
-                String countStr = redisTemplate.opsForValue().get(activeTokensKey);
-                int currentCount = (countStr != null) ? Integer.parseInt(countStr) : 0;
+    private void expireActiveToken(String userId, Long performanceId) {
+        Optional<QueueToken> activeToken = queueTokenStore.findLive(userId, performanceId);
 
-                if (currentCount > 0) {
-                    redisTemplate.opsForValue().decrement(activeTokensKey);
-                    log.info(">>> Redis 카운터 감소: {} -> {}", currentCount, currentCount - 1);
-                }
-            }
+        if (activeToken.isPresent() &&
+                activeToken.get().getStatus() == QueueToken.TokenStatus.ACTIVE) {
 
-            activateNextTokensInternal(performanceId, activeTokensKey);
+            QueueToken token = activeToken.get();
+            token.markAsExpired();
+            queueTokenStore.save(token);
+
+            log.info(">>> DB 토큰 만료: {}", token.getToken());
         }
+    }
 
-        log.info(">>> 세션 해제 완료");
+    /**
+     * 다음 대기자 활성화 (자리 반납 시점에 호출)
+     * - rate 모드에서는 AdmissionDispatcher 가 주기적으로 일정 인원씩 입장시키므로 여기서는 입장시키지 않음
+     */
+    @Transactional
+    public void activateNextTokens(Long performanceId, Long scheduleId) {
+        if (rateBasedAdmission) {
+            return;
+        }
+        admitWaitingTokens(performanceId, scheduleId, maxActiveTokens);
     }
 
     /**
-     * 내부용 - 락이 이미 걸려있다고 가정
+     * 레인 대기열 선두에서 최대 limit 명 입장 (레인/공연 동시 활성 수는 정원 이하로 유지)
+     * - 대기열 선두를 조회해 DB 상 WAITING 이 아니거나 만료된 토큰은 자리를 쓰기 전에 대기열에서 제거
+     * - 나머지는 사용자와 함께 후보로 넘겨 남은 정원만큼 스크립트로 꺼내고(Heartbeat 함께 등록) DB 토큰을 ACTIVE 로 전환
+     * - 매진된 회차의 레인은 입장시키지 않는다
+     * @return 활성화된 토큰 수
      */
-    private void activateNextTokensInternal(Long performanceId, String activeTokensKey) {
-        String activeStr = redisTemplate.opsForValue().get(activeTokensKey);
-        int currentActive = (activeStr != null) ? Integer.parseInt(activeStr) : 0;
+    @Transactional
+    public int admitWaitingTokens(Long performanceId, Long scheduleId, int limit) {
+        if (scheduleAvailability.isSoldOut(scheduleId)) {
+            log.debug("매진된 회차 - 입장 중지: 공연={}, 회차={}", performanceId, scheduleId);
+            return 0;
+        }
+        int activatedCount = 0;
 
-        log.info("=== 다음 대기자 활성화: 공연={}, 현재={}/{} ===",
-                performanceId, currentActive, maxActiveTokens);
+        while (activatedCount < limit) {
+            List<String> head = waitingLine.peek(performanceId, scheduleId, limit - activatedCount);
+            if (head.isEmpty()) {
+                break;
+            }
 
-        if (currentActive < maxActiveTokens) {
-            int slotsAvailable = maxActiveTokens - currentActive;
+            Map<String, QueueToken> tokensByValue = queueTokenStore.findAll(head).stream()
+                    .collect(Collectors.toMap(QueueToken::getToken, Function.identity()));
 
-            List<QueueToken> waitingTokens = queueTokenRepository
-                    .findWaitingTokensByPerformanceIdOrderByIssuedAt(performanceId)
-                    .stream()
-                    .limit(slotsAvailable)
-                    .toList();
+            List<AdmissionBackend.Candidate> candidates = new ArrayList<>();
+            List<String> stale = new ArrayList<>();
+            for (String value : head) {
+                QueueToken token = tokensByValue.get(value);
+                if (token != null && token.getStatus() == QueueToken.TokenStatus.WAITING && !token.isExpired()) {
+                    candidates.add(new AdmissionBackend.Candidate(value, token.getUserId()));
+                } else {
+                    stale.add(value);
+                }
+            }
+            if (!stale.isEmpty()) {
+                waitingLine.remove(performanceId, scheduleId, stale.toArray(String[]::new));
+                if (candidates.isEmpty()) {
+                    continue;
+                }
+            }
+
+            List<String> admitted = queueMetrics.timeAdmission("batch", () ->
+                    admissionControl.admitBatch(performanceId, scheduleId, capacity, candidates));
 
-            for (QueueToken token : waitingTokens) {
-                redisTemplate.opsForValue().increment(activeTokensKey);
-                redisTemplate.expire(activeTokensKey, Duration.ofMinutes(10));
+            log.info("=== 다음 대기자 활성화: 공연={}, 회차={}, 입장={}명 ===", performanceId, scheduleId, admitted.size());
 
+            if (admitted.isEmpty()) {
+                break;
+            }
+
+            List<QueueToken> activated = new ArrayList<>();
+            LocalDateTime now = LocalDateTime.now();
+            for (String value : admitted) {
+                QueueToken token = tokensByValue.get(value);
                 token.activate();
+                activated.add(token);
+                queueMetrics.timeInQueue(performanceId, Duration.between(token.getIssuedAt(), now));
                 log.info(">>> 토큰 활성화: {}", token.getToken());
             }
 
-            if (!waitingTokens.isEmpty()) {
-                queueTokenRepository.saveAll(waitingTokens);
-                updateWaitingPositions(performanceId);
+            queueTokenStore.saveAll(activated);
+            waitTimeEstimator.recordAdmissions(performanceId, activated.size());
+            queueMetrics.admitted(performanceId, "batch", activated.size());
+            activatedCount += activated.size();
+
+            if (admitted.size() < candidates.size()) {
+                // 정원이 찼거나 다른 경로로 먼저 입장한 후보가 있음 - 다음 호출에서 다시 확인
+                break;
             }
         }
+        return activatedCount;
     }
 
     /**
-     * 다음 대기자 활성화
+     * Heartbeat 갱신 (입장 처리된 세션의 마감만 갱신, 파이프라인 1회 왕복)
+     * - 입장하지 않은 사용자의 Heartbeat 는 무시 (만료 스윕이 잡은 적 없는 자리를 반납하지 않도록)
+     * @return 서버 권장 다음 Heartbeat 주기 (초)
      */
-    @Transactional
-    public void activateNextTokens(Long performanceId) {
-        String activeTokensKey = ACTIVE_TOKENS_KEY_PREFIX + performanceId;
-
-        synchronized (queueLock) {
-            activateNextTokensInternal(performanceId, activeTokensKey);
+    public int updateHeartbeat(String userId, Long performanceId, Long scheduleId) {
+        if (redisCircuitBreaker.isOpen()) {
+            // 축소 운영 세션은 Heartbeat 없이 예매 가능 시각까지 유지
+            return heartbeatRegistry.minIntervalSeconds();
         }
+        if (!heartbeatRegistry.touch(userId, performanceId, scheduleId)) {
+            log.debug("입장 처리되지 않은 세션의 Heartbeat 무시 - 사용자: {}, 공연: {}, 회차: {}",
+                    userId, performanceId, scheduleId);
+        }
+        return queueCounterCache.heartbeatIntervalSeconds(performanceId);
     }
 
-    /**
-     * Heartbeat 시작
-     */
-    private void startHeartbeat(String userId, Long performanceId, Long scheduleId) {
-        String heartbeatKey = HEARTBEAT_KEY_PREFIX + userId + ":" + performanceId + ":" + scheduleId;
-        redisTemplate.opsForValue().set(heartbeatKey, LocalDateTime.now().toString(),
-                Duration.ofSeconds(maxInactiveSeconds));
-        log.info("Heartbeat 시작: {}", heartbeatKey);
-    }
-
-    /**
-     * Heartbeat 갱신
-     */
-    public void updateHeartbeat(String userId, Long performanceId, Long scheduleId) {
-        String heartbeatKey = HEARTBEAT_KEY_PREFIX + userId + ":" + performanceId + ":" + scheduleId;
-        redisTemplate.opsForValue().set(heartbeatKey, LocalDateTime.now().toString(),
-                Duration.ofSeconds(maxInactiveSeconds));
-    }
     /**
      * 비활성 세션 정리 및 만료 토큰 처리
+     * - 공연별 heartbeats ZSET 에서 마감이 지난 멤버만 ZRANGEBYSCORE 로 조회 (KEYS 스캔 없음)
+     * - 만료 토큰은 (status, expires_at) 인덱스로 한 번에 SWEEP_BATCH_SIZE 개씩만 처리
      */
     public void cleanupInactiveSessions() {
         try {
-            LocalDateTime cutoff = LocalDateTime.now().minusSeconds(maxInactiveSeconds);
-            Set<String> heartbeatKeys = redisTemplate.keys(HEARTBEAT_KEY_PREFIX + "*");
-
-            if (heartbeatKeys != null) {
-                for (String heartbeatKey : heartbeatKeys) {
-                    String lastHeartbeat = redisTemplate.opsForValue().get(heartbeatKey);
-                    if (lastHeartbeat != null) {
-                        LocalDateTime lastTime = LocalDateTime.parse(lastHeartbeat);
-                        if (lastTime.isBefore(cutoff)) {
-                            processTimeout(heartbeatKey);
-                        }
-                    }
+            long now = System.currentTimeMillis();
+            for (Long performanceId : heartbeatRegistry.performanceIds()) {
+                for (HeartbeatRegistry.Member member : heartbeatRegistry.expired(performanceId, now, SWEEP_BATCH_SIZE)) {
+                    processTimeout(performanceId, member, now);
                 }
             }
 
-            List<QueueToken> expiredTokens = queueTokenRepository.findExpiredTokens(LocalDateTime.now());
+            List<QueueToken> expiredTokens = queueTokenStore.findExpired(LocalDateTime.now(), SWEEP_BATCH_SIZE);
             for (QueueToken token : expiredTokens) {
-                if (token.getStatus() == QueueToken.TokenStatus.ACTIVE) {
-                    token.markAsExpired();
-                    releaseTokenFromRedis(token.getPerformanceId());
-                    activateNextTokens(token.getPerformanceId());
+                boolean wasActive = token.getStatus() == QueueToken.TokenStatus.ACTIVE;
+                token.markAsExpired();
+                if (wasActive) {
+                    releaseTokenFromRedis(token);
+                    activateNextTokens(token.getPerformanceId(), token.getScheduleId());
+                } else {
+                    waitingLine.remove(token.getPerformanceId(), token.getScheduleId(), token.getToken());
                 }
             }
             if (!expiredTokens.isEmpty()) {
-                queueTokenRepository.saveAll(expiredTokens);
+                queueTokenStore.saveAll(expiredTokens);
+                expiredTokens.forEach(token -> queueMetrics.expired(token.getPerformanceId(), "ttl", 1));
             }
 
         } catch (Exception e) {
@@ -571,65 +760,84 @@ public class QueueService {
         }
     }
 
-    private void processTimeout(String heartbeatKey) {
+    private void processTimeout(Long performanceId, HeartbeatRegistry.Member member, long now) {
         try {
-            String[] parts = heartbeatKey.replace(HEARTBEAT_KEY_PREFIX, "").split(":");
-            if (parts.length >= 3) {
-                String userId = parts[0];
-                Long performanceId = Long.parseLong(parts[1]);
-                Long scheduleId = Long.parseLong(parts[2]);
-
-                log.warn("세션 타임아웃 - 사용자: {}", userId);
-                releaseSession(userId, performanceId, scheduleId);
+            long remaining = admissionControl.releaseExpiredHeartbeat(
+                    member.userId(), performanceId, member.scheduleId(), now);
+            if (remaining < 0) {
+                // 조회 이후 Heartbeat 가 갱신되었거나 다른 노드가 먼저 처리함
+                return;
             }
+
+            waitTimeEstimator.recordCompletions(performanceId, 1);
+            queueMetrics.expired(performanceId, "heartbeat", 1);
+            log.warn("세션 타임아웃 - 사용자: {}", member.userId());
+            expireActiveToken(member.userId(), performanceId);
+            activateNextTokens(performanceId, member.scheduleId());
         } catch (Exception e) {
             log.error("타임아웃 처리 중 오류", e);
         }
     }
 
-    private void releaseTokenFromRedis(Long performanceId) {
-        String activeTokensKey = ACTIVE_TOKENS_KEY_PREFIX + performanceId;
-        Long activeCount = redisTemplate.opsForValue().decrement(activeTokensKey);
-        if (activeCount < 0) {
-            redisTemplate.opsForValue().set(activeTokensKey, "0");
-        }
+    /**
+     * 토큰 기준 반납 - Heartbeat 도 함께 지워 만료 스윕이 같은 세션을 다시 반납하지 않게 한다
+     */
+    private void releaseTokenFromRedis(QueueToken token) {
+        long activeCount = admissionControl.release(token.getUserId(), token.getPerformanceId(), token.getScheduleId());
+        waitTimeEstimator.recordCompletions(token.getPerformanceId(), 1);
         log.info("Redis 활성 토큰 수 감소: {}", activeCount);
     }
 
-    private void updateWaitingPositions(Long performanceId) {
-        List<QueueToken> waitingTokens = queueTokenRepository
-                .findWaitingTokensByPerformanceIdOrderByIssuedAt(performanceId);
-
-        for (int i = 0; i < waitingTokens.size(); i++) {
-            QueueToken token = waitingTokens.get(i);
-            int position = i + 1;
-            int estimatedSeconds = position * waitTimePerPerson;
-            int estimatedMinutes = Math.max(1, estimatedSeconds / 60);
-
-            token.setPositionInQueue(position);
-            token.setEstimatedWaitTimeMinutes(estimatedMinutes);
+    /**
+     * 조회 시점에 순번/예상 대기시간 계산 (DB 에 저장하지 않음)
+     * - 예상 대기시간은 최근 관측된 입장률 기준 (WaitTimeEstimator)
+     */
+    private void updateQueuePosition(QueueToken token) {
+        if (token.getStatus() == QueueToken.TokenStatus.WAITING) {
+            long position = currentPosition(token);
+            WaitTimeEstimator.Estimate estimate = waitTimeEstimator.estimate(token.getPerformanceId(), position);
+
+            token.setPositionInQueue((int) position);
+            token.setEstimatedWaitTimeMinutes(toMinutes(estimate.seconds()));
+            token.setEstimatedWaitSeconds(estimate.seconds());
+            token.setEstimatedWaitSecondsLower(estimate.lowerSeconds());
+            token.setEstimatedWaitSecondsUpper(estimate.upperSeconds());
+            token.setAdmissionsPerMinute(estimate.admissionsPerMinute());
         }
+    }
 
-        if (!waitingTokens.isEmpty()) {
-            queueTokenRepository.saveAll(waitingTokens);
-        }
+    private static Integer toMinutes(Integer seconds) {
+        return seconds != null ? Math.max(1, (seconds + 59) / 60) : null;
     }
 
-    private void updateQueuePosition(QueueToken token) {
-        if (token.getStatus() == QueueToken.TokenStatus.WAITING) {
-            Long position = queueTokenRepository.findPositionInQueue(
-                    token.getPerformanceId(), token.getIssuedAt()) + 1;
-            int estimatedSeconds = position.intValue() * waitTimePerPerson;
-            int estimatedMinutes = Math.max(1, estimatedSeconds / 60);
+    /**
+     * 현재 순번 = 자기 시퀀스 - 선두 시퀀스 + 1
+     * - 공연당 선두 시퀀스 하나만 읽으므로 다른 대기자 행을 건드리지 않는다
+     * - 중간 이탈자는 반영되지 않아 실제보다 조금 클 수 있으나 선두에 가까워질수록 정확해진다
+     * - 대기열이 비었거나 선두보다 앞선 시퀀스면 Redis 에서 유실된 것으로 보고 저장된 시퀀스로 다시 줄을 세운다
+     */
+    private long currentPosition(QueueToken token) {
+        Long performanceId = token.getPerformanceId();
+        Long scheduleId = token.getScheduleId();
+
+        if (token.getQueueSequence() == null) {
+            token.setQueueSequence(waitingLine.enqueue(performanceId, scheduleId, token.getToken()));
+            queueTokenStore.save(token);
+        }
+        long sequence = token.getQueueSequence();
 
-            token.setPositionInQueue(position.intValue());
-            token.setEstimatedWaitTimeMinutes(estimatedMinutes);
-            queueTokenRepository.save(token);
+        Long headSequence = waitingLine.headSequence(performanceId, scheduleId);
+        if (headSequence == null || sequence < headSequence) {
+            waitingLine.restore(performanceId, scheduleId, token.getToken(), sequence);
+            log.warn("Redis 대기열에 없는 토큰 복구: {}", token.getToken());
+            headSequence = waitingLine.headSequence(performanceId, scheduleId);
         }
+
+        return WaitingLine.positionOf(sequence, headSequence != null ? headSequence : sequence);
     }
 
-    private int getRedisWaitingCount(Long performanceId) {
-        return queueTokenRepository.countWaitingTokensByPerformanceId(performanceId).intValue();
+    private int getRedisWaitingCount(Long performanceId, Long scheduleId) {
+        return (int) queueCounterCache.waitingCount(performanceId, scheduleId);
     }
 
     private String generateToken() {
@@ -679,18 +887,44 @@ public class QueueService {
                 .status(token.getStatus())
                 .positionInQueue(position)
                 .estimatedWaitTime(waitTime)
+                .estimatedWaitTimeLower(toMinutes(token.getEstimatedWaitSecondsLower()))
+                .estimatedWaitTimeUpper(toMinutes(token.getEstimatedWaitSecondsUpper()))
+                .admissionsPerMinute(token.getAdmissionsPerMinute())
                 .isActiveForBooking(token.isActiveForBooking())
                 .bookingExpiresAt(token.getBookingExpiresAt())
+                .performanceId(token.getPerformanceId())
+                .scheduleId(token.getScheduleId())
+                .queueSequence(token.getQueueSequence())
+                .heartbeatIntervalSeconds(queueCounterCache.heartbeatIntervalSeconds(token.getPerformanceId()))
+                .admissionTicket(issueAdmissionTicket(token))
                 //  performanceTitle 제거 (Performance entity 없음)
                 .performanceTitle(null)
                 .build();
     }
 
-    private QueueCheckResponse buildQueueCheckResponse(QueueToken token, Long performanceId, Long ScheduleId) {
+    private QueueStatusResponse buildDegradedStatusResponse(QueueToken token) {
+        int position = degradedAdmission.position(token);
+        int waitSeconds = token.getStatus() == QueueToken.TokenStatus.WAITING
+                ? degradedAdmission.estimatedWaitSeconds(position) : 0;
+
+        return QueueStatusResponse.builder()
+                .token(token.getToken())
+                .status(token.getStatus())
+                .positionInQueue(position)
+                .estimatedWaitTime(waitSeconds > 0 ? toMinutes(waitSeconds) : 0)
+                .isActiveForBooking(token.isActiveForBooking())
+                .bookingExpiresAt(token.getBookingExpiresAt())
+                .performanceId(token.getPerformanceId())
+                .scheduleId(token.getScheduleId())
+                .queueSequence(token.getQueueSequence())
+                .admissionTicket(issueAdmissionTicket(token))
+                .build();
+    }
+
+    private QueueCheckResponse buildQueueCheckResponse(QueueToken token) {
+        Long performanceId = token.getPerformanceId();
         if (token.getStatus() == QueueToken.TokenStatus.ACTIVE) {
-            String activeTokensKey = ACTIVE_TOKENS_KEY_PREFIX + performanceId;
-            String activeTokensStr = redisTemplate.opsForValue().get(activeTokensKey);
-            int activeTokens = activeTokensStr != null ? Integer.parseInt(activeTokensStr) : 0;
+            int activeTokens = queueCounterCache.activeCount(performanceId, token.getScheduleId());
 
             return QueueCheckResponse.builder()
                     .requiresQueue(false)
@@ -699,31 +933,107 @@ public class QueueService {
                     .message("이미 활성화된 토큰이 있습니다")
                     .currentActiveSessions(activeTokens)
                     .maxConcurrentSessions(maxActiveTokens)
+                    .heartbeatIntervalSeconds(queueCounterCache.heartbeatIntervalSeconds(performanceId))
+                    .admissionTicket(issueAdmissionTicket(token))
                     .build();
 
         } else {
             updateQueuePosition(token);
-            int estimatedWait = token.getPositionInQueue() * waitTimePerPerson;
 
             return QueueCheckResponse.builder()
                     .requiresQueue(true)
                     .canProceedDirectly(false)
                     .sessionId(token.getToken())
                     .message("대기열에서 대기 중입니다")
-                    .estimatedWaitTime(estimatedWait)
+                    .estimatedWaitTime(token.getEstimatedWaitSeconds())
+                    .estimatedWaitTimeLower(token.getEstimatedWaitSecondsLower())
+                    .estimatedWaitTimeUpper(token.getEstimatedWaitSecondsUpper())
+                    .admissionsPerMinute(token.getAdmissionsPerMinute())
                     .currentWaitingCount(token.getPositionInQueue())
+                    .heartbeatIntervalSeconds(queueCounterCache.heartbeatIntervalSeconds(performanceId))
                     .build();
         }
     }
 
+    /**
+     * 축소 운영 토큰 응답 - Redis 를 읽지 않고 로컬 정원/순번 기준으로 만든다 (Heartbeat 주기는 최소값)
+     */
+    private QueueCheckResponse buildDegradedCheckResponse(QueueToken token) {
+        if (token.getStatus() == QueueToken.TokenStatus.ACTIVE) {
+            return QueueCheckResponse.builder()
+                    .requiresQueue(false)
+                    .canProceedDirectly(true)
+                    .sessionId(token.getToken())
+                    .message("좌석 선택으로 이동합니다")
+                    .reason(DEGRADED_REASON)
+                    .maxConcurrentSessions(degradedAdmission.laneCapacity())
+                    .heartbeatIntervalSeconds(heartbeatRegistry.minIntervalSeconds())
+                    .admissionTicket(issueAdmissionTicket(token))
+                    .build();
+        }
+
+        int position = degradedAdmission.position(token);
+        int waitSeconds = degradedAdmission.estimatedWaitSeconds(position);
+        return QueueCheckResponse.builder()
+                .requiresQueue(true)
+                .canProceedDirectly(false)
+                .sessionId(token.getToken())
+                .message("현재 많은 사용자가 접속중입니다. 대기열에 참여합니다.")
+                .reason(DEGRADED_REASON)
+                .maxConcurrentSessions(degradedAdmission.laneCapacity())
+                .estimatedWaitTime(waitSeconds)
+                .currentWaitingCount(position)
+                .heartbeatIntervalSeconds(heartbeatRegistry.minIntervalSeconds())
+                .build();
+    }
+
+    private QueueCheckResponse systemErrorResponse() {
+        return QueueCheckResponse.builder()
+                .requiresQueue(true)
+                .canProceedDirectly(false)
+                .message("시스템 오류로 대기열에 참여합니다.")
+                .reason("시스템 오류")
+                .build();
+    }
+
+    private QueueCheckResponse soldOutResponse() {
+        return QueueCheckResponse.builder()
+                .requiresQueue(false)
+                .canProceedDirectly(false)
+                .message(SOLD_OUT_MSG)
+                .reason("매진")
+                .build();
+    }
+
+    /**
+     * 예매 가능한 토큰에만 입장 티켓 발급 (nonce = 토큰 문자열)
+     */
+    private String issueAdmissionTicket(QueueToken token) {
+        if (!token.isActiveForBooking()) {
+            return null;
+        }
+        return admissionTicketIssuer.issue(token.getUserId(), token.getPerformanceId(), token.getScheduleId(),
+                token.getToken(), token.getBookingExpiresAt());
+    }
+
     @Transactional(readOnly = true)
     public QueueToken getTokenByString(String token) {
-        return queueTokenRepository.findByToken(token)
+        return queueTokenStore.find(token)
                 .orElseThrow(() -> new IllegalArgumentException("토큰을 찾을 수 없습니다: " + token));
     }
 
     public void cancelToken(String token, String userId) {
-        QueueToken queueToken = queueTokenRepository.findByToken(token)
+        Optional<QueueToken> degradedToken = degradedAdmission.find(token);
+        if (degradedToken.isPresent()) {
+            if (!degradedToken.get().getUserId().equals(userId)) {
+                throw new IllegalArgumentException("토큰을 취소할 권한이 없습니다");
+            }
+            degradedAdmission.complete(degradedToken.get(), QueueToken.TokenStatus.CANCELLED);
+            log.info("축소 운영 토큰 취소: {}", token);
+            return;
+        }
+
+        QueueToken queueToken = queueTokenStore.find(token)
                 .orElseThrow(() -> new IllegalArgumentException(TOKEN_ERROR_MSG));
 
         if (!queueToken.getUserId().equals(userId)) {
@@ -734,21 +1044,27 @@ public class QueueService {
         boolean wasActive = (originalStatus == QueueToken.TokenStatus.ACTIVE);
 
         queueToken.setStatus(QueueToken.TokenStatus.CANCELLED);
-        queueTokenRepository.save(queueToken);
+        queueTokenStore.save(queueToken);
+        queueMetrics.cancelled(queueToken.getPerformanceId(), originalStatus.name());
 
         log.info("토큰 취소: {} (원래 상태: {})", token, originalStatus);
 
         if (wasActive) {
-            releaseTokenFromRedis(queueToken.getPerformanceId());
+            releaseTokenFromRedis(queueToken);
             log.info(">>> 활성 토큰 취소로 Redis 카운터 감소");
+        } else if (originalStatus == QueueToken.TokenStatus.WAITING) {
+            waitingLine.remove(queueToken.getPerformanceId(), queueToken.getScheduleId(), token);
         }
 
-        activateNextTokens(queueToken.getPerformanceId());
+        activateNextTokens(queueToken.getPerformanceId(), queueToken.getScheduleId());
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * 사용자의 대기/활성 토큰 목록 - 순번 복구로 토큰이 바뀔 수 있어 읽기 전용 트랜잭션으로 묶지 않는다
+     */
     public List<QueueStatusResponse> getUserActiveTokens(String userId) {
-        List<QueueToken> tokens = queueTokenRepository.findActiveTokensByUserId(userId);
+        List<QueueToken> tokens = queueTokenStore.findLiveByUser(userId);
+        tokens.forEach(this::updateQueuePosition);
         return tokens.stream()
                 .map(token -> QueueStatusResponse.builder()
                         .token(token.getToken())
@@ -765,7 +1081,7 @@ public class QueueService {
     public void clearAllSessions() {
         try {
             Set<String> sessionKeys = redisTemplate.keys(SESSION_KEY_PREFIX + "*");
-            Set<String> heartbeatKeys = redisTemplate.keys(HEARTBEAT_KEY_PREFIX + "*");
+            Set<String> heartbeatKeys = redisTemplate.keys(HEARTBEATS_KEY_PREFIX + "*");
             Set<String> activeTokenKeys = redisTemplate.keys(ACTIVE_TOKENS_KEY_PREFIX + "*");
 
             if (!sessionKeys.isEmpty()) {
@@ -777,36 +1093,66 @@ public class QueueService {
             if (!activeTokenKeys.isEmpty()) {
                 redisTemplate.delete(activeTokenKeys);
             }
+            // DB 에 남은 ACTIVE 토큰 기준으로 활성 카운터/Heartbeat 를 다시 세우도록 재구성 예약
+            queueTokenRecovery.invalidate();
             log.info("모든 세션 초기화 완료");
         } catch (Exception e) {
             log.error("세션 초기화 중 오류", e);
         }
     }
 
-    public void cleanupOldTokens() {
-        LocalDateTime cutoffTime = LocalDateTime.now().minusDays(1);
-        List<QueueToken> oldTokens = queueTokenRepository.findOldUsedTokens(cutoffTime);
-        if (!oldTokens.isEmpty()) {
-            queueTokenRepository.deleteAll(oldTokens);
-            log.info("오래된 토큰 {} 개 정리 완료", oldTokens.size());
-        }
+    public String getAdmissionBackend() {
+        return admissionControl.backend();
+    }
+
+    /**
+     * 입장 제어 백엔드 전환 (재배포 없이 활성 카운터 저장소 교체, Redis 장애 중에는 거절)
+     */
+    public void switchAdmissionBackend(String name) {
+        admissionControl.use(name);
     }
 
     public void processQueue() {
         cleanupInactiveSessions();
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * 공연별 대기열 통계 (관리자용)
+     * - 대기/활성 인원은 Redis 기준 게이지 값, 나머지는 이 노드의 Micrometer 카운터 값
+     */
     public List<QueueStatsResponse> getQueueStatsByPerformance() {
-        // Performance entity 없이 통계 조회
-        // 이 메서드는 사용 안 하거나 performanceId 목록을 받아야 함
-        log.warn("getQueueStatsByPerformance() - Performance entity 제거로 사용 불가");
-        return List.of();
+        Map<Long, QueueMetrics.Depth> depths = queueMetrics.depths();
+
+        return queueMetrics.performanceIds().stream()
+                .sorted()
+                .map(performanceId -> {
+                    QueueMetrics.Depth depth = depths.get(performanceId);
+                    Double averageWaitSeconds = queueMetrics.averageTimeInQueueSeconds(performanceId);
+                    return QueueStatsResponse.builder()
+                            .performanceId(performanceId)
+                            .performanceTitle(null) // Entity 없음
+                            .waitingCount(depth != null ? depth.waiting() : queueCounterCache.waitingCount(performanceId, null))
+                            .activeCount(depth != null ? depth.active() : (long) queueCounterCache.activeCount(performanceId, null))
+                            .admittedCount(queueMetrics.count(QueueMetrics.ADMISSIONS, performanceId))
+                            .usedCount(queueMetrics.count(QueueMetrics.TOKENS_USED, performanceId))
+                            .expiredCount(queueMetrics.count(QueueMetrics.EXPIRATIONS, performanceId))
+                            .cancelledCount(queueMetrics.count(QueueMetrics.CANCELLATIONS, performanceId))
+                            .driftCount(queueMetrics.count(QueueMetrics.ACTIVE_DRIFT, performanceId))
+                            .averageWaitTimeMinutes(averageWaitSeconds != null
+                                    ? toMinutes((int) Math.ceil(averageWaitSeconds)) : null)
+                            .admissionsPerMinute(waitTimeEstimator.estimate(performanceId, 1).admissionsPerMinute())
+                            .build();
+                })
+                .toList();
     }
 
+    /**
+     * 공연의 모든 레인 대기열 강제 처리
+     */
     public void forceProcessQueue(Long performanceId) {
-        activateNextTokens(performanceId);
-        updateWaitingPositions(performanceId);
+        waitingLine.recentLanes(LANE_HORIZON).stream()
+                .filter(lane -> lane.performanceId().equals(performanceId))
+                .forEach(lane -> admitWaitingTokens(performanceId, lane.scheduleId(), maxActiveTokens));
         log.info("공연 {} 대기열 강제 처리 완료", performanceId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package org.ddcn41.queue.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.ddcn41.queue.repository.QueueTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 오래된 사용 완료 토큰 정리
+ * - chunk-size 행씩 ctid 기반 DELETE 를 반복하고, 묶음마다 트랜잭션을 끊어 잠금/WAL 을 짧게 유지
+ * - 묶음 사이에 pause-ms 만큼 쉬고 한 번 실행에 max-duration-ms 를 넘기지 않아 주 DB 를 점유하지 않는다
+ * - 남은 행은 다음 실행에서 이어서 정리
+ * - 스케줄러 스레드를 막지 않도록 전용 스레드에서 실행하고, 이전 실행이 끝나지 않았으면 이번 실행은 건너뛴다
+ */
+@Slf4j
+@Component
+public class QueueTokenPurger {
+    private final QueueTokenRepository queueTokenRepository;
+    private final Duration retention;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final long maxDurationMillis;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "queue-token-purger");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public QueueTokenPurger(QueueTokenRepository queueTokenRepository,
+                            @Value("${queue.purge.retention-hours:24}") long retentionHours,
+                            @Value("${queue.purge.chunk-size:5000}") int chunkSize,
+                            @Value("${queue.purge.pause-ms:200}") long pauseMillis,
+                            @Value("${queue.purge.max-duration-ms:5000}") long maxDurationMillis) {
+        this.queueTokenRepository = queueTokenRepository;
+        this.retention = Duration.ofHours(retentionHours);
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.maxDurationMillis = maxDurationMillis;
+    }
+
+    /**
+     * 전용 스레드에서 정리 시작 (바로 반환)
+     * @return 시작했으면 true, 이전 실행이 아직 진행 중이면 false
+     */
+    public boolean purgeInBackground() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                purgeOldTokens();
+            } catch (Exception e) {
+                log.error("오래된 토큰 정리 중 오류 발생", e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * @return 삭제된 토큰 수
+     */
+    public long purgeOldTokens() {
+        LocalDateTime cutoffTime = LocalDateTime.now().minus(retention);
+        long deadline = System.currentTimeMillis() + maxDurationMillis;
+        long purged = 0;
+
+        while (System.currentTimeMillis() < deadline) {
+            int deleted = queueTokenRepository.deleteOldUsedTokens(cutoffTime, chunkSize);
+            purged += deleted;
+            if (deleted < chunkSize) {
+                break;
+            }
+
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (purged > 0) {
+            log.info("오래된 토큰 {} 개 정리 완료", purged);
+        }
+        return purged;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,244 @@
+package org.ddcn41.queue.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.ddcn41.queue.entity.QueueToken;
+import org.ddcn41.queue.repository.QueueTokenRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 기동 시(또는 Redis 유실 감지 시) queue_tokens 기준으로 Redis 대기열 상태 재구성
+ * 1) Redis → DB: dirty 집합에 남은 토큰(반영 전 크래시)을 Redis 상태 그대로 upsert
+ * 2) DB → Redis: WAITING/ACTIVE 행을 token_id 커서로 묶음 단위로 읽어 파이프라인으로 적재
+ *    - 토큰 해시: Redis 에 없는 토큰만
+ *    - 대기열: 기존 queueSequence 로 ZADD NX, 시퀀스 카운터는 복구한 최대값 이상으로
+ *    - 활성 카운터/Heartbeat: 카운터와 Heartbeat 인덱스가 모두 사라진 공연만 ACTIVE 행 수만큼 복구
+ * - 재구성하는 동안 readiness 는 REFUSING_TRAFFIC, 이 노드의 입장 스케줄러도 멈춘다
+ * - 여러 노드가 동시에 카운터를 더하지 않도록 재구성은 Redis 락(SET NX)을 잡은 한 노드만 수행
+ * - 완료 표시 키가 사라지면(Redis 재시작/FLUSH, 세션 초기화) 다음 점검에서 다시 재구성
+ */
+@Slf4j
+@Component
+public class QueueTokenRecovery {
+    private static final int PAGE_SIZE = 500;
+    private static final String REBUILT_MARKER_KEY = "queue_state_rebuilt";
+    private static final String REBUILD_LOCK_KEY = "queue_state_rebuild_lock";
+    private static final Duration REBUILD_LOCK_TTL = Duration.ofMinutes(10);
+
+    private final QueueTokenStore queueTokenStore;
+    private final QueueTokenWriteBehind writeBehind;
+    private final QueueTokenRepository queueTokenRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final WaitingLine waitingLine;
+    private final AdmissionControl admissionControl;
+    private final HeartbeatRegistry heartbeatRegistry;
+    private final QueueMetrics queueMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile boolean rebuilding;
+
+    public QueueTokenRecovery(QueueTokenStore queueTokenStore,
+                              QueueTokenWriteBehind writeBehind,
+                              QueueTokenRepository queueTokenRepository,
+                              @Qualifier("stringRedisTemplate") RedisTemplate<String, String> redisTemplate,
+                              WaitingLine waitingLine,
+                              AdmissionControl admissionControl,
+                              HeartbeatRegistry heartbeatRegistry,
+                              QueueMetrics queueMetrics,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${queue.rebuild.chunk-size:1000}") int chunkSize) {
+        this.queueTokenStore = queueTokenStore;
+        this.writeBehind = writeBehind;
+        this.queueTokenRepository = queueTokenRepository;
+        this.redisTemplate = redisTemplate;
+        this.waitingLine = waitingLine;
+        this.admissionControl = admissionControl;
+        this.heartbeatRegistry = heartbeatRegistry;
+        this.queueMetrics = queueMetrics;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 기동 직후 재구성 - 이 리스너가 끝난 뒤에 ACCEPTING_TRAFFIC 으로 전환된다
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        rebuild("startup");
+    }
+
+    /**
+     * 완료 표시 키가 없으면 Redis 상태가 유실된 것으로 보고 재구성
+     */
+    public void rebuildIfLost() {
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(REBUILT_MARKER_KEY))) {
+            rebuild("redis-lost");
+        }
+    }
+
+    /**
+     * 다음 점검에서 재구성하도록 완료 표시 제거 (세션 초기화 등으로 Redis 상태를 지운 경우)
+     */
+    public void invalidate() {
+        redisTemplate.delete(REBUILT_MARKER_KEY);
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding;
+    }
+
+    private void rebuild(String reason) {
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(REBUILD_LOCK_KEY, reason, REBUILD_LOCK_TTL))) {
+                log.info("다른 노드가 대기열 상태 재구성 중 - 건너뜀");
+                return;
+            }
+            rebuilding = true;
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+
+            long started = System.nanoTime();
+            int flushed = flushDirtyTokens();
+            RebuildStats stats = reloadLiveTokens();
+            redisTemplate.opsForValue().set(REBUILT_MARKER_KEY, LocalDateTime.now().toString());
+
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+            queueMetrics.rebuilt(stats.rows, elapsed);
+            log.info("대기열 상태 재구성 완료({}) - DB 반영: {}건, 읽은 행: {}건, 토큰 적재: {}건, 대기 복구: {}건, "
+                            + "활성 복구: {}건, 소요: {}ms ({} rows/s)",
+                    reason, flushed, stats.rows, stats.loaded, stats.waiting, stats.active, elapsed.toMillis(),
+                    elapsed.toMillis() > 0 ? stats.rows * 1000 / elapsed.toMillis() : stats.rows);
+        } catch (Exception e) {
+            // 실패해도 완료 표시가 없으므로 다음 점검에서 다시 시도
+            log.error("대기열 상태 재구성 중 오류", e);
+        } finally {
+            if (rebuilding) {
+                rebuilding = false;
+                AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+                releaseRebuildLock();
+            }
+            rebuildLock.unlock();
+        }
+    }
+
+    private void releaseRebuildLock() {
+        try {
+            redisTemplate.delete(REBUILD_LOCK_KEY);
+        } catch (Exception e) {
+            log.warn("재구성 락 해제 실패 - TTL 만료 후 해제됨: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * DB 에 반영되지 못한 토큰을 Redis 상태 기준으로 upsert
+     */
+    int flushDirtyTokens() {
+        int flushed = 0;
+        while (true) {
+            Set<String> dirty = redisTemplate.opsForZSet().range(QueueTokenStore.DIRTY_TOKENS_KEY, 0, PAGE_SIZE - 1L);
+            if (dirty == null || dirty.isEmpty()) {
+                return flushed;
+            }
+
+            List<QueueToken> snapshots = new ArrayList<>();
+            for (String token : dirty) {
+                queueTokenStore.findInRedis(token).ifPresentOrElse(snapshots::add,
+                        // 해시가 TTL 로 사라졌으면 복구할 상태가 없으므로 dirty 표시만 제거
+                        () -> redisTemplate.opsForZSet().remove(QueueTokenStore.DIRTY_TOKENS_KEY, token));
+            }
+            if (!snapshots.isEmpty()) {
+                writeBehind.upsert(snapshots);
+                flushed += snapshots.size();
+            }
+        }
+    }
+
+    /**
+     * 만료 전 WAITING/ACTIVE 토큰을 token_id 순으로 chunkSize 개씩 읽어 Redis 에 적재
+     */
+    RebuildStats reloadLiveTokens() {
+        RebuildStats stats = new RebuildStats();
+        Map<Long, Boolean> lostSessions = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        long afterId = 0L;
+        while (true) {
+            List<QueueToken> chunk = queueTokenRepository.findLiveTokensAfter(now, afterId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                return stats;
+            }
+            reloadChunk(chunk, lostSessions, stats);
+            stats.rows += chunk.size();
+            afterId = chunk.get(chunk.size() - 1).getTokenId();
+            if (chunk.size() < chunkSize) {
+                return stats;
+            }
+        }
+    }
+
+    private void reloadChunk(List<QueueToken> chunk, Map<Long, Boolean> lostSessions, RebuildStats stats) {
+        stats.loaded += queueTokenStore.loadAllIfAbsent(chunk.stream().map(QueueTokenStore::copyOf).toList());
+
+        Map<QueueLane, Map<String, Long>> waiting = new HashMap<>();
+        Map<Long, Map<String, Long>> active = new HashMap<>();
+        for (QueueToken token : chunk) {
+            if (token.getStatus() == QueueToken.TokenStatus.WAITING && token.getQueueSequence() != null) {
+                waiting.computeIfAbsent(QueueLane.of(token.getPerformanceId(), token.getScheduleId()),
+                                lane -> new HashMap<>())
+                        .put(token.getToken(), token.getQueueSequence());
+            } else if (token.getStatus() == QueueToken.TokenStatus.ACTIVE) {
+                active.computeIfAbsent(token.getPerformanceId(), id -> new HashMap<>())
+                        .put(token.getUserId(), token.getScheduleId());
+            }
+        }
+
+        waiting.forEach((lane, sequences) -> {
+            waitingLine.restoreAll(lane.performanceId(), lane.scheduleId(), sequences);
+            stats.waiting += sequences.size();
+        });
+        active.forEach((performanceId, schedulesByUser) -> {
+            Boolean lost = lostSessions.get(performanceId);
+            if (lost == null) {
+                // 공연을 처음 만났을 때 한 번만 판별 - 카운터나 Heartbeat 가 남아 있으면 Redis 값을 신뢰
+                lost = !admissionControl.hasActiveCount(performanceId) && !heartbeatRegistry.exists(performanceId);
+                lostSessions.put(performanceId, lost);
+            }
+            if (lost) {
+                Map<Long, Long> laneCounts = new HashMap<>();
+                schedulesByUser.values().forEach(scheduleId -> laneCounts.merge(scheduleId, 1L, Long::sum));
+                laneCounts.forEach((scheduleId, count) ->
+                        admissionControl.restoreActiveCount(performanceId, scheduleId, count));
+                heartbeatRegistry.restoreAll(performanceId, schedulesByUser);
+                stats.active += schedulesByUser.size();
+            }
+        });
+    }
+
+    static final class RebuildStats {
+        private long rows;
+        private int loaded;
+        private int waiting;
+        private int active;
+    }
+}
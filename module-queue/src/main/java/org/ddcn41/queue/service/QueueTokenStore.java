@@ -0,0 +1,313 @@
+package org.ddcn41.queue.service;
+
+import org.ddcn41.queue.entity.QueueToken;
+import org.ddcn41.queue.repository.QueueTokenRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 대기열 토큰 저장소 (Redis 우선, DB 는 write-behind)
+ * - queue_token:{token}       HASH  토큰 상태 (원본)
+ * - user_tokens:{userId}      SET   사용자별 WAITING/ACTIVE 토큰
+ * - token_expiry              ZSET  WAITING/ACTIVE 토큰의 만료 시각 (만료 스윕용)
+ * - queue_token_dirty         ZSET  DB 에 아직 반영되지 않은 토큰, score 는 변경 시각 (크래시 복구용)
+ * 상태 변경은 Redis 에 먼저 기록하고 QueueTokenWriteBehind 버퍼를 통해 queue_tokens 에 일괄 반영한다
+ */
+@Component
+public class QueueTokenStore {
+    private static final String TOKEN_KEY_PREFIX = "queue_token:";
+    private static final String USER_TOKENS_KEY_PREFIX = "user_tokens:";
+    static final String TOKEN_EXPIRY_KEY = "token_expiry";
+    static final String DIRTY_TOKENS_KEY = "queue_token_dirty";
+
+    // 값이 없을 수 있는 필드 - 저장할 때 비어 있으면 HDEL (DEL 후 재작성하면 그 사이 조회가 빈 해시를 본다)
+    private static final List<String> OPTIONAL_FIELDS = List.of(
+            "scheduleId", "bookingExpiresAt", "activatedAt", "usedAt", "queueSequence", "createdAt", "updatedAt");
+
+    // 종료된 토큰은 조회용으로 하루만 보관 (이후에는 DB 에서 조회)
+    private static final Duration TERMINAL_TTL = Duration.ofDays(1);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final QueueTokenRepository queueTokenRepository;
+    private final QueueTokenWriteBehind writeBehind;
+
+    public QueueTokenStore(@Qualifier("stringRedisTemplate") RedisTemplate<String, String> redisTemplate,
+                           QueueTokenRepository queueTokenRepository,
+                           QueueTokenWriteBehind writeBehind) {
+        this.redisTemplate = redisTemplate;
+        this.queueTokenRepository = queueTokenRepository;
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * 토큰 저장 - Redis 에 즉시 반영하고 DB 반영은 버퍼에 위임
+     */
+    public QueueToken save(QueueToken token) {
+        saveAll(List.of(token));
+        return token;
+    }
+
+    /**
+     * 여러 토큰을 파이프라인 한 번으로 저장
+     */
+    public void saveAll(List<QueueToken> tokens) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (QueueToken token : tokens) {
+            if (token.getCreatedAt() == null) {
+                token.setCreatedAt(now);
+            }
+            token.setUpdatedAt(now);
+        }
+
+        write(tokens, true);
+        writeBehind.enqueueAll(tokens.stream().map(QueueTokenStore::copyOf).toList());
+    }
+
+    /**
+     * 토큰 조회 (Redis 에 없으면 DB 에서 조회, DB 엔티티는 분리된 복사본으로 반환)
+     */
+    public Optional<QueueToken> find(String token) {
+        Map<Object, Object> hash = redisTemplate.opsForHash().entries(tokenKey(token));
+        if (!hash.isEmpty()) {
+            return Optional.of(fromHash(hash));
+        }
+        return queueTokenRepository.findByToken(token).map(QueueTokenStore::copyOf);
+    }
+
+    /**
+     * 토큰 일괄 조회 (파이프라인 1회, Redis 에 없는 토큰은 제외)
+     */
+    public List<QueueToken> findAll(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        List<Object> hashes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            tokens.forEach(token -> stringConnection.hGetAll(tokenKey(token)));
+            return null;
+        });
+
+        List<QueueToken> found = new ArrayList<>();
+        for (Object hash : hashes) {
+            if (hash instanceof Map<?, ?> map && !map.isEmpty()) {
+                found.add(fromHash(map));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 사용자의 WAITING/ACTIVE 토큰 (최근 발급 순)
+     */
+    public List<QueueToken> findLiveByUser(String userId) {
+        Set<String> tokens = redisTemplate.opsForSet().members(userTokensKey(userId));
+        if (tokens == null || tokens.isEmpty()) {
+            return List.of();
+        }
+        return findAll(new ArrayList<>(tokens)).stream()
+                .filter(QueueTokenStore::isLive)
+                .sorted(Comparator.comparing(QueueToken::getIssuedAt).reversed())
+                .toList();
+    }
+
+    /**
+     * 사용자와 공연의 WAITING/ACTIVE 토큰 중 가장 최근 것
+     */
+    public Optional<QueueToken> findLive(String userId, Long performanceId) {
+        return findLiveByUser(userId).stream()
+                .filter(token -> token.getPerformanceId().equals(performanceId))
+                .findFirst();
+    }
+
+    /**
+     * 만료 시각이 지난 WAITING/ACTIVE 토큰 (최대 limit 개)
+     */
+    public List<QueueToken> findExpired(LocalDateTime now, int limit) {
+        Set<String> tokens = redisTemplate.opsForZSet()
+                .rangeByScore(TOKEN_EXPIRY_KEY, 0, toEpochMillis(now), 0, limit);
+        if (tokens == null || tokens.isEmpty()) {
+            return List.of();
+        }
+        return findAll(new ArrayList<>(tokens));
+    }
+
+    /**
+     * Redis 에 없는 토큰만 DB 기준으로 적재 (복구용, DB 반영 대상으로 표시하지 않음)
+     * - 존재 확인과 적재를 각각 파이프라인 한 번으로 처리
+     * @return 적재한 토큰 수
+     */
+    int loadAllIfAbsent(List<QueueToken> tokens) {
+        if (tokens.isEmpty()) {
+            return 0;
+        }
+        List<Object> exists = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            tokens.forEach(token -> stringConnection.exists(tokenKey(token.getToken())));
+            return null;
+        });
+
+        List<QueueToken> absent = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            if (!Boolean.TRUE.equals(exists.get(i))) {
+                absent.add(tokens.get(i));
+            }
+        }
+        if (!absent.isEmpty()) {
+            write(absent, false);
+        }
+        return absent.size();
+    }
+
+    /**
+     * Redis 에 기록된 토큰 상태 (복구용)
+     */
+    Optional<QueueToken> findInRedis(String token) {
+        Map<Object, Object> hash = redisTemplate.opsForHash().entries(tokenKey(token));
+        return hash.isEmpty() ? Optional.empty() : Optional.of(fromHash(hash));
+    }
+
+    private void write(List<QueueToken> tokens, boolean dirty) {
+        long nowMillis = System.currentTimeMillis();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            tokens.forEach(token -> write(stringConnection, token, dirty, nowMillis));
+            return null;
+        });
+    }
+
+    private static void write(StringRedisConnection connection, QueueToken token, boolean dirty, long nowMillis) {
+        String tokenKey = tokenKey(token.getToken());
+        boolean live = isLive(token);
+        long ttlSeconds = live
+                ? Math.max(0, (toEpochMillis(token.getExpiresAt()) - nowMillis) / 1000) + TERMINAL_TTL.toSeconds()
+                : TERMINAL_TTL.toSeconds();
+
+        // HMSET 은 원자적으로 덮어쓰므로 동시 조회는 이전 상태나 새 상태 중 하나를 본다
+        Map<String, String> hash = toHash(token);
+        connection.hMSet(tokenKey, hash);
+        String[] dropped = OPTIONAL_FIELDS.stream().filter(field -> !hash.containsKey(field)).toArray(String[]::new);
+        if (dropped.length > 0) {
+            connection.hDel(tokenKey, dropped);
+        }
+        connection.expire(tokenKey, ttlSeconds);
+
+        if (live) {
+            connection.sAdd(userTokensKey(token.getUserId()), token.getToken());
+            connection.zAdd(TOKEN_EXPIRY_KEY, toEpochMillis(token.getExpiresAt()), token.getToken());
+        } else {
+            connection.sRem(userTokensKey(token.getUserId()), token.getToken());
+            connection.zRem(TOKEN_EXPIRY_KEY, token.getToken());
+        }
+        if (dirty) {
+            connection.zAdd(DIRTY_TOKENS_KEY, toEpochMillis(token.getUpdatedAt()), token.getToken());
+        }
+    }
+
+    private static boolean isLive(QueueToken token) {
+        return token.getStatus() == QueueToken.TokenStatus.WAITING
+                || token.getStatus() == QueueToken.TokenStatus.ACTIVE;
+    }
+
+    private static Map<String, String> toHash(QueueToken token) {
+        Map<String, String> hash = new HashMap<>();
+        hash.put("token", token.getToken());
+        hash.put("userId", token.getUserId());
+        hash.put("performanceId", String.valueOf(token.getPerformanceId()));
+        putIfPresent(hash, "scheduleId", token.getScheduleId());
+        hash.put("status", token.getStatus().name());
+        hash.put("issuedAt", token.getIssuedAt().toString());
+        hash.put("expiresAt", token.getExpiresAt().toString());
+        putIfPresent(hash, "bookingExpiresAt", token.getBookingExpiresAt());
+        putIfPresent(hash, "activatedAt", token.getActivatedAt());
+        putIfPresent(hash, "usedAt", token.getUsedAt());
+        putIfPresent(hash, "queueSequence", token.getQueueSequence());
+        putIfPresent(hash, "createdAt", token.getCreatedAt());
+        putIfPresent(hash, "updatedAt", token.getUpdatedAt());
+        return hash;
+    }
+
+    private static void putIfPresent(Map<String, String> hash, String field, Object value) {
+        if (value != null) {
+            hash.put(field, value.toString());
+        }
+    }
+
+    private static QueueToken fromHash(Map<?, ?> hash) {
+        return QueueToken.builder()
+                .token(string(hash, "token"))
+                .userId(string(hash, "userId"))
+                .performanceId(Long.valueOf(string(hash, "performanceId")))
+                .scheduleId(hash.get("scheduleId") != null ? Long.valueOf(string(hash, "scheduleId")) : null)
+                .status(QueueToken.TokenStatus.valueOf(string(hash, "status")))
+                .issuedAt(dateTime(hash, "issuedAt"))
+                .expiresAt(dateTime(hash, "expiresAt"))
+                .bookingExpiresAt(dateTime(hash, "bookingExpiresAt"))
+                .activatedAt(dateTime(hash, "activatedAt"))
+                .usedAt(dateTime(hash, "usedAt"))
+                .queueSequence(hash.get("queueSequence") != null ? Long.valueOf(string(hash, "queueSequence")) : null)
+                .createdAt(dateTime(hash, "createdAt"))
+                .updatedAt(dateTime(hash, "updatedAt"))
+                .build();
+    }
+
+    private static String string(Map<?, ?> hash, String field) {
+        Object value = hash.get(field);
+        return value != null ? value.toString() : null;
+    }
+
+    private static LocalDateTime dateTime(Map<?, ?> hash, String field) {
+        String value = string(hash, field);
+        return value != null ? LocalDateTime.parse(value) : null;
+    }
+
+    /**
+     * 영속성 컨텍스트와 분리된 복사본 (write-behind 스냅샷, DB 조회 결과 반환용)
+     */
+    static QueueToken copyOf(QueueToken token) {
+        return QueueToken.builder()
+                .tokenId(token.getTokenId())
+                .token(token.getToken())
+                .userId(token.getUserId())
+                .performanceId(token.getPerformanceId())
+                .scheduleId(token.getScheduleId())
+                .status(token.getStatus())
+                .issuedAt(token.getIssuedAt())
+                .expiresAt(token.getExpiresAt())
+                .bookingExpiresAt(token.getBookingExpiresAt())
+                .activatedAt(token.getActivatedAt())
+                .usedAt(token.getUsedAt())
+                .queueSequence(token.getQueueSequence())
+                .createdAt(token.getCreatedAt())
+                .updatedAt(token.getUpdatedAt())
+                .build();
+    }
+
+    static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String tokenKey(String token) {
+        return TOKEN_KEY_PREFIX + token;
+    }
+
+    private static String userTokensKey(String userId) {
+        return USER_TOKENS_KEY_PREFIX + userId;
+    }
+}
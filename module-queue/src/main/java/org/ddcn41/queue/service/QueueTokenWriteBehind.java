@@ -0,0 +1,193 @@
+package org.ddcn41.queue.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.ddcn41.queue.entity.QueueToken;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * queue_tokens write-behind 버퍼
+ * - 토큰 상태 변경 스냅샷을 고정 크기 버퍼에 쌓고 flush-interval-ms 마다 batch-size 단위로 upsert
+ * - 같은 토큰의 변경이 여러 번 쌓이면 마지막 상태만 기록
+ * - 기록은 전용 스레드에서 실행 (공용 @Scheduled 스레드의 다른 작업이 느려져도 DB 반영이 밀리지 않고,
+ *   DB 가 느려져도 입장 처리/Heartbeat 스윕이 밀리지 않도록)
+ * - 버퍼가 가득 차면 호출 스레드에서 바로 upsert 해 변경을 잃지 않는다 (역압)
+ * - DB 반영이 끝난 토큰은 Redis dirty 집합에서 제거, 반영 전 크래시는 QueueTokenRecovery 가 복구
+ */
+@Slf4j
+@Component
+public class QueueTokenWriteBehind {
+    private static final String UPSERT_SQL = """
+            INSERT INTO queue_tokens (token, user_id, performance_id, schedule_id, status, issued_at, expires_at,
+                                      booking_expires_at, activated_at, used_at, queue_sequence, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (token) DO UPDATE SET
+                status = EXCLUDED.status,
+                expires_at = EXCLUDED.expires_at,
+                booking_expires_at = EXCLUDED.booking_expires_at,
+                activated_at = EXCLUDED.activated_at,
+                used_at = EXCLUDED.used_at,
+                queue_sequence = EXCLUDED.queue_sequence,
+                updated_at = EXCLUDED.updated_at
+            WHERE queue_tokens.updated_at <= EXCLUDED.updated_at
+            """;
+
+    /**
+     * KEYS[1]: queue_token_dirty, ARGV: 토큰, 기록한 변경 시각(epoch ms) 쌍
+     * 기록 이후 다시 변경된 토큰(score 가 더 큼)은 dirty 로 남겨 둔다
+     */
+    private static final RedisScript<Long> CLEAR_DIRTY_SCRIPT = new DefaultRedisScript<>("""
+            local cleared = 0
+            for i = 1, #ARGV, 2 do
+                local score = redis.call('ZSCORE', KEYS[1], ARGV[i])
+                if score and tonumber(score) <= tonumber(ARGV[i + 1]) then
+                    cleared = cleared + redis.call('ZREM', KEYS[1], ARGV[i])
+                end
+            end
+            return cleared
+            """, Long.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final BlockingQueue<QueueToken> buffer;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "queue-token-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public QueueTokenWriteBehind(JdbcTemplate jdbcTemplate,
+                                 @Qualifier("stringRedisTemplate") RedisTemplate<String, String> redisTemplate,
+                                 @Value("${queue.write-behind.capacity:10000}") int capacity,
+                                 @Value("${queue.write-behind.batch-size:500}") int batchSize,
+                                 @Value("${queue.write-behind.flush-interval-ms:200}") long flushIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    @PostConstruct
+    void startFlusher() {
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (Exception e) {
+                // 예외가 전파되면 이후 실행이 취소되므로 여기서 끊는다
+                log.error("write-behind 주기 기록 중 오류", e);
+            }
+        }, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 변경 스냅샷 적재 (버퍼에 들어가지 못한 나머지는 즉시 한 번에 기록)
+     */
+    public void enqueueAll(List<QueueToken> snapshots) {
+        List<QueueToken> overflow = new ArrayList<>();
+        for (QueueToken snapshot : snapshots) {
+            if (!buffer.offer(snapshot)) {
+                overflow.add(snapshot);
+            }
+        }
+        if (!overflow.isEmpty()) {
+            log.warn("write-behind 버퍼 가득 참 - 동기 기록: {}건", overflow.size());
+            for (int from = 0; from < overflow.size(); from += batchSize) {
+                upsert(overflow.subList(from, Math.min(overflow.size(), from + batchSize)));
+            }
+        }
+    }
+
+    /**
+     * 버퍼에 쌓인 변경을 batch-size 단위로 DB 에 반영
+     */
+    public void flush() {
+        List<QueueToken> drained = new ArrayList<>(batchSize);
+        while (buffer.drainTo(drained, batchSize) > 0) {
+            try {
+                upsert(drained);
+            } catch (Exception e) {
+                // dirty 집합에 남아 있으므로 다음 기동 시 복구되고, 같은 토큰이 다시 변경되면 그때 기록된다
+                log.error("write-behind 기록 실패 - {}건", drained.size(), e);
+            }
+            drained.clear();
+        }
+    }
+
+    /**
+     * 토큰 상태 일괄 upsert (토큰별 마지막 스냅샷만 기록)
+     */
+    public void upsert(List<QueueToken> snapshots) {
+        Map<String, QueueToken> latest = new LinkedHashMap<>();
+        snapshots.forEach(snapshot -> latest.put(snapshot.getToken(), snapshot));
+        List<QueueToken> rows = new ArrayList<>(latest.values());
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, token) -> {
+            ps.setString(1, token.getToken());
+            ps.setString(2, token.getUserId());
+            ps.setLong(3, token.getPerformanceId());
+            if (token.getScheduleId() != null) {
+                ps.setLong(4, token.getScheduleId());
+            } else {
+                ps.setNull(4, Types.BIGINT);
+            }
+            ps.setString(5, token.getStatus().name());
+            ps.setTimestamp(6, timestamp(token.getIssuedAt()));
+            ps.setTimestamp(7, timestamp(token.getExpiresAt()));
+            ps.setTimestamp(8, timestamp(token.getBookingExpiresAt()));
+            ps.setTimestamp(9, timestamp(token.getActivatedAt()));
+            ps.setTimestamp(10, timestamp(token.getUsedAt()));
+            if (token.getQueueSequence() != null) {
+                ps.setLong(11, token.getQueueSequence());
+            } else {
+                ps.setNull(11, Types.BIGINT);
+            }
+            ps.setTimestamp(12, timestamp(token.getCreatedAt()));
+            ps.setTimestamp(13, timestamp(token.getUpdatedAt()));
+        });
+
+        List<String> flushed = new ArrayList<>(rows.size() * 2);
+        rows.forEach(token -> {
+            flushed.add(token.getToken());
+            flushed.add(String.valueOf(QueueTokenStore.toEpochMillis(token.getUpdatedAt())));
+        });
+        redisTemplate.execute(CLEAR_DIRTY_SCRIPT, List.of(QueueTokenStore.DIRTY_TOKENS_KEY), flushed.toArray());
+    }
+
+    public int pending() {
+        return buffer.size();
+    }
+
+    @PreDestroy
+    void drainOnShutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+
+    private static Timestamp timestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+}
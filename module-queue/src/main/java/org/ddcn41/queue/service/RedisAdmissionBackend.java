@@ -0,0 +1,305 @@
+package org.ddcn41.queue.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis 입장 백엔드 (운영 기본값, Lua 스크립트)
+ * - 용량 확인 → 카운터 증가 → 대기열 선두 제거 → Heartbeat 설정을 한 번에 원자적으로 처리
+ * - JVM 락 없이 여러 노드에서 동시에 실행해도 active_tokens 불변식이 유지된다
+ * - 레인 카운터(active_tokens:{performanceId}:scheduleId)와 공연 카운터(active_tokens:{performanceId})를 같은 스크립트에서 함께 갱신
+ * - 키는 {performanceId} 해시태그를 공유하므로 Redis Cluster 에서도 같은 슬롯에서 실행되고, 공연끼리는 병렬 처리된다
+ */
+@Component
+public class RedisAdmissionBackend implements AdmissionBackend {
+    private static final String ACTIVE_TOKENS_KEY_PREFIX = "active_tokens:";
+    private static final Duration ACTIVE_TOKENS_TTL = Duration.ofMinutes(10);
+
+    /**
+     * 카운터 변경 알림 채널 (QueueCounterCache 가 구독)
+     * - 메시지: "active_tokens:{performanceId}[:scheduleId]|레인 활성 수[|레인 대기 인원]"
+     * - 스크립트 안에서 PUBLISH 하므로 변경 순서와 알림 순서가 같다
+     */
+    public static final String COUNTERS_CHANNEL = "queue_counters";
+
+    /**
+     * KEYS[1]: 레인 active_tokens, KEYS[2]: 레인 waiting_line, KEYS[3]: heartbeats, KEYS[4]: 공연 active_tokens
+     * ARGV[1]: 레인 최대 활성 수, ARGV[2]: 토큰 ('' 이면 직접 입장), ARGV[3]: heartbeat 멤버,
+     * ARGV[4]: heartbeat 마감 시각(epoch ms), ARGV[5]: active_tokens TTL(초), ARGV[6]: 알림 채널,
+     * ARGV[7]: 공연 최대 활성 수 (0 이면 제한 없음)
+     * 기본 레인은 KEYS[1] 과 KEYS[4] 가 같은 키이므로 한 번만 증가시킨다
+     * 반환: {1, 레인 활성 수} 입장 / {-1, 레인 활성 수} 정원 초과 / {-2, 순번} 선두 아님 / {-3, 0} 대기열에 없음
+     */
+    private static final RedisScript<List> ADMIT_SCRIPT = new DefaultRedisScript<>("""
+            local active = tonumber(redis.call('GET', KEYS[1]) or '0')
+            local total = active
+            if KEYS[4] ~= KEYS[1] then
+                total = tonumber(redis.call('GET', KEYS[4]) or '0')
+            end
+            if ARGV[2] == '' then
+                if redis.call('ZCARD', KEYS[2]) > 0 then
+                    return {-2, redis.call('ZCARD', KEYS[2]) + 1}
+                end
+            else
+                local rank = redis.call('ZRANK', KEYS[2], ARGV[2])
+                if not rank then
+                    return {-3, 0}
+                end
+                if rank > 0 then
+                    return {-2, rank + 1}
+                end
+            end
+            local cap = tonumber(ARGV[7])
+            if active >= tonumber(ARGV[1]) or (cap > 0 and total >= cap) then
+                return {-1, active}
+            end
+            if ARGV[2] ~= '' then
+                redis.call('ZREM', KEYS[2], ARGV[2])
+            end
+            active = redis.call('INCR', KEYS[1])
+            redis.call('EXPIRE', KEYS[1], ARGV[5])
+            if KEYS[4] ~= KEYS[1] then
+                redis.call('INCR', KEYS[4])
+                redis.call('EXPIRE', KEYS[4], ARGV[5])
+            end
+            redis.call('ZADD', KEYS[3], ARGV[4], ARGV[3])
+            redis.call('PUBLISH', ARGV[6], KEYS[1] .. '|' .. active .. '|' .. redis.call('ZCARD', KEYS[2]))
+            return {1, active}
+            """, List.class);
+
+    /**
+     * KEYS[1]: 레인 active_tokens, KEYS[2]: 레인 waiting_line, KEYS[3]: 공연 active_tokens, KEYS[4]: heartbeats
+     * ARGV[1]: 레인 최대 활성 수, ARGV[2]: active_tokens TTL(초), ARGV[3]: 알림 채널,
+     * ARGV[4]: 공연 최대 활성 수 (0 이면 제한 없음), ARGV[5]: heartbeat 마감 시각(epoch ms),
+     * ARGV[6..]: 후보 (토큰, heartbeat 멤버) 쌍 - 대기열 순서
+     * 남은 정원만큼 후보를 대기열에서 제거하고 Heartbeat 를 등록 (대기열에 없는 후보는 건너뜀)
+     * 반환: 입장 처리된 토큰 목록 (대기열에서 제거되고 카운터와 Heartbeat 에 반영됨)
+     */
+    private static final RedisScript<List> ADMIT_BATCH_SCRIPT = new DefaultRedisScript<>("""
+            local active = tonumber(redis.call('GET', KEYS[1]) or '0')
+            local slots = tonumber(ARGV[1]) - active
+            local cap = tonumber(ARGV[4])
+            if cap > 0 then
+                local total = active
+                if KEYS[3] ~= KEYS[1] then
+                    total = tonumber(redis.call('GET', KEYS[3]) or '0')
+                end
+                slots = math.min(slots, cap - total)
+            end
+            if slots <= 0 then
+                return {}
+            end
+            local admitted = {}
+            for i = 6, #ARGV, 2 do
+                if #admitted >= slots then
+                    break
+                end
+                if redis.call('ZREM', KEYS[2], ARGV[i]) > 0 then
+                    admitted[#admitted + 1] = ARGV[i]
+                    redis.call('ZADD', KEYS[4], ARGV[5], ARGV[i + 1])
+                end
+            end
+            if #admitted > 0 then
+                active = redis.call('INCRBY', KEYS[1], #admitted)
+                redis.call('EXPIRE', KEYS[1], ARGV[2])
+                if KEYS[3] ~= KEYS[1] then
+                    redis.call('INCRBY', KEYS[3], #admitted)
+                    redis.call('EXPIRE', KEYS[3], ARGV[2])
+                end
+                redis.call('PUBLISH', ARGV[3], KEYS[1] .. '|' .. active .. '|' .. redis.call('ZCARD', KEYS[2]))
+            end
+            return admitted
+            """, List.class);
+
+    /**
+     * KEYS[1]: 레인 active_tokens, KEYS[2]: 공연 active_tokens, KEYS[3]: heartbeats
+     * ARGV[1]: 알림 채널, ARGV[2]: heartbeat 멤버, ARGV[3]: 반납 방식
+     * - 'token': 멤버를 제거하고 멤버가 없어도 카운터 감소 (토큰 기준 반납)
+     * - '': 멤버가 실제로 제거된 경우에만 카운터 감소 (세션 해제)
+     * - 마감 기준 시각(epoch ms): 그 사이 Heartbeat 가 갱신된 멤버(마감 > 기준)는 제거하지 않음 (만료 스윕)
+     * 반환: 감소 후 레인 활성 수, heartbeat 가 없어 감소하지 않았으면 -1
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            local deadline = redis.call('ZSCORE', KEYS[3], ARGV[2])
+            if ARGV[3] ~= 'token' then
+                if not deadline then
+                    return -1
+                end
+                if ARGV[3] ~= '' and tonumber(deadline) > tonumber(ARGV[3]) then
+                    return -1
+                end
+            end
+            if deadline then
+                redis.call('ZREM', KEYS[3], ARGV[2])
+            end
+            local function decrement(key)
+                local value = tonumber(redis.call('GET', key) or '0')
+                if value <= 0 then
+                    redis.call('SET', key, '0')
+                    return 0
+                end
+                return redis.call('DECR', key)
+            end
+            local active = decrement(KEYS[1])
+            if KEYS[2] ~= KEYS[1] then
+                decrement(KEYS[2])
+            end
+            redis.call('PUBLISH', ARGV[1], KEYS[1] .. '|' .. active)
+            return active
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final HeartbeatRegistry heartbeatRegistry;
+
+    public RedisAdmissionBackend(@Qualifier("stringRedisTemplate") RedisTemplate<String, String> redisTemplate,
+                            HeartbeatRegistry heartbeatRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.heartbeatRegistry = heartbeatRegistry;
+    }
+
+    @Override
+    public String name() {
+        return "redis";
+    }
+
+    @Override
+    public AdmissionResult admitDirect(String userId, Long performanceId, Long scheduleId, Capacity capacity) {
+        return admit("", userId, performanceId, scheduleId, capacity);
+    }
+
+    @Override
+    public AdmissionResult admitHead(String token, String userId, Long performanceId, Long scheduleId,
+                                     Capacity capacity) {
+        return admit(token, userId, performanceId, scheduleId, capacity);
+    }
+
+    private AdmissionResult admit(String token, String userId, Long performanceId, Long scheduleId, Capacity capacity) {
+        List<?> result = redisTemplate.execute(ADMIT_SCRIPT,
+                List.of(activeTokensKey(performanceId, scheduleId),
+                        WaitingLine.lineKey(performanceId, scheduleId),
+                        HeartbeatRegistry.heartbeatsKey(performanceId),
+                        activeTokensKey(performanceId, null)),
+                String.valueOf(capacity.lane()),
+                token,
+                HeartbeatRegistry.member(userId, scheduleId),
+                String.valueOf(heartbeatRegistry.deadline(System.currentTimeMillis())),
+                String.valueOf(ACTIVE_TOKENS_TTL.toSeconds()),
+                COUNTERS_CHANNEL,
+                String.valueOf(capacity.performance()));
+
+        long code = ((Number) result.get(0)).longValue();
+        long value = ((Number) result.get(1)).longValue();
+        Outcome outcome = switch ((int) code) {
+            case 1 -> Outcome.ADMITTED;
+            case -1 -> Outcome.FULL;
+            case -2 -> Outcome.NOT_AT_HEAD;
+            default -> Outcome.NOT_IN_LINE;
+        };
+        if (outcome == Outcome.ADMITTED) {
+            heartbeatRegistry.registerPerformance(performanceId);
+        }
+        return new AdmissionResult(outcome, value);
+    }
+
+    @Override
+    public List<String> admitBatch(Long performanceId, Long scheduleId, Capacity capacity, List<Candidate> candidates) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        List<String> args = new ArrayList<>(5 + candidates.size() * 2);
+        args.add(String.valueOf(capacity.lane()));
+        args.add(String.valueOf(ACTIVE_TOKENS_TTL.toSeconds()));
+        args.add(COUNTERS_CHANNEL);
+        args.add(String.valueOf(capacity.performance()));
+        args.add(String.valueOf(heartbeatRegistry.deadline(System.currentTimeMillis())));
+        for (Candidate candidate : candidates) {
+            args.add(candidate.token());
+            args.add(HeartbeatRegistry.member(candidate.userId(), scheduleId));
+        }
+
+        List<?> result = redisTemplate.execute(ADMIT_BATCH_SCRIPT,
+                List.of(activeTokensKey(performanceId, scheduleId),
+                        WaitingLine.lineKey(performanceId, scheduleId),
+                        activeTokensKey(performanceId, null),
+                        HeartbeatRegistry.heartbeatsKey(performanceId)),
+                args.toArray());
+
+        List<String> admitted = new ArrayList<>();
+        if (result != null) {
+            result.forEach(member -> admitted.add(String.valueOf(member)));
+        }
+        if (!admitted.isEmpty()) {
+            heartbeatRegistry.registerPerformance(performanceId);
+        }
+        return admitted;
+    }
+
+    @Override
+    public long release(String userId, Long performanceId, Long scheduleId) {
+        Long active = release(userId, performanceId, scheduleId, "token");
+        return active != null ? active : 0L;
+    }
+
+    @Override
+    public long releaseWithHeartbeat(String userId, Long performanceId, Long scheduleId) {
+        Long active = release(userId, performanceId, scheduleId, "");
+        return active != null ? active : -1L;
+    }
+
+    @Override
+    public long releaseExpiredHeartbeat(String userId, Long performanceId, Long scheduleId, long now) {
+        Long active = release(userId, performanceId, scheduleId, String.valueOf(now));
+        return active != null ? active : -1L;
+    }
+
+    private Long release(String userId, Long performanceId, Long scheduleId, String mode) {
+        return redisTemplate.execute(RELEASE_SCRIPT,
+                List.of(activeTokensKey(performanceId, scheduleId),
+                        activeTokensKey(performanceId, null),
+                        HeartbeatRegistry.heartbeatsKey(performanceId)),
+                COUNTERS_CHANNEL,
+                HeartbeatRegistry.member(userId, scheduleId),
+                mode);
+    }
+
+    @Override
+    public int activeCount(Long performanceId, Long scheduleId) {
+        String value = redisTemplate.opsForValue().get(activeTokensKey(performanceId, scheduleId));
+        return value != null ? Integer.parseInt(value) : 0;
+    }
+
+    @Override
+    public void syncActiveCount(Long performanceId, Long scheduleId, long count) {
+        String key = activeTokensKey(performanceId, scheduleId);
+        redisTemplate.opsForValue().set(key, String.valueOf(count), ACTIVE_TOKENS_TTL);
+        redisTemplate.convertAndSend(COUNTERS_CHANNEL, key + "|" + count);
+    }
+
+    @Override
+    public boolean hasActiveCount(Long performanceId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(activeTokensKey(performanceId, null)));
+    }
+
+    @Override
+    public long restoreActiveCount(Long performanceId, Long scheduleId, long count) {
+        String key = activeTokensKey(performanceId, scheduleId);
+        Long active = redisTemplate.opsForValue().increment(key, count);
+        redisTemplate.expire(key, ACTIVE_TOKENS_TTL);
+        if (scheduleId != null) {
+            redisTemplate.opsForValue().increment(activeTokensKey(performanceId, null), count);
+            redisTemplate.expire(activeTokensKey(performanceId, null), ACTIVE_TOKENS_TTL);
+        }
+        return active != null ? active : count;
+    }
+
+    static String activeTokensKey(Long performanceId, Long scheduleId) {
+        return ACTIVE_TOKENS_KEY_PREFIX + QueueLane.of(performanceId, scheduleId).tag();
+    }
+}
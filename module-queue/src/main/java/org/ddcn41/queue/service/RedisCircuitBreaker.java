@@ -0,0 +1,96 @@
+package org.ddcn41.queue.service;
+
+import io.lettuce.core.RedisCommandTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Redis 장애 차단기
+ * - 연결 실패/명령 타임아웃이 failure-threshold 번 연속되면 열림(OPEN) → 대기열 진입은 DegradedAdmission 으로 처리
+ * - 열린 뒤 open-ms 가 지나면 스케줄러가 PING 1회로 시험하고(half-open), 성공하면 닫고 로컬 상태를 Redis 에 반영한다
+ * - 스크립트 오류 등 Redis 가 응답한 오류는 장애로 세지 않는다
+ */
+@Slf4j
+@Component
+public class RedisCircuitBreaker {
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile boolean open;
+    private volatile long openedAt;
+
+    public RedisCircuitBreaker(@Qualifier("stringRedisTemplate") RedisTemplate<String, String> redisTemplate,
+                               @Value("${queue.degraded.failure-threshold:5}") int failureThreshold,
+                               @Value("${queue.degraded.open-ms:5000}") long openMillis) {
+        this.redisTemplate = redisTemplate;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openMillis;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public void recordSuccess() {
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    /**
+     * 실패 기록
+     * @return Redis 장애(연결 실패/타임아웃)로 인한 실패면 true
+     */
+    public boolean recordFailure(Throwable error) {
+        if (!isRedisOutage(error)) {
+            return false;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold && !open) {
+            openedAt = System.currentTimeMillis();
+            open = true;
+            log.error("Redis 장애 감지 - 축소 운영 전환 (연속 실패 {}회): {}", failureThreshold, error.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * 열린 지 open-ms 가 지났으면 PING 으로 복구 여부 확인
+     * @return 이번 호출에서 닫혔으면 true
+     */
+    public boolean probe() {
+        if (!open || System.currentTimeMillis() - openedAt < openMillis) {
+            return false;
+        }
+        try {
+            redisTemplate.execute((RedisCallback<String>) RedisConnection::ping);
+        } catch (Exception e) {
+            openedAt = System.currentTimeMillis();
+            log.warn("Redis 복구 확인 실패 - 축소 운영 유지: {}", e.getMessage());
+            return false;
+        }
+        consecutiveFailures.set(0);
+        open = false;
+        log.warn("Redis 복구 확인 - 정상 운영 복귀");
+        return true;
+    }
+
+    static boolean isRedisOutage(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RedisConnectionFailureException || cause instanceof RedisCommandTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,60 @@
+package org.ddcn41.queue.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 회차별 잔여 좌석 (performance_schedules.available_seats)
+ * - 잔여 좌석이 0 이 된 회차는 레인 입장을 멈춘다 (진입 거절, 입장 스케줄러 건너뜀)
+ * - 입장 판정마다 DB 를 조회하지 않도록 cache-seconds 동안 로컬에 보관
+ * - 회차 행이 없거나 scheduleId 가 없는 기본 레인은 매진으로 보지 않는다
+ */
+@Component
+public class ScheduleAvailability {
+    private static final String AVAILABLE_SEATS_SQL =
+            "SELECT available_seats FROM performance_schedules WHERE schedule_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long cacheMillis;
+    private final Map<Long, Cached> cache = new ConcurrentHashMap<>();
+
+    public ScheduleAvailability(JdbcTemplate jdbcTemplate,
+                                @Value("${queue.lane.sold-out-check.enabled:true}") boolean enabled,
+                                @Value("${queue.lane.sold-out-check.cache-seconds:5}") int cacheSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.cacheMillis = cacheSeconds * 1000L;
+    }
+
+    /**
+     * 회차 매진 여부
+     */
+    public boolean isSoldOut(Long scheduleId) {
+        if (!enabled || scheduleId == null) {
+            return false;
+        }
+        Cached cached = cache.get(scheduleId);
+        if (cached == null || !cached.isFresh(cacheMillis)) {
+            cached = load(scheduleId);
+            cache.put(scheduleId, cached);
+        }
+        return cached.availableSeats() != null && cached.availableSeats() <= 0;
+    }
+
+    private Cached load(Long scheduleId) {
+        List<Integer> seats = jdbcTemplate.queryForList(AVAILABLE_SEATS_SQL, Integer.class, scheduleId);
+        return new Cached(seats.isEmpty() ? null : seats.get(0), System.currentTimeMillis());
+    }
+
+    private record Cached(Integer availableSeats, long loadedAt) {
+        boolean isFresh(long cacheMillis) {
+            return System.currentTimeMillis() - loadedAt < cacheMillis;
+        }
+    }
+}
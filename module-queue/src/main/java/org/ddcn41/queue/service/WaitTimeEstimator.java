@@ -0,0 +1,176 @@
+package org.ddcn41.queue.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 처리량 기반 예상 대기시간 계산
+ * - 공연별 입장/완료 건수를 bucket-seconds 단위 Redis 카운터로 집계 (모든 노드의 처리량이 합산됨)
+ * - 최근 window-buckets 개 구간에 지수가중이동평균(EWMA)과 분산을 적용해 초당 입장률을 추정
+ * - ETA = 순번 / 입장률, 신뢰 구간은 입장률 ±1σ 로 계산
+ * - 관측값이 없으면 queue.wait-time-per-person 을 사전값으로 사용
+ */
+@Component
+public class WaitTimeEstimator {
+    private static final String ADMISSION_RATE_KEY_PREFIX = "admission_rate:";
+    private static final String COMPLETION_RATE_KEY_PREFIX = "completion_rate:";
+    private static final long RATE_CACHE_MILLIS = 1000;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final int bucketSeconds;
+    private final int windowBuckets;
+    private final double alpha;
+    private final int fallbackSecondsPerPerson;
+
+    private final Map<Long, Rate> rateCache = new ConcurrentHashMap<>();
+
+    public WaitTimeEstimator(@Qualifier("stringRedisTemplate") RedisTemplate<String, String> redisTemplate,
+                             @Value("${queue.eta.bucket-seconds:5}") int bucketSeconds,
+                             @Value("${queue.eta.window-buckets:24}") int windowBuckets,
+                             @Value("${queue.eta.alpha:0.2}") double alpha,
+                             @Value("${queue.wait-time-per-person:10}") int fallbackSecondsPerPerson) {
+        this.redisTemplate = redisTemplate;
+        this.bucketSeconds = bucketSeconds;
+        this.windowBuckets = windowBuckets;
+        this.alpha = alpha;
+        this.fallbackSecondsPerPerson = fallbackSecondsPerPerson;
+    }
+
+    /**
+     * 예상 대기시간 (초)
+     * @param seconds      순번 / 평균 입장률
+     * @param lowerSeconds 입장률이 +1σ 일 때
+     * @param upperSeconds 입장률이 -1σ 일 때
+     * @param admissionsPerMinute 추정 입장률 (관측값이 없으면 null)
+     */
+    public record Estimate(int seconds, int lowerSeconds, int upperSeconds, Double admissionsPerMinute) {
+    }
+
+    /**
+     * 입장 건수 기록
+     */
+    public void recordAdmissions(Long performanceId, int count) {
+        record(ADMISSION_RATE_KEY_PREFIX, performanceId, count);
+    }
+
+    /**
+     * 예매 완료/이탈 등으로 자리가 반납된 건수 기록
+     */
+    public void recordCompletions(Long performanceId, int count) {
+        record(COMPLETION_RATE_KEY_PREFIX, performanceId, count);
+    }
+
+    public Estimate estimate(Long performanceId, long position) {
+        // compute() 안에서 Redis 를 조회하면 맵 버킷 모니터를 잡은 채 I/O 를 하게 되므로 (가상 스레드 pinning) 밖에서 읽는다
+        Rate rate = rateCache.get(performanceId);
+        if (rate == null || !rate.isFresh()) {
+            rate = loadRate(performanceId);
+            rateCache.put(performanceId, rate);
+        }
+
+        // 입장 관측값이 없으면 완료율(자리 반납 속도)로, 둘 다 없으면 고정값으로 추정
+        double perSecond = rate.admissions().mean() > 0 ? rate.admissions().mean() : rate.completions().mean();
+        double deviation = rate.admissions().mean() > 0 ? rate.admissions().deviation() : rate.completions().deviation();
+        if (perSecond <= 0) {
+            int seconds = (int) Math.min(Integer.MAX_VALUE, position * fallbackSecondsPerPerson);
+            return new Estimate(seconds, seconds / 2, seconds * 2, null);
+        }
+
+        double fastRate = perSecond + deviation;
+        double slowRate = Math.max(perSecond - deviation, perSecond / 4);
+        return new Estimate(
+                toSeconds(position / perSecond),
+                toSeconds(position / fastRate),
+                toSeconds(position / slowRate),
+                perSecond * 60);
+    }
+
+    private void record(String prefix, Long performanceId, int count) {
+        if (count <= 0) {
+            return;
+        }
+        String key = bucketKey(prefix, performanceId, currentBucket());
+        long ttlSeconds = (long) bucketSeconds * (windowBuckets + 2);
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            stringConnection.incrBy(key, count);
+            stringConnection.expire(key, ttlSeconds);
+            return null;
+        });
+    }
+
+    /**
+     * 진행 중인 현재 구간은 제외하고 완료된 구간만 사용 (가장 오래된 구간부터 EWMA 적용)
+     */
+    private Rate loadRate(Long performanceId) {
+        long current = currentBucket();
+        List<String> admissionKeys = new ArrayList<>(windowBuckets);
+        List<String> completionKeys = new ArrayList<>(windowBuckets);
+        for (long bucket = current - windowBuckets; bucket < current; bucket++) {
+            admissionKeys.add(bucketKey(ADMISSION_RATE_KEY_PREFIX, performanceId, bucket));
+            completionKeys.add(bucketKey(COMPLETION_RATE_KEY_PREFIX, performanceId, bucket));
+        }
+
+        return new Rate(
+                ewma(redisTemplate.opsForValue().multiGet(admissionKeys)),
+                ewma(redisTemplate.opsForValue().multiGet(completionKeys)),
+                System.currentTimeMillis());
+    }
+
+    private Ewma ewma(List<String> counts) {
+        if (counts == null) {
+            return new Ewma(0, 0);
+        }
+
+        double mean = 0;
+        double variance = 0;
+        boolean started = false;
+        for (String count : counts) {
+            double perSecond = (count != null ? Long.parseLong(count) : 0L) / (double) bucketSeconds;
+            if (!started) {
+                // 첫 관측 이전의 빈 구간은 공연 시작 전으로 보고 평균에 넣지 않는다
+                if (perSecond == 0) {
+                    continue;
+                }
+                mean = perSecond;
+                started = true;
+                continue;
+            }
+            double diff = perSecond - mean;
+            mean += alpha * diff;
+            variance = (1 - alpha) * (variance + alpha * diff * diff);
+        }
+        return new Ewma(mean, Math.sqrt(variance));
+    }
+
+    private long currentBucket() {
+        return System.currentTimeMillis() / 1000 / bucketSeconds;
+    }
+
+    private static int toSeconds(double seconds) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.ceil(seconds));
+    }
+
+    private static String bucketKey(String prefix, Long performanceId, long bucket) {
+        return prefix + "{" + performanceId + "}:" + bucket;
+    }
+
+    private record Ewma(double mean, double deviation) {
+    }
+
+    private record Rate(Ewma admissions, Ewma completions, long loadedAt) {
+        boolean isFresh() {
+            return System.currentTimeMillis() - loadedAt < RATE_CACHE_MILLIS;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package org.ddcn41.queue.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 레인(공연 + 회차)별 Redis 대기열 (ZSET)
+ * - key: waiting_line:{performanceId}[:scheduleId] (QueueLane.tag)
+ * - member: 토큰 문자열
+ * - score: Redis INCR 로 발급한 단조 증가 시퀀스 (issuedAt 은 노드 간 시계 차이/동시각 문제로 사용하지 않음)
+ * - 순번은 선두 시퀀스와의 차이로 계산하며, queue_tokens 는 순번 계산에 사용하지 않는다
+ */
+@Component
+public class WaitingLine {
+    private static final String WAITING_LINE_KEY_PREFIX = "waiting_line:";
+    private static final String WAITING_SEQ_KEY_PREFIX = "waiting_seq:";
+    private static final String WAITING_LANES_KEY = "waiting_lanes";
+
+    /**
+     * KEYS[1]: waiting_seq, ARGV[1]: 최소 시퀀스
+     * 시퀀스 카운터가 ARGV[1] 보다 작으면 끌어올림 (복구한 토큰보다 앞선 시퀀스가 새로 발급되지 않도록)
+     */
+    private static final RedisScript<Long> RAISE_SEQUENCE_SCRIPT = new DefaultRedisScript<>("""
+            local current = tonumber(redis.call('GET', KEYS[1]) or '0')
+            if current < tonumber(ARGV[1]) then
+                redis.call('SET', KEYS[1], ARGV[1])
+                return tonumber(ARGV[1])
+            end
+            return current
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public WaitingLine(@Qualifier("stringRedisTemplate") RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 대기열 맨 뒤에 추가하고 발급된 시퀀스를 반환
+     */
+    public long enqueue(Long performanceId, Long scheduleId, String token) {
+        Long sequence = redisTemplate.opsForValue().increment(sequenceKey(performanceId, scheduleId));
+        long seq = sequence != null ? sequence : 0L;
+        redisTemplate.opsForZSet().add(lineKey(performanceId, scheduleId), token, seq);
+        touch(performanceId, scheduleId);
+        return seq;
+    }
+
+    /**
+     * 여러 토큰을 주어진 순서대로 한 번에 추가 (INCRBY 로 시퀀스 구간을 발급하고 ZADD 한 번)
+     * @return 첫 토큰의 시퀀스 (이후 토큰은 1씩 증가)
+     */
+    public long enqueueAll(Long performanceId, Long scheduleId, List<String> tokens) {
+        Long last = redisTemplate.opsForValue().increment(sequenceKey(performanceId, scheduleId), tokens.size());
+        long first = (last != null ? last : tokens.size()) - tokens.size() + 1;
+
+        Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>(tokens.size() * 2);
+        for (int i = 0; i < tokens.size(); i++) {
+            tuples.add(ZSetOperations.TypedTuple.of(tokens.get(i), (double) (first + i)));
+        }
+        if (!tuples.isEmpty()) {
+            redisTemplate.opsForZSet().add(lineKey(performanceId, scheduleId), tuples);
+        }
+        touch(performanceId, scheduleId);
+        return first;
+    }
+
+    /**
+     * 기존 시퀀스로 대기열 복구 (Redis 유실 시 자가 복구용, 이미 있으면 무시)
+     */
+    public void restore(Long performanceId, Long scheduleId, String token, long sequence) {
+        redisTemplate.opsForZSet().addIfAbsent(lineKey(performanceId, scheduleId), token, sequence);
+        touch(performanceId, scheduleId);
+    }
+
+    /**
+     * 기존 시퀀스로 여러 토큰을 한 번에 복구 (파이프라인, 이미 있는 멤버는 유지)
+     * - 시퀀스 카운터도 복구한 최대 시퀀스 이상으로 올린다
+     */
+    public void restoreAll(Long performanceId, Long scheduleId, Map<String, Long> sequences) {
+        if (sequences.isEmpty()) {
+            return;
+        }
+        String lineKey = lineKey(performanceId, scheduleId);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            sequences.forEach((token, sequence) -> stringConnection.zAdd(lineKey, sequence, token,
+                    RedisZSetCommands.ZAddArgs.ifNotExists()));
+            return null;
+        });
+        redisTemplate.execute(RAISE_SEQUENCE_SCRIPT, List.of(sequenceKey(performanceId, scheduleId)),
+                String.valueOf(Collections.max(sequences.values())));
+        touch(performanceId, scheduleId);
+    }
+
+    /**
+     * 대기열 선두의 시퀀스 (비어 있으면 null)
+     * - 각 대기자의 순번은 (자기 시퀀스 - 선두 시퀀스 + 1) 로 계산한다
+     */
+    public Long headSequence(Long performanceId, Long scheduleId) {
+        Set<ZSetOperations.TypedTuple<String>> head =
+                redisTemplate.opsForZSet().rangeWithScores(lineKey(performanceId, scheduleId), 0, 0);
+        if (head == null || head.isEmpty()) {
+            return null;
+        }
+        Double score = head.iterator().next().getScore();
+        return score != null ? score.longValue() : null;
+    }
+
+    /**
+     * 선두 시퀀스 기준 1부터 시작하는 순번
+     */
+    public static long positionOf(long sequence, long headSequence) {
+        return Math.max(1, sequence - headSequence + 1);
+    }
+
+    /**
+     * 대기 인원 수
+     */
+    public long size(Long performanceId, Long scheduleId) {
+        Long size = redisTemplate.opsForZSet().zCard(lineKey(performanceId, scheduleId));
+        return size != null ? size : 0L;
+    }
+
+    /**
+     * 맨 앞에서부터 count 개의 토큰 조회 (제거하지 않음)
+     */
+    public List<String> peek(Long performanceId, Long scheduleId, int count) {
+        if (count <= 0) {
+            return List.of();
+        }
+        Set<String> head = redisTemplate.opsForZSet().range(lineKey(performanceId, scheduleId), 0, count - 1L);
+        return head != null ? new ArrayList<>(head) : List.of();
+    }
+
+    /**
+     * 대기열 안의 위치 (0 이 선두, 없으면 null)
+     */
+    public Long rank(Long performanceId, Long scheduleId, String token) {
+        return redisTemplate.opsForZSet().rank(lineKey(performanceId, scheduleId), token);
+    }
+
+    /**
+     * 대기열에서 토큰을 꺼냄 - 동시에 여러 노드가 꺼내려 해도 한 곳만 true
+     */
+    public boolean claim(Long performanceId, Long scheduleId, String token) {
+        Long removed = redisTemplate.opsForZSet().remove(lineKey(performanceId, scheduleId), token);
+        return removed != null && removed > 0;
+    }
+
+    /**
+     * 대기열에서 제거
+     */
+    public void remove(Long performanceId, Long scheduleId, String... tokens) {
+        if (tokens.length == 0) {
+            return;
+        }
+        redisTemplate.opsForZSet().remove(lineKey(performanceId, scheduleId), (Object[]) tokens);
+    }
+
+    /**
+     * 최근 horizon 안에 대기열 진입이 있었던 레인 목록 (입장 스케줄러 순회용)
+     * - 마지막 진입 시각을 score 로 두고 오래된 항목은 정리한다
+     */
+    public Set<QueueLane> recentLanes(Duration horizon) {
+        long cutoff = System.currentTimeMillis() - horizon.toMillis();
+        redisTemplate.opsForZSet().removeRangeByScore(WAITING_LANES_KEY, 0, cutoff);
+
+        Set<String> lanes = redisTemplate.opsForZSet().range(WAITING_LANES_KEY, 0, -1);
+        if (lanes == null) {
+            return Set.of();
+        }
+        return lanes.stream().map(QueueLane::fromMember).collect(Collectors.toSet());
+    }
+
+    private void touch(Long performanceId, Long scheduleId) {
+        redisTemplate.opsForZSet().add(WAITING_LANES_KEY, QueueLane.of(performanceId, scheduleId).member(),
+                System.currentTimeMillis());
+    }
+
+    static String lineKey(Long performanceId, Long scheduleId) {
+        return WAITING_LINE_KEY_PREFIX + QueueLane.of(performanceId, scheduleId).tag();
+    }
+
+    static String sequenceKey(Long performanceId, Long scheduleId) {
+        return WAITING_SEQ_KEY_PREFIX + QueueLane.of(performanceId, scheduleId).tag();
+    }
+}
@@ -0,0 +1,188 @@
+package org.ddcn41.queue.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.ddcn41.queue.entity.QueueToken;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 예매 오픈 전 대기실
+ * - 레인(공연 + 회차)의 오픈(booking_start_at) 전에 도착한 사용자는 waiting_room:{performanceId}:scheduleId SET 에
+ *   SADD 한 번으로 사전 등록 (회차마다 오픈 시각이 다르므로 대기실과 배치 시각도 회차 단위)
+ * - 오픈 시각이 지나면 락을 잡은 한 노드가 SET 을 가져가(RENAME) 무작위로 뽑은 묶음 단위로 대기열에 배치
+ *   (시퀀스는 INCRBY 로 묶음 발급, ZADD/토큰 저장도 묶음 단위) → 오픈 순간 요청 폭주가 묶음 쓰기 몇 번이 된다
+ * - 묶음은 대기열에 넣은 뒤에 SREM 하고, 노드가 도중에 죽으면 다음 주기에 남은 releasing 키부터 이어서 처리
+ *   (마지막 묶음이 한 번 더 배치될 수는 있어도 사전 등록자가 자리를 잃지는 않는다)
+ * - 오픈 전 도착 순서는 순번에 영향을 주지 않는다 (먼저 새로고침한 사람이 유리하지 않도록)
+ */
+@Slf4j
+@Component
+public class WaitingRoom {
+    private static final String WAITING_ROOM_KEY_PREFIX = "waiting_room:";
+    private static final String WAITING_ROOM_RELEASING_KEY_PREFIX = "waiting_room_releasing:";
+    private static final String WAITING_ROOM_RELEASE_LOCK_KEY_PREFIX = "waiting_room_release_lock:";
+    private static final String WAITING_ROOM_LANES_KEY = "waiting_room_lanes";
+    private static final Duration RELEASE_LOCK_TTL = Duration.ofSeconds(30);
+    private static final int RELEASE_CHUNK_SIZE = 1000;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final BookingOpenTimes bookingOpenTimes;
+    private final WaitingLine waitingLine;
+    private final QueueTokenStore queueTokenStore;
+    private final boolean enabled;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public WaitingRoom(@Qualifier("stringRedisTemplate") RedisTemplate<String, String> redisTemplate,
+                       BookingOpenTimes bookingOpenTimes,
+                       WaitingLine waitingLine,
+                       QueueTokenStore queueTokenStore,
+                       @Value("${queue.waiting-room.enabled:true}") boolean enabled) {
+        this.redisTemplate = redisTemplate;
+        this.bookingOpenTimes = bookingOpenTimes;
+        this.waitingLine = waitingLine;
+        this.queueTokenStore = queueTokenStore;
+        this.enabled = enabled;
+    }
+
+    /**
+     * 오픈 전이면 사전 등록
+     * @return 오픈 시각 (이미 오픈했거나 오픈 시각이 없으면 empty - 일반 대기열 진입)
+     */
+    public Optional<LocalDateTime> registerIfBeforeOpen(Long performanceId, Long scheduleId, String userId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Optional<LocalDateTime> opensAt = bookingOpenTimes.opensAt(performanceId, scheduleId)
+                .filter(time -> time.isAfter(LocalDateTime.now()));
+        if (opensAt.isEmpty()) {
+            return Optional.empty();
+        }
+
+        QueueLane lane = QueueLane.of(performanceId, scheduleId);
+        redisTemplate.opsForSet().add(roomKey(lane), userId);
+        redisTemplate.opsForZSet().add(WAITING_ROOM_LANES_KEY, lane.member(),
+                opensAt.get().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        return opensAt;
+    }
+
+    /**
+     * 오픈 시각이 지난 대기실을 모두 대기열로 배치
+     */
+    public void releaseDue() {
+        if (!enabled) {
+            return;
+        }
+        Set<String> due = redisTemplate.opsForZSet()
+                .rangeByScore(WAITING_ROOM_LANES_KEY, 0, System.currentTimeMillis());
+        if (due == null) {
+            return;
+        }
+        for (String member : due) {
+            try {
+                release(QueueLane.fromMember(member));
+            } catch (Exception e) {
+                log.error("레인 {} 대기실 배치 중 오류", member, e);
+            }
+        }
+    }
+
+    private void release(QueueLane lane) {
+        // 다른 노드가 이 레인을 배치 중이면 건너뜀 (배치 노드가 죽으면 TTL 뒤 다음 주기에 이어받음)
+        String lockKey = WAITING_ROOM_RELEASE_LOCK_KEY_PREFIX + lane.tag();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, "1", RELEASE_LOCK_TTL))) {
+            return;
+        }
+        try {
+            drain(lane, lockKey);
+        } finally {
+            try {
+                redisTemplate.delete(lockKey);
+            } catch (Exception e) {
+                log.warn("대기실 배치 락 해제 실패 - TTL 만료 후 해제됨: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void drain(QueueLane lane, String lockKey) {
+        String roomKey = roomKey(lane);
+        String releasingKey = releasingKey(lane);
+
+        // 이전 배치가 도중에 멈췄으면 남은 releasing 키부터 이어서 처리, 아니면 대기실을 통째로 가져감
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(releasingKey))
+                && Boolean.TRUE.equals(redisTemplate.hasKey(roomKey))) {
+            redisTemplate.rename(roomKey, releasingKey);
+        }
+
+        long released = 0;
+        while (true) {
+            Set<String> members = redisTemplate.opsForSet().distinctRandomMembers(releasingKey, RELEASE_CHUNK_SIZE);
+            if (members == null || members.isEmpty()) {
+                break;
+            }
+            List<String> userIds = new ArrayList<>(members);
+            Collections.shuffle(userIds, secureRandom);
+            enqueue(lane, userIds);
+            redisTemplate.opsForSet().remove(releasingKey, userIds.toArray());
+            redisTemplate.expire(lockKey, RELEASE_LOCK_TTL);
+            released += userIds.size();
+        }
+
+        // releasing 키가 비워진 뒤에야 배치 대상에서 제외
+        // 배치 중 시계 차이로 늦게 등록된 사용자가 있으면 다음 주기에 이어서 처리
+        redisTemplate.opsForZSet().remove(WAITING_ROOM_LANES_KEY, lane.member());
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(roomKey))) {
+            redisTemplate.opsForZSet().add(WAITING_ROOM_LANES_KEY, lane.member(), System.currentTimeMillis());
+        }
+        if (released > 0) {
+            log.info("레인 {} 대기실 배치 완료 - {}명", lane.member(), released);
+        }
+    }
+
+    private void enqueue(QueueLane lane, List<String> userIds) {
+        List<String> tokenValues = userIds.stream().map(userId -> newToken()).toList();
+        long firstSequence = waitingLine.enqueueAll(lane.performanceId(), lane.scheduleId(), tokenValues);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<QueueToken> tokens = new ArrayList<>(userIds.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            tokens.add(QueueToken.builder()
+                    .token(tokenValues.get(i))
+                    .userId(userIds.get(i))
+                    .performanceId(lane.performanceId())
+                    .scheduleId(lane.scheduleId())
+                    .status(QueueToken.TokenStatus.WAITING)
+                    .issuedAt(now)
+                    .expiresAt(now.plusHours(2))
+                    .queueSequence(firstSequence + i)
+                    .build());
+        }
+        queueTokenStore.saveAll(tokens);
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[16];
+        secureRandom.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    static String roomKey(QueueLane lane) {
+        return WAITING_ROOM_KEY_PREFIX + lane.tag();
+    }
+
+    static String releasingKey(QueueLane lane) {
+        return WAITING_ROOM_RELEASING_KEY_PREFIX + lane.tag();
+    }
+}
@@ -0,0 +1,132 @@
+package org.ddcn41.queue.service;
+
+import com.github.fppt.jedismock.RedisServer;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 일괄 입장(admitBatch) 후 Heartbeat 반납으로 활성 카운터가 0 으로 돌아오는지 확인
+ * - Redis 는 jedis-mock (인프로세스 RESP 서버) 으로 대체
+ */
+class BatchAdmissionHeartbeatTest {
+    private static final Long PERFORMANCE_ID = 1L;
+    private static final Long SCHEDULE_ID = 10L;
+
+    private static RedisServer redis;
+    private static LettuceConnectionFactory connectionFactory;
+
+    private StringRedisTemplate redisTemplate;
+    private WaitingLine waitingLine;
+    private HeartbeatRegistry heartbeatRegistry;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redis = RedisServer.newRedisServer(0);
+        redis.start();
+        // jedis-mock 은 HELLO(RESP3) 를 지원하지 않으므로 RESP2 로 고정
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getBindPort()),
+                LettuceClientConfiguration.builder()
+                        .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                        .build());
+        connectionFactory.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        waitingLine = new WaitingLine(redisTemplate);
+        heartbeatRegistry = new HeartbeatRegistry(redisTemplate, 120, 15, 1000);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"redis", "memory"})
+    void batchAdmissionIsReleasedByHeartbeat(String backendName) {
+        AdmissionBackend backend = backend(backendName);
+        waitingLine.enqueueAll(PERFORMANCE_ID, SCHEDULE_ID, List.of("t1", "t2", "t3"));
+
+        List<String> admitted = backend.admitBatch(PERFORMANCE_ID, SCHEDULE_ID,
+                new AdmissionBackend.Capacity(10, 0), candidates());
+
+        assertThat(admitted).containsExactly("t1", "t2", "t3");
+        assertThat(backend.activeCount(PERFORMANCE_ID, SCHEDULE_ID)).isEqualTo(3);
+        assertThat(heartbeatRegistry.performanceIds()).contains(PERFORMANCE_ID);
+
+        assertThat(backend.releaseWithHeartbeat("u1", PERFORMANCE_ID, SCHEDULE_ID)).isEqualTo(2L);
+        assertThat(backend.releaseWithHeartbeat("u2", PERFORMANCE_ID, SCHEDULE_ID)).isEqualTo(1L);
+        assertThat(backend.releaseExpiredHeartbeat("u3", PERFORMANCE_ID, SCHEDULE_ID, Long.MAX_VALUE)).isZero();
+
+        assertThat(backend.activeCount(PERFORMANCE_ID, SCHEDULE_ID)).isZero();
+        assertThat(backend.activeCount(PERFORMANCE_ID, null)).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"redis", "memory"})
+    void batchAdmissionStopsAtCapacity(String backendName) {
+        AdmissionBackend backend = backend(backendName);
+        waitingLine.enqueueAll(PERFORMANCE_ID, SCHEDULE_ID, List.of("t1", "t2", "t3"));
+
+        List<String> admitted = backend.admitBatch(PERFORMANCE_ID, SCHEDULE_ID,
+                new AdmissionBackend.Capacity(2, 0), candidates());
+
+        assertThat(admitted).containsExactly("t1", "t2");
+        assertThat(waitingLine.peek(PERFORMANCE_ID, SCHEDULE_ID, 10)).containsExactly("t3");
+        // 입장하지 못한 세션은 Heartbeat 가 없으므로 반납해도 카운터가 줄지 않는다
+        assertThat(backend.releaseWithHeartbeat("u3", PERFORMANCE_ID, SCHEDULE_ID)).isEqualTo(-1L);
+        assertThat(backend.activeCount(PERFORMANCE_ID, SCHEDULE_ID)).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"redis", "memory"})
+    void batchAdmissionSkipsCandidatesNoLongerInLine(String backendName) {
+        AdmissionBackend backend = backend(backendName);
+        waitingLine.enqueueAll(PERFORMANCE_ID, SCHEDULE_ID, List.of("t1", "t2", "t3"));
+        waitingLine.remove(PERFORMANCE_ID, SCHEDULE_ID, "t2");
+
+        List<String> admitted = backend.admitBatch(PERFORMANCE_ID, SCHEDULE_ID,
+                new AdmissionBackend.Capacity(10, 0), candidates());
+
+        assertThat(admitted).containsExactly("t1", "t3");
+        assertThat(backend.activeCount(PERFORMANCE_ID, SCHEDULE_ID)).isEqualTo(2);
+        assertThat(backend.releaseWithHeartbeat("u2", PERFORMANCE_ID, SCHEDULE_ID)).isEqualTo(-1L);
+    }
+
+    private static List<AdmissionBackend.Candidate> candidates() {
+        return List.of(new AdmissionBackend.Candidate("t1", "u1"),
+                new AdmissionBackend.Candidate("t2", "u2"),
+                new AdmissionBackend.Candidate("t3", "u3"));
+    }
+
+    private AdmissionBackend backend(String name) {
+        return switch (name) {
+            case "redis" -> new RedisAdmissionBackend(redisTemplate, heartbeatRegistry);
+            case "memory" -> new InMemoryAdmissionBackend(waitingLine, heartbeatRegistry);
+            default -> throw new IllegalArgumentException(name);
+        };
+    }
+}
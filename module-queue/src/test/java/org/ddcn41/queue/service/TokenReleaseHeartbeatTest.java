@@ -0,0 +1,160 @@
+package org.ddcn41.queue.service;
+
+import com.github.fppt.jedismock.RedisServer;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import org.ddcn41.queue.entity.QueueToken;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 토큰 기준 반납(사용/취소/만료) 후 만료 스윕이 같은 세션을 다시 반납하지 않는지 확인
+ * - 입장 → useToken → cleanupInactiveSessions 순서로 실행하고 활성 카운터를 비교
+ * - 클라이언트 Heartbeat(touch)는 입장 처리된 세션만 갱신하는지 확인
+ * - Redis 는 jedis-mock, 토큰 저장소 등 나머지 협력 객체는 mock
+ */
+class TokenReleaseHeartbeatTest {
+    private static final Long PERFORMANCE_ID = 1L;
+    private static final Long SCHEDULE_ID = 10L;
+    private static final AdmissionBackend.Capacity CAPACITY = new AdmissionBackend.Capacity(10, 0);
+
+    private static RedisServer redis;
+    private static LettuceConnectionFactory connectionFactory;
+
+    private StringRedisTemplate redisTemplate;
+    private WaitingLine waitingLine;
+    private HeartbeatRegistry heartbeatRegistry;
+    private QueueTokenStore queueTokenStore;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redis = RedisServer.newRedisServer(0);
+        redis.start();
+        // jedis-mock 은 HELLO(RESP3) 를 지원하지 않으므로 RESP2 로 고정
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getBindPort()),
+                LettuceClientConfiguration.builder()
+                        .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                        .build());
+        connectionFactory.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        waitingLine = new WaitingLine(redisTemplate);
+        // 마감이 1초 뒤라 스윕 대상이 되는 세션을 짧게 만들 수 있다
+        heartbeatRegistry = new HeartbeatRegistry(redisTemplate, 1, 15, 1000);
+        queueTokenStore = mock(QueueTokenStore.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"redis", "memory"})
+    void usedTokenIsNotReleasedAgainBySweep(String backendName) throws InterruptedException {
+        AdmissionControl admissionControl = admissionControl(backendName);
+        QueueService queueService = queueService(admissionControl);
+
+        assertThat(admissionControl.admitDirect("u1", PERFORMANCE_ID, SCHEDULE_ID, CAPACITY).admitted()).isTrue();
+        // u1 의 Heartbeat 마감이 지나도록 기다린 뒤 u2 입장 (u2 는 스윕 시점에 아직 살아 있음)
+        Thread.sleep(1_100);
+        assertThat(admissionControl.admitDirect("u2", PERFORMANCE_ID, SCHEDULE_ID, CAPACITY).admitted()).isTrue();
+
+        when(queueTokenStore.find("t1")).thenReturn(Optional.of(activeToken("t1", "u1")));
+        queueService.useToken("t1");
+        queueService.cleanupInactiveSessions();
+
+        assertThat(admissionControl.activeCount(PERFORMANCE_ID, SCHEDULE_ID)).isEqualTo(1);
+        assertThat(admissionControl.activeCount(PERFORMANCE_ID, null)).isEqualTo(1);
+        assertThat(heartbeatRegistry.sessionCount(PERFORMANCE_ID)).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"redis", "memory"})
+    void tokenReleaseDecrementsWithoutHeartbeat(String backendName) {
+        AdmissionControl admissionControl = admissionControl(backendName);
+
+        assertThat(admissionControl.admitDirect("u1", PERFORMANCE_ID, SCHEDULE_ID, CAPACITY).admitted()).isTrue();
+        heartbeatRegistry.remove("u1", PERFORMANCE_ID, SCHEDULE_ID, null);
+
+        assertThat(admissionControl.release("u1", PERFORMANCE_ID, SCHEDULE_ID)).isZero();
+        assertThat(admissionControl.activeCount(PERFORMANCE_ID, null)).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"redis", "memory"})
+    void heartbeatOnlyRefreshesAdmittedSessions(String backendName) {
+        AdmissionControl admissionControl = admissionControl(backendName);
+
+        // 자리를 받은 적 없는 사용자의 Heartbeat 는 등록되지 않는다
+        assertThat(heartbeatRegistry.touch("u9", PERFORMANCE_ID, SCHEDULE_ID)).isFalse();
+        assertThat(heartbeatRegistry.sessionCount(PERFORMANCE_ID)).isZero();
+
+        assertThat(admissionControl.admitDirect("u1", PERFORMANCE_ID, SCHEDULE_ID, CAPACITY).admitted()).isTrue();
+        assertThat(heartbeatRegistry.touch("u1", PERFORMANCE_ID, SCHEDULE_ID)).isTrue();
+
+        // 복구 멤버(userId:null)는 첫 Heartbeat 에서 실제 멤버로 교체
+        heartbeatRegistry.restoreAll(PERFORMANCE_ID, Collections.singletonMap("u2", null));
+        assertThat(heartbeatRegistry.touch("u2", PERFORMANCE_ID, SCHEDULE_ID)).isTrue();
+        assertThat(heartbeatRegistry.remove("u2", PERFORMANCE_ID, SCHEDULE_ID, null)).isTrue();
+        assertThat(heartbeatRegistry.sessionCount(PERFORMANCE_ID)).isEqualTo(1);
+    }
+
+    private AdmissionControl admissionControl(String backendName) {
+        AdmissionBackend backend = switch (backendName) {
+            case "redis" -> new RedisAdmissionBackend(redisTemplate, heartbeatRegistry);
+            case "memory" -> new InMemoryAdmissionBackend(waitingLine, heartbeatRegistry);
+            default -> throw new IllegalArgumentException(backendName);
+        };
+        return new AdmissionControl(List.of(backend), heartbeatRegistry, waitingLine,
+                mock(RedisCircuitBreaker.class), backendName);
+    }
+
+    private QueueService queueService(AdmissionControl admissionControl) {
+        return new QueueService(queueTokenStore, redisTemplate, waitingLine, admissionControl, heartbeatRegistry,
+                mock(AdmissionTicketIssuer.class), mock(WaitTimeEstimator.class), mock(QueueMetrics.class),
+                mock(WaitingRoom.class), mock(QueueCounterCache.class), mock(QueueTokenRecovery.class),
+                mock(ScheduleAvailability.class), mock(RedisCircuitBreaker.class), mock(DegradedAdmission.class),
+                mock(BookingOpenTimes.class), 10, 0, 10, "rate");
+    }
+
+    private static QueueToken activeToken(String token, String userId) {
+        return QueueToken.builder()
+                .token(token)
+                .userId(userId)
+                .performanceId(PERFORMANCE_ID)
+                .scheduleId(SCHEDULE_ID)
+                .status(QueueToken.TokenStatus.ACTIVE)
+                .issuedAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusMinutes(10))
+                .bookingExpiresAt(LocalDateTime.now().plusMinutes(10))
+                .build();
+    }
+}